@@ -20,8 +20,10 @@ package org.apache.skywalking.apm.commons.datacarrier;
 
 import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.Channels;
+import org.apache.skywalking.apm.commons.datacarrier.consumer.BulkConsumePool;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.ConsumerPool;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
+import org.apache.skywalking.apm.commons.datacarrier.consumer.MultipleChannelsConsumer;
 import org.apache.skywalking.apm.commons.datacarrier.partition.IDataPartitioner;
 import org.apache.skywalking.apm.commons.datacarrier.partition.SimpleRollingPartitioner;
 
@@ -33,6 +35,8 @@ public class DataCarrier<T> {
     private final int channelSize;
     private Channels<T> channels;
     private ConsumerPool<T> consumerPool;
+    private BulkConsumePool bulkConsumePool;
+    private MultipleChannelsConsumer[] bulkConsumers;
     private String name;
 
     public DataCarrier(int channelSize, int bufferSize) {
@@ -67,6 +71,32 @@ public class DataCarrier<T> {
         return this;
     }
 
+    /**
+     * set how long a producer waits when the buffer is full in {@link BufferStrategy#BLOCKING_PARK}, the data is given
+     * up when the timeout is reached.
+     *
+     * @param timeoutMillis 0 means waiting forever, which is the default.
+     */
+    public DataCarrier setBlockingTimeout(long timeoutMillis) {
+        this.channels.setBlockingTimeout(timeoutMillis);
+        return this;
+    }
+
+    /**
+     * @return the number of data produced but not consumed yet.
+     */
+    public int getQueueDepth() {
+        return this.channels.getDataCount();
+    }
+
+    /**
+     * @return the ratio of the queue depth to the total buffer size, from 0 to 1. The producers could use it to push
+     * back before the buffer is full.
+     */
+    public double getQueueOccupancy() {
+        return (double)this.channels.getDataCount() / this.channels.getCapacity();
+    }
+
     public BlockingDataCarrier<T> toBlockingDataCarrier() {
         this.channels.setStrategy(BufferStrategy.BLOCKING);
         return new BlockingDataCarrier<T>(this.channels);
@@ -85,6 +115,19 @@ public class DataCarrier<T> {
             }
         }
 
+        if (bulkConsumePool != null) {
+            if (bulkConsumers == null || !bulkConsumePool.isRunning()) {
+                return false;
+            }
+            if (!this.channels.save(data)) {
+                return false;
+            }
+            for (MultipleChannelsConsumer consumer : bulkConsumers) {
+                consumer.wakeUp();
+            }
+            return true;
+        }
+
         return this.channels.save(data);
     }
 
@@ -95,9 +138,8 @@ public class DataCarrier<T> {
      * @param num number of consumer threads
      */
     public DataCarrier consume(Class<? extends IConsumer<T>> consumerClass, int num, long consumeCycle) {
-        if (consumerPool != null) {
-            consumerPool.close();
-        }
+        this.shutdownConsumers();
+        bulkConsumePool = null;
         consumerPool = new ConsumerPool<T>(this.name, this.channels, consumerClass, num, consumeCycle);
         consumerPool.begin();
         return this;
@@ -122,9 +164,8 @@ public class DataCarrier<T> {
      * @return
      */
     public DataCarrier consume(IConsumer<T> consumer, int num, long consumeCycle) {
-        if (consumerPool != null) {
-            consumerPool.close();
-        }
+        this.shutdownConsumers();
+        bulkConsumePool = null;
         consumerPool = new ConsumerPool<T>(this.name, this.channels, consumer, num, consumeCycle);
         consumerPool.begin();
         return this;
@@ -142,6 +183,24 @@ public class DataCarrier<T> {
         return this.consume(consumer, num, 20);
     }
 
+    /**
+     * set consumers to this Carrier, the channels are consumed by the threads of the given pool, which is shared with
+     * other carriers.
+     *
+     * @param pool shared by many carriers
+     * @param consumer single instance of consumer, used by all the threads consuming the channels of this carrier.
+     * @return
+     */
+    public DataCarrier consume(BulkConsumePool pool, IConsumer<T> consumer) {
+        this.shutdownConsumers();
+        consumerPool = null;
+        consumer.init();
+        bulkConsumers = pool.add(this.channels, consumer);
+        bulkConsumePool = pool;
+        pool.begin();
+        return this;
+    }
+
     /**
      * shutdown all consumer threads, if consumer threads are running. Notice {@link BufferStrategy}: if {@link
      * BufferStrategy} == {@link BufferStrategy#BLOCKING}, shutdown consumers maybe cause blocking when producing.
@@ -151,5 +210,9 @@ public class DataCarrier<T> {
         if (consumerPool != null) {
             consumerPool.close();
         }
+        if (bulkConsumePool != null) {
+            bulkConsumePool.remove(this.channels);
+            bulkConsumers = null;
+        }
     }
 }
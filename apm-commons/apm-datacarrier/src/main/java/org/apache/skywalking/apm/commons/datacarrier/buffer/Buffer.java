@@ -20,74 +20,175 @@ package org.apache.skywalking.apm.commons.datacarrier.buffer;
 
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 import org.apache.skywalking.apm.commons.datacarrier.callback.QueueBlockingCallback;
 import org.apache.skywalking.apm.commons.datacarrier.common.AtomicRangeInteger;
 
 /**
+ * The slots are claimed by the producers in turn, and published through {@link AtomicReferenceArray}, so the consumer
+ * always sees the whole data saved in a slot. A slot is only written when it is empty, except {@link
+ * BufferStrategy#OVERRIDE}, and emptied by the only consumer of it.
+ *
  * Created by wusheng on 2016/10/25.
  */
 public class Buffer<T> {
-    private final Object[] buffer;
+    private final AtomicReferenceArray<T> buffer;
     private BufferStrategy strategy;
     private AtomicRangeInteger index;
     private List<QueueBlockingCallback<T>> callbacks;
+    private final AtomicInteger dataCount;
+    /**
+     * The producers parked by {@link BufferStrategy#BLOCKING_PARK} wait on the condition, signalled when the consumer
+     * drains any data.
+     */
+    private final ReentrantLock drainLock;
+    private final Condition drained;
+    private final AtomicInteger parkedProducers;
+    private volatile long blockingTimeoutNanos;
 
     Buffer(int bufferSize, BufferStrategy strategy) {
-        buffer = new Object[bufferSize];
+        buffer = new AtomicReferenceArray<T>(bufferSize);
         this.strategy = strategy;
         index = new AtomicRangeInteger(0, bufferSize);
         callbacks = new LinkedList<QueueBlockingCallback<T>>();
+        dataCount = new AtomicInteger(0);
+        drainLock = new ReentrantLock();
+        drained = drainLock.newCondition();
+        parkedProducers = new AtomicInteger(0);
     }
 
     void setStrategy(BufferStrategy strategy) {
         this.strategy = strategy;
     }
 
+    /**
+     * @param timeoutMillis how long a producer waits in {@link BufferStrategy#BLOCKING_PARK}, 0 means forever.
+     */
+    void setBlockingTimeout(long timeoutMillis) {
+        this.blockingTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+    }
+
     void addCallback(QueueBlockingCallback<T> callback) {
         callbacks.add(callback);
     }
 
     boolean save(T data) {
         int i = index.getAndIncrement();
-        if (buffer[i] != null) {
-            switch (strategy) {
-                case BLOCKING:
-                    boolean isFirstTimeBlocking = true;
-                    while (buffer[i] != null) {
-                        if (isFirstTimeBlocking) {
-                            isFirstTimeBlocking = false;
-                            for (QueueBlockingCallback<T> callback : callbacks) {
-                                callback.notify(data);
-                            }
-                        }
-                        try {
-                            Thread.sleep(1L);
-                        } catch (InterruptedException e) {
-                        }
+        if (buffer.compareAndSet(i, null, data)) {
+            dataCount.incrementAndGet();
+            return true;
+        }
+
+        switch (strategy) {
+            case BLOCKING:
+                notifyBlocking(data);
+                while (!buffer.compareAndSet(i, null, data)) {
+                    try {
+                        Thread.sleep(1L);
+                    } catch (InterruptedException e) {
                     }
-                    break;
-                case IF_POSSIBLE:
+                }
+                dataCount.incrementAndGet();
+                return true;
+            case BLOCKING_PARK:
+                notifyBlocking(data);
+                if (parkUntilSaved(i, data)) {
+                    dataCount.incrementAndGet();
+                    return true;
+                }
+                return false;
+            case IF_POSSIBLE:
+                return false;
+            case OVERRIDE:
+            default:
+                if (buffer.getAndSet(i, data) == null) {
+                    dataCount.incrementAndGet();
+                }
+                return true;
+        }
+    }
+
+    private void notifyBlocking(T data) {
+        for (QueueBlockingCallback<T> callback : callbacks) {
+            callback.notify(data);
+        }
+    }
+
+    /**
+     * The parked producer is counted before the slot is checked again under the lock, so either the consumer sees it
+     * and signals, or the slot has been drained before the check.
+     *
+     * @return false if the timeout is reached or the thread is interrupted.
+     */
+    private boolean parkUntilSaved(int i, T data) {
+        long timeoutNanos = blockingTimeoutNanos;
+        long remaining = timeoutNanos;
+        parkedProducers.incrementAndGet();
+        drainLock.lock();
+        try {
+            while (!buffer.compareAndSet(i, null, data)) {
+                if (timeoutNanos == 0) {
+                    drained.await();
+                } else if (remaining > 0) {
+                    remaining = drained.awaitNanos(remaining);
+                } else {
                     return false;
-                case OVERRIDE:
-                default:
+                }
             }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            drainLock.unlock();
+            parkedProducers.decrementAndGet();
         }
-        buffer[i] = data;
-        return true;
     }
 
     public int getBufferSize() {
-        return buffer.length;
+        return buffer.length();
     }
 
-    public LinkedList<T> obtain(int start, int end) {
-        LinkedList<T> result = new LinkedList<T>();
+    /**
+     * Move all the data in the slots [start, end) into the given list, without any allocation besides the growth of the
+     * list, so the consumers could reuse one list.
+     */
+    public void obtain(List<T> consumeList, int start, int end) {
+        int obtained = 0;
         for (int i = start; i < end; i++) {
-            if (buffer[i] != null) {
-                result.add((T)buffer[i]);
-                buffer[i] = null;
+            if (buffer.get(i) != null) {
+                consumeList.add(buffer.getAndSet(i, null));
+                obtained++;
+            }
+        }
+
+        if (obtained > 0) {
+            dataCount.addAndGet(-obtained);
+            if (parkedProducers.get() > 0) {
+                drainLock.lock();
+                try {
+                    drained.signalAll();
+                } finally {
+                    drainLock.unlock();
+                }
             }
         }
+    }
+
+    /**
+     * @return the number of data waiting to be consumed.
+     */
+    public int getDataCount() {
+        return dataCount.get();
+    }
+
+    public LinkedList<T> obtain(int start, int end) {
+        LinkedList<T> result = new LinkedList<T>();
+        obtain(result, start, end);
         return result;
     }
 
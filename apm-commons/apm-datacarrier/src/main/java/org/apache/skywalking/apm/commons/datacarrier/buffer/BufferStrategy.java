@@ -24,6 +24,11 @@ package org.apache.skywalking.apm.commons.datacarrier.buffer;
  */
 public enum BufferStrategy {
     BLOCKING,
+    /**
+     * Blocks like {@link #BLOCKING}, but the producer parks until the consumer drains the slot rather than sleeping in
+     * a loop, and gives up the data when the blocking timeout of the buffer is reached.
+     */
+    BLOCKING_PARK,
     OVERRIDE,
     IF_POSSIBLE
 }
@@ -72,6 +72,37 @@ public class Channels<T> {
         }
     }
 
+    /**
+     * @param timeoutMillis how long a producer waits in {@link BufferStrategy#BLOCKING_PARK}, 0 means forever.
+     */
+    public void setBlockingTimeout(long timeoutMillis) {
+        for (Buffer<T> buffer : bufferChannels) {
+            buffer.setBlockingTimeout(timeoutMillis);
+        }
+    }
+
+    /**
+     * @return the number of data waiting to be consumed in all channels.
+     */
+    public int getDataCount() {
+        int count = 0;
+        for (Buffer<T> buffer : bufferChannels) {
+            count += buffer.getDataCount();
+        }
+        return count;
+    }
+
+    /**
+     * @return the total size of all channels.
+     */
+    public int getCapacity() {
+        int capacity = 0;
+        for (Buffer<T> buffer : bufferChannels) {
+            capacity += buffer.getBufferSize();
+        }
+        return capacity;
+    }
+
     /**
      * get channelSize
      *
@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.consumer;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.Channels;
+
+/**
+ * A fixed-size pool of consumer threads shared by many carriers, so the number of threads doesn't grow with the number
+ * of carriers. Each channel of a carrier is assigned to the thread which consumes the fewest channels, and one channel
+ * is always consumed by one thread.
+ *
+ * Different from {@link ConsumerPool}, the threads don't poll with a fixed sleep, see {@link
+ * MultipleChannelsConsumer}.
+ */
+public class BulkConsumePool {
+    private final MultipleChannelsConsumer[] consumerThreads;
+    private volatile boolean running;
+
+    public BulkConsumePool(String name, int size, long consumeCycle) {
+        consumerThreads = new MultipleChannelsConsumer[size];
+        for (int i = 0; i < size; i++) {
+            consumerThreads[i] = new MultipleChannelsConsumer("DataCarrier." + name + ".BulkConsumePool." + i + ".Thread", consumeCycle);
+            consumerThreads[i].setDaemon(true);
+        }
+    }
+
+    /**
+     * @return the threads which consume the channels, the producers of the channels should wake them up after saving
+     * data.
+     */
+    public synchronized <T> MultipleChannelsConsumer[] add(Channels<T> channels, IConsumer<T> consumer) {
+        List<MultipleChannelsConsumer> allocated = new ArrayList<MultipleChannelsConsumer>();
+        for (int channelIndex = 0; channelIndex < channels.getChannelSize(); channelIndex++) {
+            MultipleChannelsConsumer leastBusy = consumerThreads[0];
+            for (MultipleChannelsConsumer consumerThread : consumerThreads) {
+                if (consumerThread.size() < leastBusy.size()) {
+                    leastBusy = consumerThread;
+                }
+            }
+            leastBusy.addTarget(channels, channels.getBuffer(channelIndex), consumer);
+            if (!allocated.contains(leastBusy)) {
+                allocated.add(leastBusy);
+            }
+        }
+        return allocated.toArray(new MultipleChannelsConsumer[allocated.size()]);
+    }
+
+    public synchronized void remove(Channels channels) {
+        for (MultipleChannelsConsumer consumerThread : consumerThreads) {
+            consumerThread.removeTargets(channels);
+        }
+    }
+
+    public synchronized void begin() {
+        if (running) {
+            return;
+        }
+        for (MultipleChannelsConsumer consumerThread : consumerThreads) {
+            consumerThread.start();
+        }
+        running = true;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public synchronized void close() {
+        running = false;
+        for (MultipleChannelsConsumer consumerThread : consumerThreads) {
+            consumerThread.shutdown();
+        }
+    }
+}
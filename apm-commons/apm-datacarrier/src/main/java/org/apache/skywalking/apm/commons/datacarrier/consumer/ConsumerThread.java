@@ -19,6 +19,7 @@
 
 package org.apache.skywalking.apm.commons.datacarrier.consumer;
 
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.Buffer;
@@ -31,6 +32,10 @@ public class ConsumerThread<T> extends Thread {
     private IConsumer<T> consumer;
     private List<DataSource> dataSources;
     private long consumeCycle;
+    /**
+     * Reused by every consume, the consumer must not keep it after {@link IConsumer#consume(List)} returns.
+     */
+    private final ArrayList<T> consumeList;
 
     ConsumerThread(String threadName, IConsumer<T> consumer, long consumeCycle) {
         super(threadName);
@@ -38,6 +43,7 @@ public class ConsumerThread<T> extends Thread {
         running = false;
         dataSources = new LinkedList<DataSource>();
         this.consumeCycle = consumeCycle;
+        this.consumeList = new ArrayList<T>();
     }
 
     /**
@@ -83,27 +89,21 @@ public class ConsumerThread<T> extends Thread {
     }
 
     private boolean consume() {
-        boolean hasData = false;
-        LinkedList<T> consumeList = new LinkedList<T>();
         for (DataSource dataSource : dataSources) {
-            LinkedList<T> data = dataSource.obtain();
-            if (data.size() == 0) {
-                continue;
-            }
-            for (T element : data) {
-                consumeList.add(element);
-            }
-            hasData = true;
+            dataSource.obtain(consumeList);
         }
 
-        if (consumeList.size() > 0) {
-            try {
-                consumer.consume(consumeList);
-            } catch (Throwable t) {
-                consumer.onError(consumeList, t);
-            }
+        if (consumeList.isEmpty()) {
+            return false;
+        }
+        try {
+            consumer.consume(consumeList);
+        } catch (Throwable t) {
+            consumer.onError(consumeList, t);
+        } finally {
+            consumeList.clear();
         }
-        return hasData;
+        return true;
     }
 
     void shutdown() {
@@ -124,8 +124,8 @@ public class ConsumerThread<T> extends Thread {
             this.end = end;
         }
 
-        LinkedList<T> obtain() {
-            return sourceBuffer.obtain(start, end);
+        void obtain(List<T> consumeList) {
+            sourceBuffer.obtain(consumeList, start, end);
         }
     }
 }
@@ -27,6 +27,9 @@ import java.util.List;
 public interface IConsumer<T> {
     void init();
 
+    /**
+     * @param data is reused by the consumer thread, don't keep the reference of it after this method returns.
+     */
     void consume(List<T> data);
 
     void onError(List<T> data, Throwable t);
@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.consumer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.Buffer;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.Channels;
+
+/**
+ * A consumer thread of {@link BulkConsumePool}, consumes the channels of several carriers. It parks when all of its
+ * channels are empty, and is woken up by {@link #wakeUp()} when a producer saves new data, or after the consume
+ * cycle.
+ */
+public class MultipleChannelsConsumer extends Thread {
+    private volatile boolean running;
+    private volatile boolean parked;
+    private volatile List<Target> targets;
+    private final long consumeCycle;
+    /**
+     * Reused by every consume, the consumers must not keep it after {@link IConsumer#consume(List)} returns.
+     */
+    private final ArrayList consumeList;
+
+    MultipleChannelsConsumer(String threadName, long consumeCycle) {
+        super(threadName);
+        this.targets = new ArrayList<Target>();
+        this.consumeCycle = consumeCycle;
+        this.consumeList = new ArrayList();
+    }
+
+    @Override
+    public void run() {
+        running = true;
+
+        while (running) {
+            if (!consume()) {
+                parked = true;
+                // Check again, the data saved before the flag is visible to the producers doesn't wake this thread up.
+                if (!consume()) {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(consumeCycle));
+                }
+                parked = false;
+            }
+        }
+
+        // consumer thread is going to stop
+        // consume the last time
+        consume();
+
+        for (Target target : targets) {
+            target.consumer.onExit();
+        }
+    }
+
+    private boolean consume() {
+        boolean hasData = false;
+        for (Target target : targets) {
+            target.buffer.obtain(consumeList, 0, target.buffer.getBufferSize());
+            if (consumeList.isEmpty()) {
+                continue;
+            }
+            hasData = true;
+
+            try {
+                target.consumer.consume(consumeList);
+            } catch (Throwable t) {
+                target.consumer.onError(consumeList, t);
+            } finally {
+                consumeList.clear();
+            }
+        }
+        return hasData;
+    }
+
+    /**
+     * Unpark this thread if it is waiting for data.
+     */
+    public void wakeUp() {
+        if (parked) {
+            LockSupport.unpark(this);
+        }
+    }
+
+    /**
+     * Targets are copied on write, the running thread always iterates a stable list.
+     */
+    synchronized void addTarget(Channels channels, Buffer buffer, IConsumer consumer) {
+        List<Target> newTargets = new ArrayList<Target>(targets);
+        newTargets.add(new Target(channels, buffer, consumer));
+        targets = newTargets;
+    }
+
+    synchronized boolean removeTargets(Channels channels) {
+        List<Target> newTargets = new ArrayList<Target>(targets.size());
+        for (Target target : targets) {
+            if (target.channels != channels) {
+                newTargets.add(target);
+            }
+        }
+        boolean removed = newTargets.size() != targets.size();
+        targets = newTargets;
+        return removed;
+    }
+
+    int size() {
+        return targets.size();
+    }
+
+    void shutdown() {
+        running = false;
+        LockSupport.unpark(this);
+    }
+
+    private static class Target {
+        private final Channels channels;
+        private final Buffer buffer;
+        private final IConsumer consumer;
+
+        private Target(Channels channels, Buffer buffer, IConsumer consumer) {
+            this.channels = channels;
+            this.buffer = buffer;
+            this.consumer = consumer;
+        }
+    }
+}
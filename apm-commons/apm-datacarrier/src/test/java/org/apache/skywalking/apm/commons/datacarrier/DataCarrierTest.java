@@ -164,4 +164,60 @@ public class DataCarrierTest {
 
         Assert.assertTrue(time2 - time1 > 2000);
     }
+
+    @Test
+    public void testBlockingParkProduce() throws IllegalAccessException {
+        final DataCarrier<SampleData> carrier = new DataCarrier<SampleData>(2, 100);
+        carrier.setBufferStrategy(BufferStrategy.BLOCKING_PARK);
+
+        for (int i = 0; i < 200; i++) {
+            Assert.assertTrue(carrier.produce(new SampleData().setName("d" + i)));
+        }
+        Assert.assertEquals(200, carrier.getQueueDepth());
+        Assert.assertEquals(1.0, carrier.getQueueOccupancy(), 0.001);
+
+        long time1 = System.currentTimeMillis();
+        new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException e) {
+                    e.printStackTrace();
+                }
+                Channels<SampleData> channels = null;
+                try {
+                    channels = (Channels<SampleData>)(MemberModifier.field(DataCarrier.class, "channels").get(carrier));
+                } catch (IllegalAccessException e) {
+                    e.printStackTrace();
+                }
+                channels.getBuffer(0).obtain(0, 100);
+                channels.getBuffer(1).obtain(0, 100);
+            }
+        }).start();
+
+        Assert.assertTrue(carrier.produce(new SampleData().setName("blocking-data")));
+        long time2 = System.currentTimeMillis();
+
+        Assert.assertTrue(time2 - time1 > 500);
+        // The producer may wake up once buffer 0 is drained, before buffer 1 is.
+        int depth = carrier.getQueueDepth();
+        Assert.assertTrue(depth >= 1 && depth <= 101);
+    }
+
+    @Test
+    public void testBlockingParkTimeout() {
+        DataCarrier<SampleData> carrier = new DataCarrier<SampleData>(1, 10);
+        carrier.setBufferStrategy(BufferStrategy.BLOCKING_PARK);
+        carrier.setBlockingTimeout(100);
+
+        for (int i = 0; i < 10; i++) {
+            Assert.assertTrue(carrier.produce(new SampleData().setName("d" + i)));
+        }
+
+        long time1 = System.currentTimeMillis();
+        Assert.assertFalse(carrier.produce(new SampleData().setName("timeout-data")));
+        Assert.assertTrue(System.currentTimeMillis() - time1 >= 100);
+        Assert.assertEquals(10, carrier.getQueueDepth());
+    }
 }
@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.consumer;
+
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
+import org.apache.skywalking.apm.commons.datacarrier.SampleData;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BulkConsumePoolTest {
+
+    @Test
+    public void testCarriersShareThreads() throws InterruptedException {
+        BulkConsumePool pool = new BulkConsumePool("test", 2, 1000);
+
+        LinkedBlockingQueue<SampleData> buffer1 = new LinkedBlockingQueue<SampleData>();
+        LinkedBlockingQueue<SampleData> buffer2 = new LinkedBlockingQueue<SampleData>();
+        DataCarrier<SampleData> carrier1 = new DataCarrier<SampleData>("carrier1", 3, 100);
+        DataCarrier<SampleData> carrier2 = new DataCarrier<SampleData>("carrier2", 1, 100);
+        carrier1.consume(pool, new QueueConsumer(buffer1));
+        carrier2.consume(pool, new QueueConsumer(buffer2));
+
+        for (int i = 0; i < 100; i++) {
+            Assert.assertTrue(carrier1.produce(new SampleData().setName("data" + i)));
+            Assert.assertTrue(carrier2.produce(new SampleData().setName("data" + i)));
+        }
+
+        // Consume cycle is 1 second, the data is consumed earlier only when the producers wake the threads up.
+        Thread.sleep(500);
+
+        Assert.assertEquals(100, buffer1.size());
+        Assert.assertEquals(100, buffer2.size());
+
+        carrier1.shutdownConsumers();
+        Assert.assertFalse(carrier1.produce(new SampleData()));
+        Assert.assertTrue(carrier2.produce(new SampleData()));
+
+        pool.close();
+    }
+
+    private static class QueueConsumer implements IConsumer<SampleData> {
+        private final LinkedBlockingQueue<SampleData> buffer;
+
+        private QueueConsumer(LinkedBlockingQueue<SampleData> buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public void init() {
+
+        }
+
+        @Override
+        public void consume(List<SampleData> data) {
+            buffer.addAll(data);
+        }
+
+        @Override
+        public void onError(List<SampleData> data, Throwable t) {
+
+        }
+
+        @Override
+        public void onExit() {
+
+        }
+    }
+}
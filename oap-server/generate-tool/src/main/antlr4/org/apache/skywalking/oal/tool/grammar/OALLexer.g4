@@ -102,6 +102,8 @@ fragment Letter
 DOT:                                 '.';
 LR_BRACKET:                          '(';
 RR_BRACKET:                          ')';
+LS_BRACKET:                          '[';
+RS_BRACKET:                          ']';
 COMMA:                               ',';
 SEMI:                                ';';
 EQUAL:                               '=';
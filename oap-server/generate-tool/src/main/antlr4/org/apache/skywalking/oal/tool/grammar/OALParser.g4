@@ -60,7 +60,7 @@ variable
     ;
 
 aggregateFunction
-    : functionName LR_BRACKET (funcParamExpression | (literalExpression (COMMA literalExpression)?))? RR_BRACKET
+    : functionName LR_BRACKET (funcParamExpression | (literalExpression (COMMA literalExpression)*))? RR_BRACKET
     ;
 
 functionName
@@ -72,7 +72,11 @@ funcParamExpression
     ;
 
 literalExpression
-    : BOOL_LITERAL | INT_LITERAL
+    : BOOL_LITERAL | INT_LITERAL | intArrayLiteral
+    ;
+
+intArrayLiteral
+    : LS_BRACKET INT_LITERAL (COMMA INT_LITERAL)* RS_BRACKET
     ;
 
 expression
@@ -36,4 +36,22 @@ public class DispatcherContext {
     private List<AnalysisResult> serviceInstanceJVMMemoryIndicators = new LinkedList<>();
     private List<AnalysisResult> serviceInstanceJVMMemoryPoolIndicators = new LinkedList<>();
     private List<AnalysisResult> serviceInstanceJVMGCIndicators = new LinkedList<>();
+    /**
+     * The indicators of each source, grouped by the same filter condition.
+     */
+    private Map<String, List<DispatcherFilterGroup>> filterGroups = new HashMap<>();
+
+    public void addToFilterGroup(AnalysisResult result) {
+        List<DispatcherFilterGroup> groups = filterGroups.computeIfAbsent(result.getSourceName(), sourceName -> new LinkedList<>());
+        String condition = result.getFilterCondition();
+        for (DispatcherFilterGroup group : groups) {
+            if (Objects.equals(group.getCondition(), condition)) {
+                group.getIndicators().add(result);
+                return;
+            }
+        }
+        DispatcherFilterGroup group = new DispatcherFilterGroup(condition);
+        group.getIndicators().add(result);
+        groups.add(group);
+    }
 }
@@ -0,0 +1,38 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oal.tool.output;
+
+import java.util.*;
+import lombok.*;
+import org.apache.skywalking.oal.tool.parser.AnalysisResult;
+
+/**
+ * The indicators of one source sharing the same filter condition, the condition is evaluated once for all of them
+ * before any indicator is created.
+ */
+
+@Getter(AccessLevel.PUBLIC)
+public class DispatcherFilterGroup {
+    private final String condition;
+    private final List<AnalysisResult> indicators = new LinkedList<>();
+
+    public DispatcherFilterGroup(String condition) {
+        this.condition = condition;
+    }
+}
@@ -204,6 +204,7 @@ public class FileGenerator {
                 default:
                     throw new RuntimeException("Unexpected dispatcher");
             }
+            dispatcherContext.addToFilterGroup(result);
         }
     }
 }
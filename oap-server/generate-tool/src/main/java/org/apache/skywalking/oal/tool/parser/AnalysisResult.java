@@ -79,6 +79,18 @@ public class AnalysisResult {
         filterExpressions.add(filterExpression);
     }
 
+    /**
+     * @return all the filter conditions joined by AND, or null if no filter.
+     */
+    public String getFilterCondition() {
+        if (filterExpressions == null || filterExpressions.isEmpty()) {
+            return null;
+        }
+        StringJoiner condition = new StringJoiner(" && ");
+        filterExpressions.forEach(expression -> condition.add(expression.getCondition()));
+        return condition.toString();
+    }
+
     public void addFilterExpressionsParserResult(ConditionExpression conditionExpression) {
         if (filterExpressionsParserResult == null) {
             filterExpressionsParserResult = new LinkedList<>();
@@ -100,6 +112,10 @@ public class AnalysisResult {
     public void generateSerializeFields() {
         serializeFields = new PersistenceColumns();
         for (SourceColumn sourceColumn : fieldsFromSource) {
+            if (sourceColumn.isPackedKey()) {
+                serializeFields.addIntField(sourceColumn.getKeyFieldName());
+                continue;
+            }
             String type = sourceColumn.getType().getSimpleName();
             switch (type) {
                 case "int":
@@ -134,7 +150,7 @@ public class AnalysisResult {
                 case "long":
                     serializeFields.addLongField(column.getFieldName());
                     break;
-                case "IntKeyLongValueArray":
+                case "IntKeyLongValueHistogram":
                     serializeFields.addIntLongValuePairelistField(column.getFieldName());
                     break;
                 default:
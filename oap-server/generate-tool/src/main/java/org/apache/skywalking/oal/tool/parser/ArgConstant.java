@@ -16,36 +16,18 @@
  *
  */
 
-package org.apache.skywalking.oap.server.core.analysis.data;
+package org.apache.skywalking.oal.tool.parser;
 
-import java.util.Collection;
+import lombok.*;
 
 /**
- * @author peng-yongsheng
+ * An entrance method argument declared as a static final field of the generated indicator class, such as the int
+ * array literal, so it is created once rather than for every source.
  */
-public interface SWCollection<DATA> {
-
-    void reading();
-
-    boolean isReading();
-
-    void writing();
-
-    boolean isWriting();
-
-    void clear();
-
-    int size();
-
-    void finishReading();
-
-    void finishWriting();
-
-    Collection<DATA> collection();
-
-    boolean containsKey(DATA key);
-
-    DATA get(DATA key);
-
-    void put(DATA value);
+@Getter(AccessLevel.PUBLIC)
+@AllArgsConstructor
+public class ArgConstant {
+    private String typeName;
+    private String name;
+    private String expression;
 }
@@ -112,7 +112,13 @@ public class DeepAnalysis {
                     throw new IllegalArgumentException("Entrance method:" + entranceMethod + " argument has @ExpressionArg0, but can't find funcParamExpression.");
                 }
             } else if (annotation instanceof Arg) {
-                entryMethod.addArg(result.getNextFuncArg());
+                if (parameter.getType().isArray()) {
+                    ArgConstant constant = new ArgConstant(parameter.getType().getCanonicalName(), "ARG_" + entryMethod.getArgConstants().size(), result.getNextFuncArg());
+                    entryMethod.addArgConstant(constant);
+                    entryMethod.addArg(result.getMetricName() + "Indicator." + constant.getName());
+                } else {
+                    entryMethod.addArg(result.getNextFuncArg());
+                }
             } else {
                 throw new IllegalArgumentException("Entrance method:" + entranceMethod + " doesn't the expected annotation.");
             }
@@ -28,10 +28,16 @@ public class EntryMethod {
 
     private List<String> argsExpressions;
 
+    private List<ArgConstant> argConstants = new LinkedList<>();
+
     public void addArg(String expression) {
         if (argsExpressions == null) {
             argsExpressions = new LinkedList<>();
         }
         argsExpressions.add(expression);
     }
+
+    public void addArgConstant(ArgConstant constant) {
+        argConstants.add(constant);
+    }
 }
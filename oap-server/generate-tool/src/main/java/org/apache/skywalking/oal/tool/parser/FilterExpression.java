@@ -26,4 +26,24 @@ public class FilterExpression {
     private String expressionObject;
     private String left;
     private String right;
+
+    /**
+     * @return the inlined java condition of this expression, evaluated in the dispatcher without allocating any
+     * expression object.
+     */
+    public String getCondition() {
+        if ("EqualMatch".equals(expressionObject)) {
+            if (right.startsWith("\"")) {
+                return right + ".equals(" + left + ")";
+            }
+            if ("true".equals(right)) {
+                return left;
+            }
+            if ("false".equals(right)) {
+                return "!" + left;
+            }
+            return left + " == " + right;
+        }
+        throw new IllegalArgumentException("filter expression object [" + expressionObject + "] not supported");
+    }
 }
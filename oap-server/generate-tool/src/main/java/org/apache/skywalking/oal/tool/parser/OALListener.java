@@ -116,9 +116,23 @@ public class OALListener extends OALParserBaseListener {
     ////////////
 
     @Override public void enterLiteralExpression(OALParser.LiteralExpressionContext ctx) {
+        if (ctx.intArrayLiteral() != null) {
+            return;
+        }
         current.addFuncArg(ctx.getText());
     }
 
+    @Override public void enterIntArrayLiteral(OALParser.IntArrayLiteralContext ctx) {
+        StringBuilder arg = new StringBuilder("new int[] {");
+        for (int i = 0; i < ctx.INT_LITERAL().size(); i++) {
+            if (i > 0) {
+                arg.append(", ");
+            }
+            arg.append(ctx.INT_LITERAL(i).getText());
+        }
+        current.addFuncArg(arg.append("}").toString());
+    }
+
     private String metricNameFormat(String source) {
         source = firstLetterUpper(source);
         int idx;
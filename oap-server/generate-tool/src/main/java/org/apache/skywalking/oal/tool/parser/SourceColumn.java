@@ -31,6 +31,15 @@ public class SourceColumn {
     private boolean isID;
     private String fieldSetter;
     private String fieldGetter;
+    /**
+     * True if the column is the string of an int key of the source, such as the id of a service. The generated
+     * indicator keeps the key, merges, routes and transfers by it, and builds the string column only for the storage.
+     */
+    private boolean packedKey;
+    private String keyFieldName;
+    private String keySetter;
+    private String keyGetter;
+    private String sourceGetter;
 
     public SourceColumn(String fieldName, String columnName, Class<?> type, boolean isID) {
         this.fieldName = fieldName;
@@ -41,6 +50,25 @@ public class SourceColumn {
 
         this.fieldGetter = ClassMethodUtil.toGetMethod(fieldName);
         this.fieldSetter = ClassMethodUtil.toSetMethod(fieldName);
+
+        this.keyFieldName = fieldName;
+        this.keyGetter = fieldGetter;
+        this.keySetter = fieldSetter;
+        this.sourceGetter = fieldGetter;
+    }
+
+    /**
+     * @param keyFieldName the field of the int key in the indicator.
+     * @param sourceKeyFieldName the field of the int key in the source.
+     */
+    public SourceColumn(String fieldName, String columnName, boolean isID, String keyFieldName,
+        String sourceKeyFieldName) {
+        this(fieldName, columnName, String.class, isID);
+        this.packedKey = true;
+        this.keyFieldName = keyFieldName;
+        this.keyGetter = ClassMethodUtil.toGetMethod(keyFieldName);
+        this.keySetter = ClassMethodUtil.toSetMethod(keyFieldName);
+        this.sourceGetter = ClassMethodUtil.toGetMethod(sourceKeyFieldName);
     }
 
     @Override public String toString() {
@@ -49,6 +77,7 @@ public class SourceColumn {
             ", columnName='" + columnName + '\'' +
             ", type=" + type +
             ", isID=" + isID +
+            ", packedKey=" + packedKey +
             '}';
     }
 }
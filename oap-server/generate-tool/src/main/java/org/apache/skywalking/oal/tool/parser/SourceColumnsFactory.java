@@ -30,13 +30,13 @@ public class SourceColumnsFactory {
             case "Service":
                 columnList = new LinkedList<>();
                 // Service id;
-                idColumn = new SourceColumn("entityId", "entity_id", String.class, true);
+                idColumn = new SourceColumn("entityId", "entity_id", true, "entityKey", "id");
                 columnList.add(idColumn);
                 return columnList;
             case "ServiceInstance":
                 columnList = new LinkedList<>();
                 // Service instance id;
-                idColumn = new SourceColumn("entityId", "entity_id", String.class, true);
+                idColumn = new SourceColumn("entityId", "entity_id", true, "entityKey", "id");
                 columnList.add(idColumn);
                 SourceColumn serviceIdColumn = new SourceColumn("serviceId", "service_id", int.class, false);
                 columnList.add(serviceIdColumn);
@@ -44,7 +44,7 @@ public class SourceColumnsFactory {
             case "Endpoint":
                 columnList = new LinkedList<>();
                 // Endpoint id;
-                idColumn = new SourceColumn("entityId", "entity_id", String.class, true);
+                idColumn = new SourceColumn("entityId", "entity_id", true, "entityKey", "id");
                 columnList.add(idColumn);
                 serviceIdColumn = new SourceColumn("serviceId", "service_id", int.class, false);
                 columnList.add(serviceIdColumn);
@@ -57,7 +57,7 @@ public class SourceColumnsFactory {
             case "ServiceInstanceJVMGC":
                 columnList = new LinkedList<>();
                 // Service instance id;
-                idColumn = new SourceColumn("entityId", "entity_id", String.class, true);
+                idColumn = new SourceColumn("entityId", "entity_id", true, "entityKey", "id");
                 columnList.add(idColumn);
                 serviceInstanceIdColumn = new SourceColumn("serviceInstanceId", "service_instance_id", int.class, false);
                 columnList.add(serviceInstanceIdColumn);
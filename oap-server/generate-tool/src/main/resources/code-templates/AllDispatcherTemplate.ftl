@@ -21,12 +21,6 @@ package org.apache.skywalking.oap.server.core.analysis.generated.all;
 import org.apache.skywalking.oap.server.core.analysis.SourceDispatcher;
 <#if (allIndicators?size>0)>
 import org.apache.skywalking.oap.server.core.analysis.worker.IndicatorProcess;
-    <#list allIndicators as indicator>
-        <#if indicator.filterExpressions??>
-import org.apache.skywalking.oap.server.core.analysis.indicator.expression.*;
-            <#break>
-        </#if>
-    </#list>
 </#if>
 import org.apache.skywalking.oap.server.core.source.*;
 
@@ -38,26 +32,27 @@ import org.apache.skywalking.oap.server.core.source.*;
 public class AllDispatcher implements SourceDispatcher<All> {
 
     @Override public void dispatch(All source) {
-<#list allIndicators as indicator>
+<#list filterGroups["All"]![] as group>
+    <#if group.condition??>
+        if (${group.condition}) {
+        <#list group.indicators as indicator>
+            do${indicator.metricName}(source);
+        </#list>
+        }
+    <#else>
+        <#list group.indicators as indicator>
         do${indicator.metricName}(source);
+        </#list>
+    </#if>
 </#list>
     }
 
 <#list allIndicators as indicator>
     private void do${indicator.metricName}(All source) {
         ${indicator.metricName}Indicator indicator = new ${indicator.metricName}Indicator();
-
-    <#if indicator.filterExpressions??>
-        <#list indicator.filterExpressions as filterExpression>
-        if (!new ${filterExpression.expressionObject}().setLeft(${filterExpression.left}).setRight(${filterExpression.right}).match()) {
-            return;
-        }
-        </#list>
-    </#if>
-
         indicator.setTimeBucket(source.getTimeBucket());
     <#list indicator.fieldsFromSource as field>
-        indicator.${field.fieldSetter}(source.${field.fieldGetter}());
+        indicator.${field.keySetter}(source.${field.sourceGetter}());
     </#list>
         indicator.${indicator.entryMethod.methodName}(<#list indicator.entryMethod.argsExpressions as arg>${arg}<#if arg_has_next>, </#if></#list>);
         IndicatorProcess.INSTANCE.in(indicator);
@@ -19,9 +19,12 @@
 package org.apache.skywalking.oap.server.core.analysis.generated.${packageName};
 
 import java.util.*;
-<#if (fieldsFromSource?size>0) >
+<#list fieldsFromSource as sourceField>
+    <#if !sourceField.packedKey>
 import lombok.*;
-</#if>
+        <#break>
+    </#if>
+</#list>
 <#list fieldsFromSource as sourceField>
     <#if sourceField.isID()>
 import org.apache.skywalking.oap.server.core.Const;
@@ -48,15 +51,51 @@ import org.apache.skywalking.oap.server.core.source.Scope;
 @StorageEntity(name = "${tableName}", builder = ${metricName}Indicator.Builder.class, source = Scope.${sourceName})
 public class ${metricName}Indicator extends ${indicatorClassName} implements AlarmSupported {
 
+<#list entryMethod.argConstants as constant>
+    static final ${constant.typeName} ${constant.name} = ${constant.expression};
+
+</#list>
 <#list fieldsFromSource as sourceField>
+    <#if sourceField.packedKey>
+    @Column(columnName = "${sourceField.columnName}") <#if sourceField.isID()>@IDColumn</#if> private ${sourceField.typeName} ${sourceField.fieldName};
+    private int ${sourceField.keyFieldName};
+    <#else>
     @Setter @Getter @Column(columnName = "${sourceField.columnName}") <#if sourceField.isID()>@IDColumn</#if> private ${sourceField.typeName} ${sourceField.fieldName};
+    </#if>
+</#list>
+<#list fieldsFromSource as sourceField>
+    <#if sourceField.packedKey>
+
+    public int ${sourceField.keyGetter}() {
+        return ${sourceField.keyFieldName};
+    }
+
+    public void ${sourceField.keySetter}(int ${sourceField.keyFieldName}) {
+        this.${sourceField.keyFieldName} = ${sourceField.keyFieldName};
+        this.${sourceField.fieldName} = null;
+    }
+
+    public String ${sourceField.fieldGetter}() {
+        if (${sourceField.fieldName} == null) {
+            ${sourceField.fieldName} = String.valueOf(${sourceField.keyFieldName});
+        }
+        return ${sourceField.fieldName};
+    }
+
+    public void ${sourceField.fieldSetter}(String ${sourceField.fieldName}) {
+        this.${sourceField.keyFieldName} = Integer.parseInt(${sourceField.fieldName});
+        this.${sourceField.fieldName} = ${sourceField.fieldName};
+    }
+    </#if>
 </#list>
 
     @Override public String id() {
         String splitJointId = String.valueOf(getTimeBucket());
 <#list fieldsFromSource as sourceField>
     <#if sourceField.isID()>
-        <#if sourceField.getTypeName() == "java.lang.String">
+        <#if sourceField.packedKey>
+        splitJointId += Const.ID_SPLIT + ${sourceField.keyFieldName};
+        <#elseif sourceField.getTypeName() == "java.lang.String">
         splitJointId += Const.ID_SPLIT + ${sourceField.fieldName};
         <#else>
         splitJointId += Const.ID_SPLIT + String.valueOf(${sourceField.fieldName});
@@ -70,10 +109,14 @@ public class ${metricName}Indicator extends ${indicatorClassName} implements Ala
         int result = 17;
 <#list fieldsFromSource as sourceField>
     <#if sourceField.isID()>
-        <#if sourceField.getTypeName() == "java.lang.String">
+        <#if sourceField.packedKey>
+        result = 31 * result + ${sourceField.keyFieldName};
+        <#elseif sourceField.getTypeName() == "java.lang.String">
         result = 31 * result + ${sourceField.fieldName}.hashCode();
+        <#elseif sourceField.getTypeName() == "long">
+        result = 31 * result + Long.hashCode(${sourceField.fieldName});
         <#else>
-        result += Const.ID_SPLIT + ${sourceField.fieldName};
+        result = 31 * result + ${sourceField.fieldName};
         </#if>
     </#if>
 </#list>
@@ -85,10 +128,14 @@ public class ${metricName}Indicator extends ${indicatorClassName} implements Ala
         int result = 17;
 <#list fieldsFromSource as sourceField>
     <#if sourceField.isID()>
-        <#if sourceField.getTypeName() == "java.lang.String">
+        <#if sourceField.packedKey>
+        result = 31 * result + ${sourceField.keyFieldName};
+        <#elseif sourceField.getTypeName() == "java.lang.String">
         result = 31 * result + ${sourceField.fieldName}.hashCode();
+        <#elseif sourceField.getTypeName() == "long">
+        result = 31 * result + Long.hashCode(${sourceField.fieldName});
         <#else>
-        result += Const.ID_SPLIT + ${sourceField.fieldName};
+        result = 31 * result + ${sourceField.fieldName};
         </#if>
     </#if>
 </#list>
@@ -104,9 +151,13 @@ public class ${metricName}Indicator extends ${indicatorClassName} implements Ala
             return false;
 
         ${metricName}Indicator indicator = (${metricName}Indicator)obj;
+        if (getTimeBucket() != indicator.getTimeBucket())
+            return false;
 <#list fieldsFromSource as sourceField>
     <#if sourceField.isID()>
-        <#if sourceField.getTypeName() == "java.lang.String">
+        <#if sourceField.packedKey>
+        if (${sourceField.keyFieldName} != indicator.${sourceField.keyFieldName})
+        <#elseif sourceField.getTypeName() == "java.lang.String">
         if (!${sourceField.fieldName}.equals(indicator.${sourceField.fieldName}))
         <#else>
         if (${sourceField.fieldName} != indicator.${sourceField.fieldName})
@@ -115,9 +166,6 @@ public class ${metricName}Indicator extends ${indicatorClassName} implements Ala
     </#if>
 </#list>
 
-        if (getTimeBucket() != indicator.getTimeBucket())
-            return false;
-
         return true;
     }
 
@@ -139,15 +187,19 @@ public class ${metricName}Indicator extends ${indicatorClassName} implements Ala
         remoteBuilder.addDataIntegers(${field.getter}());
 </#list>
 <#list serializeFields.intLongValuePairListFields as field>
-        ${field.getter}().forEach(element -> remoteBuilder.addDataIntLongPairList(element.serialize()));
+        ${field.getter}().serialize(remoteBuilder);
 </#list>
 
         return remoteBuilder;
     }
 
     @Override public void deserialize(RemoteData remoteData) {
+        deserialize(remoteData, remoteData.getDataStringsList());
+    }
+
+    @Override public void deserialize(RemoteData remoteData, List<String> dataStrings) {
 <#list serializeFields.stringFields as field>
-        ${field.setter}(remoteData.getDataStrings(${field?index}));
+        ${field.setter}(dataStrings.get(${field?index}));
 </#list>
 
 <#list serializeFields.longFields as field>
@@ -163,16 +215,13 @@ public class ${metricName}Indicator extends ${indicatorClassName} implements Ala
 </#list>
 
 <#list serializeFields.intLongValuePairListFields as field>
-        setDetailGroup(new IntKeyLongValueArray(30));
-        remoteData.getDataIntLongPairListList().forEach(element -> {
-            getDetailGroup().add(new IntKeyLongValue(element.getKey(), element.getValue()));
-        });
+        ${field.setter}(new IntKeyLongValueHistogram(remoteData, ${field?index}));
 </#list>
 
     }
 
     @Override public AlarmMeta getAlarmMeta() {
-        return new AlarmMeta("${varName}", Scope.${sourceName}<#if (fieldsFromSource?size>0) ><#list fieldsFromSource as field><#if field.isID()>, ${field.fieldName}</#if></#list></#if>);
+        return new AlarmMeta("${varName}", Scope.${sourceName}<#if (fieldsFromSource?size>0) ><#list fieldsFromSource as field><#if field.isID()>, ${field.fieldGetter}()</#if></#list></#if>);
     }
 
     @Override
@@ -182,11 +231,11 @@ public class ${metricName}Indicator extends ${indicatorClassName} implements Ala
     <#if field.columnName == "time_bucket">
         indicator.setTimeBucket(toTimeBucketInHour());
     <#elseif field.typeName == "java.lang.String" || field.typeName == "long" || field.typeName == "int" || field.typeName == "double" || field.typeName == "float">
-        indicator.${field.fieldSetter}(this.${field.fieldGetter}());
+        indicator.${field.keySetter}(this.${field.keyGetter}());
     <#else>
-        ${field.typeName} newValue = new ${field.typeName}();
-        newValue.copyFrom(this.${field.fieldGetter}());
-        indicator.${field.fieldSetter}(newValue);
+        ${field.typeName} ${field.fieldName}Value = new ${field.typeName}();
+        ${field.fieldName}Value.copyFrom(this.${field.fieldGetter}());
+        indicator.${field.fieldSetter}(${field.fieldName}Value);
     </#if>
 </#list>
 <#list persistentFields as field>
@@ -195,9 +244,9 @@ public class ${metricName}Indicator extends ${indicatorClassName} implements Ala
     <#elseif field.typeName == "java.lang.String" || field.typeName == "long" || field.typeName == "int" || field.typeName == "double" || field.typeName == "float">
         indicator.${field.fieldSetter}(this.${field.fieldGetter}());
     <#else>
-        ${field.typeName} newValue = new ${field.typeName}();
-        newValue.copyFrom(this.${field.fieldGetter}());
-        indicator.${field.fieldSetter}(newValue);
+        ${field.typeName} ${field.fieldName}Value = new ${field.typeName}();
+        ${field.fieldName}Value.copyFrom(this.${field.fieldGetter}());
+        indicator.${field.fieldSetter}(${field.fieldName}Value);
     </#if>
 </#list>
         return indicator;
@@ -210,11 +259,11 @@ public class ${metricName}Indicator extends ${indicatorClassName} implements Ala
     <#if field.columnName == "time_bucket">
         indicator.setTimeBucket(toTimeBucketInDay());
     <#elseif field.typeName == "java.lang.String" || field.typeName == "long" || field.typeName == "int" || field.typeName == "double" || field.typeName == "float">
-        indicator.${field.fieldSetter}(this.${field.fieldGetter}());
+        indicator.${field.keySetter}(this.${field.keyGetter}());
     <#else>
-        ${field.typeName} newValue = new ${field.typeName}();
-        newValue.copyFrom(this.${field.fieldGetter}());
-        indicator.${field.fieldSetter}(newValue);
+        ${field.typeName} ${field.fieldName}Value = new ${field.typeName}();
+        ${field.fieldName}Value.copyFrom(this.${field.fieldGetter}());
+        indicator.${field.fieldSetter}(${field.fieldName}Value);
     </#if>
 </#list>
 <#list persistentFields as field>
@@ -223,9 +272,9 @@ public class ${metricName}Indicator extends ${indicatorClassName} implements Ala
     <#elseif field.typeName == "java.lang.String" || field.typeName == "long" || field.typeName == "int" || field.typeName == "double" || field.typeName == "float">
         indicator.${field.fieldSetter}(this.${field.fieldGetter}());
     <#else>
-        ${field.typeName} newValue = new ${field.typeName}();
-        newValue.copyFrom(this.${field.fieldGetter}());
-        indicator.${field.fieldSetter}(newValue);
+        ${field.typeName} ${field.fieldName}Value = new ${field.typeName}();
+        ${field.fieldName}Value.copyFrom(this.${field.fieldGetter}());
+        indicator.${field.fieldSetter}(${field.fieldName}Value);
     </#if>
 </#list>
         return indicator;
@@ -238,11 +287,11 @@ public class ${metricName}Indicator extends ${indicatorClassName} implements Ala
     <#if field.columnName == "time_bucket">
         indicator.setTimeBucket(toTimeBucketInMonth());
     <#elseif field.typeName == "java.lang.String" || field.typeName == "long" || field.typeName == "int" || field.typeName == "double" || field.typeName == "float">
-        indicator.${field.fieldSetter}(this.${field.fieldGetter}());
+        indicator.${field.keySetter}(this.${field.keyGetter}());
     <#else>
-        ${field.typeName} newValue = new ${field.typeName}();
-        newValue.copyFrom(this.${field.fieldGetter}());
-        indicator.${field.fieldSetter}(newValue);
+        ${field.typeName} ${field.fieldName}Value = new ${field.typeName}();
+        ${field.fieldName}Value.copyFrom(this.${field.fieldGetter}());
+        indicator.${field.fieldSetter}(${field.fieldName}Value);
     </#if>
 </#list>
 <#list persistentFields as field>
@@ -251,9 +300,9 @@ public class ${metricName}Indicator extends ${indicatorClassName} implements Ala
     <#elseif field.typeName == "java.lang.String" || field.typeName == "long" || field.typeName == "int" || field.typeName == "double" || field.typeName == "float">
         indicator.${field.fieldSetter}(this.${field.fieldGetter}());
     <#else>
-        ${field.typeName} newValue = new ${field.typeName}();
-        newValue.copyFrom(this.${field.fieldGetter}());
-        indicator.${field.fieldSetter}(newValue);
+        ${field.typeName} ${field.fieldName}Value = new ${field.typeName}();
+        ${field.fieldName}Value.copyFrom(this.${field.fieldGetter}());
+        indicator.${field.fieldSetter}(${field.fieldName}Value);
     </#if>
 </#list>
         return indicator;
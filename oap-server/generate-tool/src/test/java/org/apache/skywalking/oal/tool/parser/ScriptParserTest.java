@@ -96,4 +96,25 @@ public class ScriptParserTest {
         Assert.assertEquals("\"/product/abc\"", stringMatchExp.getValue());
         Assert.assertEquals("stringMatch", stringMatchExp.getExpressionType());
     }
+
+    @Test
+    public void testParse4() throws IOException {
+        ScriptParser parser = ScriptParser.createFromScriptText(
+            "service_percentile = from(Service.latency).percentile(10, [50, 75, 90, 95, 99]);"
+        );
+        List<AnalysisResult> results = parser.parse();
+
+        AnalysisResult servicePercentile = results.get(0);
+        Assert.assertEquals("ServicePercentile", servicePercentile.getMetricName());
+        Assert.assertEquals("percentile", servicePercentile.getAggregationFunctionName());
+        List<String> methodArgsExpressions = servicePercentile.getEntryMethod().getArgsExpressions();
+        Assert.assertEquals(3, methodArgsExpressions.size());
+        Assert.assertEquals("source.getLatency()", methodArgsExpressions.get(0));
+        Assert.assertEquals("10", methodArgsExpressions.get(1));
+        Assert.assertEquals("ServicePercentileIndicator.ARG_0", methodArgsExpressions.get(2));
+        ArgConstant constant = servicePercentile.getEntryMethod().getArgConstants().get(0);
+        Assert.assertEquals("int[]", constant.getTypeName());
+        Assert.assertEquals("ARG_0", constant.getName());
+        Assert.assertEquals("new int[] {50, 75, 90, 95, 99}", constant.getExpression());
+    }
 }
@@ -19,7 +19,6 @@
 package org.apache.skywalking.oap.server.core.analysis.generated.service.serviceavg;
 
 import java.util.*;
-import lombok.*;
 import org.apache.skywalking.oap.server.core.Const;
 import org.apache.skywalking.oap.server.core.alarm.AlarmMeta;
 import org.apache.skywalking.oap.server.core.alarm.AlarmSupported;
@@ -41,24 +40,46 @@ import org.apache.skywalking.oap.server.core.source.Scope;
 @StorageEntity(name = "service_avg", builder = ServiceAvgIndicator.Builder.class, source = Scope.Service)
 public class ServiceAvgIndicator extends LongAvgIndicator implements AlarmSupported {
 
-    @Setter @Getter @Column(columnName = "entity_id") @IDColumn private java.lang.String entityId;
+    @Column(columnName = "entity_id") @IDColumn private java.lang.String entityId;
+    private int entityKey;
+
+    public int getEntityKey() {
+        return entityKey;
+    }
+
+    public void setEntityKey(int entityKey) {
+        this.entityKey = entityKey;
+        this.entityId = null;
+    }
+
+    public String getEntityId() {
+        if (entityId == null) {
+            entityId = String.valueOf(entityKey);
+        }
+        return entityId;
+    }
+
+    public void setEntityId(String entityId) {
+        this.entityKey = Integer.parseInt(entityId);
+        this.entityId = entityId;
+    }
 
     @Override public String id() {
         String splitJointId = String.valueOf(getTimeBucket());
-        splitJointId += Const.ID_SPLIT + entityId;
+        splitJointId += Const.ID_SPLIT + entityKey;
         return splitJointId;
     }
 
     @Override public int hashCode() {
         int result = 17;
-        result = 31 * result + entityId.hashCode();
+        result = 31 * result + entityKey;
         result = 31 * result + (int)getTimeBucket();
         return result;
     }
 
     @Override public int remoteHashCode() {
         int result = 17;
-        result = 31 * result + entityId.hashCode();
+        result = 31 * result + entityKey;
         return result;
     }
 
@@ -71,18 +92,16 @@ public class ServiceAvgIndicator extends LongAvgIndicator implements AlarmSuppor
             return false;
 
         ServiceAvgIndicator indicator = (ServiceAvgIndicator)obj;
-        if (!entityId.equals(indicator.entityId))
-            return false;
-
         if (getTimeBucket() != indicator.getTimeBucket())
             return false;
+        if (entityKey != indicator.entityKey)
+            return false;
 
         return true;
     }
 
     @Override public RemoteData.Builder serialize() {
         RemoteData.Builder remoteBuilder = RemoteData.newBuilder();
-        remoteBuilder.addDataStrings(getEntityId());
         remoteBuilder.addDataStrings(getStringField());
 
         remoteBuilder.addDataLongs(getSummation());
@@ -90,33 +109,38 @@ public class ServiceAvgIndicator extends LongAvgIndicator implements AlarmSuppor
         remoteBuilder.addDataLongs(getTimeBucket());
 
 
+        remoteBuilder.addDataIntegers(getEntityKey());
         remoteBuilder.addDataIntegers(getCount());
 
         return remoteBuilder;
     }
 
     @Override public void deserialize(RemoteData remoteData) {
-        setEntityId(remoteData.getDataStrings(0));
-        setStringField(remoteData.getDataStrings(1));
+        deserialize(remoteData, remoteData.getDataStringsList());
+    }
+
+    @Override public void deserialize(RemoteData remoteData, List<String> dataStrings) {
+        setStringField(dataStrings.get(0));
 
         setSummation(remoteData.getDataLongs(0));
         setValue(remoteData.getDataLongs(1));
         setTimeBucket(remoteData.getDataLongs(2));
 
 
-        setCount(remoteData.getDataIntegers(0));
+        setEntityKey(remoteData.getDataIntegers(0));
+        setCount(remoteData.getDataIntegers(1));
 
 
     }
 
     @Override public AlarmMeta getAlarmMeta() {
-        return new AlarmMeta("generate_indicator", Scope.Service, entityId);
+        return new AlarmMeta("generate_indicator", Scope.Service, getEntityId());
     }
 
     @Override
     public Indicator toHour() {
         ServiceAvgIndicator indicator = new ServiceAvgIndicator();
-        indicator.setEntityId(this.getEntityId());
+        indicator.setEntityKey(this.getEntityKey());
         indicator.setSummation(this.getSummation());
         indicator.setCount(this.getCount());
         indicator.setValue(this.getValue());
@@ -128,7 +152,7 @@ public class ServiceAvgIndicator extends LongAvgIndicator implements AlarmSuppor
     @Override
     public Indicator toDay() {
         ServiceAvgIndicator indicator = new ServiceAvgIndicator();
-        indicator.setEntityId(this.getEntityId());
+        indicator.setEntityKey(this.getEntityKey());
         indicator.setSummation(this.getSummation());
         indicator.setCount(this.getCount());
         indicator.setValue(this.getValue());
@@ -140,7 +164,7 @@ public class ServiceAvgIndicator extends LongAvgIndicator implements AlarmSuppor
     @Override
     public Indicator toMonth() {
         ServiceAvgIndicator indicator = new ServiceAvgIndicator();
-        indicator.setEntityId(this.getEntityId());
+        indicator.setEntityKey(this.getEntityKey());
         indicator.setSummation(this.getSummation());
         indicator.setCount(this.getCount());
         indicator.setValue(this.getValue());
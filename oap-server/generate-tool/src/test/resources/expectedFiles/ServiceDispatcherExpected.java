@@ -20,7 +20,6 @@ package org.apache.skywalking.oap.server.core.analysis.generated.service;
 
 import org.apache.skywalking.oap.server.core.analysis.SourceDispatcher;
 import org.apache.skywalking.oap.server.core.analysis.worker.IndicatorProcess;
-import org.apache.skywalking.oap.server.core.analysis.indicator.expression.*;
 import org.apache.skywalking.oap.server.core.source.*;
 
 /**
@@ -31,18 +30,15 @@ import org.apache.skywalking.oap.server.core.source.*;
 public class ServiceDispatcher implements SourceDispatcher<Service> {
 
     @Override public void dispatch(Service source) {
-        doServiceAvg(source);
+        if ("/service/prod/save".equals(source.getName())) {
+            doServiceAvg(source);
+        }
     }
 
     private void doServiceAvg(Service source) {
         ServiceAvgIndicator indicator = new ServiceAvgIndicator();
-
-        if (!new EqualMatch().setLeft(source.getName()).setRight("/service/prod/save").match()) {
-            return;
-        }
-
         indicator.setTimeBucket(source.getTimeBucket());
-        indicator.setEntityId(source.getEntityId());
+        indicator.setEntityKey(source.getId());
         indicator.combine(source.getLatency(), 1);
         IndicatorProcess.INSTANCE.in(indicator);
     }
@@ -24,6 +24,8 @@ import org.apache.skywalking.oap.server.core.alarm.AlarmCallback;
 import org.apache.skywalking.oap.server.core.alarm.IndicatorNotify;
 import org.apache.skywalking.oap.server.core.alarm.MetaInAlarm;
 import org.apache.skywalking.oap.server.core.analysis.indicator.Indicator;
+import org.apache.skywalking.oap.server.core.analysis.indicator.IntKeyLongValueHistogram;
+import org.apache.skywalking.oap.server.core.analysis.indicator.PercentileIndicator;
 
 public class NotifyHandler implements IndicatorNotify {
     private final AlarmCore core;
@@ -45,7 +47,19 @@ public class NotifyHandler implements IndicatorNotify {
             default:
                 return;
         }
-        List<RunningRule> runningRules = core.findRunningRule(meta.getIndicatorName());
+        notify(meta.getIndicatorName(), meta, indicator);
+
+        if (indicator instanceof PercentileIndicator) {
+            // The rules of each rank, such as service_p99 of service_percentile.
+            IntKeyLongValueHistogram percentileValues = ((PercentileIndicator)indicator).getPercentileValues();
+            for (int i = 0; i < percentileValues.size(); i++) {
+                notify(PercentileIndicator.rankName(meta.getIndicatorName(), percentileValues.keyAt(i)), meta, indicator);
+            }
+        }
+    }
+
+    private void notify(String indicatorName, MetaInAlarm meta, Indicator indicator) {
+        List<RunningRule> runningRules = core.findRunningRule(indicatorName);
         if (runningRules == null) {
             return;
         }
@@ -30,6 +30,7 @@ import org.apache.skywalking.oap.server.core.analysis.indicator.DoubleValueHolde
 import org.apache.skywalking.oap.server.core.analysis.indicator.Indicator;
 import org.apache.skywalking.oap.server.core.analysis.indicator.IntValueHolder;
 import org.apache.skywalking.oap.server.core.analysis.indicator.LongValueHolder;
+import org.apache.skywalking.oap.server.core.analysis.indicator.PercentileIndicator;
 import org.apache.skywalking.oap.server.core.source.Scope;
 import org.apache.skywalking.oap.server.library.util.CollectionUtils;
 import org.joda.time.LocalDateTime;
@@ -51,6 +52,10 @@ public class RunningRule {
     private String ruleName;
     private int period;
     private String indicatorName;
+    /**
+     * The rank of the percentile indicator, when the rule refers to one rank by its name.
+     */
+    private final int rank;
     private final Threshold threshold;
     private final OP op;
     private final int countThreshold;
@@ -63,6 +68,7 @@ public class RunningRule {
 
     public RunningRule(AlarmRule alarmRule) {
         indicatorName = alarmRule.getIndicatorName();
+        rank = PercentileIndicator.rankOf(indicatorName);
         this.ruleName = alarmRule.getAlarmRuleName();
 
         // Init the empty window for alarming rule.
@@ -80,6 +86,18 @@ public class RunningRule {
         this.formatter = new AlarmMessageFormatter(alarmRule.getMessage());
     }
 
+    private boolean isRankOf(MetaInAlarm meta, Indicator indicator) {
+        return rank >= 0 && indicator instanceof PercentileIndicator
+            && PercentileIndicator.rankName(meta.getIndicatorName(), rank).equals(indicatorName);
+    }
+
+    private long getLongValue(Indicator indicator) {
+        if (indicator instanceof PercentileIndicator) {
+            return ((PercentileIndicator)indicator).getValue(rank);
+        }
+        return ((LongValueHolder)indicator).getValue();
+    }
+
     /**
      * Receive indicator result from persistence, after it is saved into storage. In alarm, only minute dimensionality
      * indicators are expected to process.
@@ -87,7 +105,7 @@ public class RunningRule {
      * @param indicator
      */
     public void in(MetaInAlarm meta, Indicator indicator) {
-        if (!meta.getIndicatorName().equals(indicatorName)) {
+        if (!meta.getIndicatorName().equals(indicatorName) && !isRankOf(meta, indicator)) {
             //Don't match rule, exit.
             return;
         }
@@ -99,7 +117,7 @@ public class RunningRule {
         }
 
         if (valueType == null) {
-            if (indicator instanceof LongValueHolder) {
+            if (indicator instanceof LongValueHolder || indicator instanceof PercentileIndicator) {
                 valueType = IndicatorValueType.LONG;
                 threshold.setType(IndicatorValueType.LONG);
             } else if (indicator instanceof IntValueHolder) {
@@ -276,7 +294,7 @@ public class RunningRule {
 
                 switch (valueType) {
                     case LONG:
-                        long lvalue = ((LongValueHolder)indicator).getValue();
+                        long lvalue = getLongValue(indicator);
                         long lexpected = RunningRule.this.threshold.getLongThreshold();
                         switch (op) {
                             case GREATER:
@@ -27,6 +27,7 @@ import org.apache.skywalking.oap.server.core.alarm.AlarmMessage;
 import org.apache.skywalking.oap.server.core.alarm.MetaInAlarm;
 import org.apache.skywalking.oap.server.core.analysis.indicator.Indicator;
 import org.apache.skywalking.oap.server.core.analysis.indicator.IntValueHolder;
+import org.apache.skywalking.oap.server.core.analysis.indicator.PercentileIndicator;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
 import org.apache.skywalking.oap.server.core.source.Scope;
 import org.joda.time.LocalDateTime;
@@ -189,7 +190,39 @@ public class RunningRuleTest {
         Assert.assertNotEquals(0, runningRule.check().size()); //alarm
     }
 
+    @Test
+    public void testPercentileRankAlarm() {
+        AlarmRule alarmRule = new AlarmRule();
+        alarmRule.setAlarmRuleName("service_p99_rule");
+        alarmRule.setIndicatorName("service_p99");
+        alarmRule.setOp(">");
+        alarmRule.setThreshold("1000");
+        alarmRule.setCount(3);
+        alarmRule.setPeriod(15);
+
+        RunningRule runningRule = new RunningRule(alarmRule);
+
+        runningRule.in(getMetaInAlarm(123, "service_percentile"), getPercentileIndicator(201808301434L, 1500));
+        runningRule.in(getMetaInAlarm(123, "service_percentile"), getPercentileIndicator(201808301436L, 1200));
+        runningRule.in(getMetaInAlarm(123, "service_percentile"), getPercentileIndicator(201808301438L, 2000));
+        // Not the percentile indicator of this rank.
+        runningRule.in(getMetaInAlarm(123, "endpoint_percentile"), getPercentileIndicator(201808301439L, 100));
+
+        // check at 201808301440
+        Assert.assertEquals(0, runningRule.check().size());
+        runningRule.moveTo(TIME_BUCKET_FORMATTER.parseLocalDateTime("201808301441"));
+        // check at 201808301441
+        Assert.assertEquals(0, runningRule.check().size());
+        runningRule.moveTo(TIME_BUCKET_FORMATTER.parseLocalDateTime("201808301442"));
+        // check at 201808301442
+        Assert.assertEquals(1, runningRule.check().size());
+    }
+
     private MetaInAlarm getMetaInAlarm(int id) {
+        return getMetaInAlarm(id, "endpoint_percent");
+    }
+
+    private MetaInAlarm getMetaInAlarm(int id, String indicatorName) {
         return new MetaInAlarm() {
             @Override public Scope getScope() {
                 return Scope.Service;
@@ -200,7 +233,7 @@ public class RunningRuleTest {
             }
 
             @Override public String getIndicatorName() {
-                return "endpoint_percent";
+                return indicatorName;
             }
 
             @Override public int getId0() {
@@ -229,6 +262,45 @@ public class RunningRuleTest {
         return indicator;
     }
 
+    private Indicator getPercentileIndicator(long timebucket, int value) {
+        MockPercentileIndicator indicator = new MockPercentileIndicator();
+        indicator.combine(value, 1, new int[] {99});
+        indicator.calculate();
+        indicator.setTimeBucket(timebucket);
+        return indicator;
+    }
+
+    private class MockPercentileIndicator extends PercentileIndicator {
+
+        @Override public String id() {
+            return null;
+        }
+
+        @Override public Indicator toHour() {
+            return null;
+        }
+
+        @Override public Indicator toDay() {
+            return null;
+        }
+
+        @Override public Indicator toMonth() {
+            return null;
+        }
+
+        @Override public void deserialize(RemoteData remoteData) {
+
+        }
+
+        @Override public RemoteData.Builder serialize() {
+            return null;
+        }
+
+        @Override public int remoteHashCode() {
+            return 0;
+        }
+    }
+
     private class MockIndicator extends Indicator implements IntValueHolder {
         private int value;
 
@@ -20,6 +20,7 @@ package org.apache.skywalking.oap.server.core;
 
 import java.util.*;
 import lombok.*;
+import org.apache.skywalking.oap.server.core.remote.selector.Selector;
 import org.apache.skywalking.oap.server.library.module.ModuleConfig;
 
 /**
@@ -41,6 +42,20 @@ public class CoreModuleConfig extends ModuleConfig {
     @Setter private int hourMetricsDataTTL;
     @Setter private int dayMetricsDataTTL;
     @Setter private int monthMetricsDataTTL;
+    @Setter private int persistentPeriod = 3;
+    @Setter private int persistentConcurrency = 4;
+    @Setter private long persistedIndicatorCacheMaxMemory = 64;
+    @Setter private int persistedIndicatorCacheExpireMinutes = 5;
+    @Setter private int aggregationShards = 1;
+    @Setter private int workerConsumePoolSize = 0;
+    @Setter private boolean remoteCompression = false;
+    @Setter private int remoteDecodeThreads = 0;
+    @Setter private String remoteSelector = Selector.HashCode.name();
+    @Setter private int downsamplingPersistentPeriod = 60;
+    @Setter private int downsamplingCacheSize = 10000;
+    @Setter private int persistentMaxStaleness = 30;
+    @Setter private int timeBucketGracePeriod = 10;
+    @Setter private int heartbeatFlushInterval = 10;
 
     CoreModuleConfig() {
         this.downsampling = new ArrayList<>();
@@ -18,12 +18,54 @@
 
 package org.apache.skywalking.oap.server.core.analysis.data;
 
+import java.util.Collection;
+import java.util.concurrent.locks.*;
+
 /**
+ * The data cache of a worker, written by the worker's consumer threads and read out by the persistence or the next
+ * worker.
+ *
+ * Writers share the read lock, so they never block each other, and the data of the same key is merged under the
+ * striped lock of the concurrent collection. {@link #read()} takes the write lock only to switch to a new collection,
+ * waiting for the writes in progress at most, then the switched out collection is read without any lock.
+ *
  * @author peng-yongsheng
  */
-public interface DataCache {
+public abstract class DataCache<DATA> {
+
+    private final Lock writeLock;
+    private final Lock readLock;
+
+    DataCache() {
+        ReadWriteLock lock = new ReentrantReadWriteLock();
+        this.writeLock = lock.writeLock();
+        this.readLock = lock.readLock();
+    }
+
+    public final void accept(DATA data) {
+        readLock.lock();
+        try {
+            write(data);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * @return all the data accepted since the last read, and clear the cache.
+     */
+    public final Collection<DATA> read() {
+        writeLock.lock();
+        try {
+            return switchCollection();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public abstract int currentCollectionSize();
 
-    void writing();
+    protected abstract void write(DATA data);
 
-    void finishWriting();
+    protected abstract Collection<DATA> switchCollection();
 }
@@ -18,37 +18,33 @@
 
 package org.apache.skywalking.oap.server.core.analysis.data;
 
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.skywalking.oap.server.core.analysis.indicator.Indicator;
 
 /**
+ * Combines the indicators which have the same id, see {@link Indicator#combine(Indicator)}.
+ *
  * @author peng-yongsheng
  */
-public class MergeDataCache<INDICATOR extends Indicator> extends Window<INDICATOR> implements DataCache {
-
-    private SWCollection<INDICATOR> lockedMergeDataCollection;
-
-    @Override public SWCollection<INDICATOR> collectionInstance() {
-        return new MergeDataCollection<>();
-    }
+public class MergeDataCache<INDICATOR extends Indicator> extends DataCache<INDICATOR> {
 
-    public boolean containsKey(INDICATOR key) {
-        return lockedMergeDataCollection.containsKey(key);
-    }
-
-    public Indicator get(INDICATOR key) {
-        return lockedMergeDataCollection.get(key);
-    }
+    private volatile ConcurrentHashMap<INDICATOR, INDICATOR> collection = new ConcurrentHashMap<>();
 
-    public void put(INDICATOR data) {
-        lockedMergeDataCollection.put(data);
+    @Override public int currentCollectionSize() {
+        return collection.size();
     }
 
-    @Override public void writing() {
-        lockedMergeDataCollection = getCurrentAndWriting();
+    @Override protected void write(INDICATOR data) {
+        collection.merge(data, data, (existing, input) -> {
+            existing.combine(input);
+            return existing;
+        });
     }
 
-    @Override public void finishWriting() {
-        lockedMergeDataCollection.finishWriting();
-        lockedMergeDataCollection = null;
+    @Override protected Collection<INDICATOR> switchCollection() {
+        ConcurrentHashMap<INDICATOR, INDICATOR> last = collection;
+        collection = new ConcurrentHashMap<>();
+        return last.values();
     }
 }
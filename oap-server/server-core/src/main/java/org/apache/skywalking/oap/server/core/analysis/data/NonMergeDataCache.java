@@ -18,29 +18,34 @@
 
 package org.apache.skywalking.oap.server.core.analysis.data;
 
+import java.util.Collection;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.skywalking.oap.server.core.storage.StorageData;
 
 /**
+ * Keeps all the data as it is.
+ *
  * @author peng-yongsheng
  */
-public class NonMergeDataCache<STORAGE_DATA extends StorageData> extends Window<STORAGE_DATA> implements DataCache {
-
-    private SWCollection<STORAGE_DATA> lockedMergeDataCollection;
+public class NonMergeDataCache<STORAGE_DATA extends StorageData> extends DataCache<STORAGE_DATA> {
 
-    @Override public SWCollection<STORAGE_DATA> collectionInstance() {
-        return new NonMergeDataCollection<>();
-    }
+    private volatile ConcurrentLinkedQueue<STORAGE_DATA> collection = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger(0);
 
-    public void add(STORAGE_DATA data) {
-        lockedMergeDataCollection.put(data);
+    @Override public int currentCollectionSize() {
+        return size.get();
     }
 
-    @Override public void writing() {
-        lockedMergeDataCollection = getCurrentAndWriting();
+    @Override protected void write(STORAGE_DATA data) {
+        collection.add(data);
+        size.incrementAndGet();
     }
 
-    @Override public void finishWriting() {
-        lockedMergeDataCollection.finishWriting();
-        lockedMergeDataCollection = null;
+    @Override protected Collection<STORAGE_DATA> switchCollection() {
+        ConcurrentLinkedQueue<STORAGE_DATA> last = collection;
+        collection = new ConcurrentLinkedQueue<>();
+        size.set(0);
+        return last;
     }
 }
@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.data;
+
+import com.google.common.cache.*;
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.oap.server.core.analysis.indicator.Indicator;
+
+/**
+ * Holds the indicators persisted lately by this OAP node, shared by the indicator persistent workers of all models and
+ * bounded by one memory budget. Each entity is routed to only one OAP node by the remote client selector, so the cached
+ * indicator is the same as the stored one, and the next persistence could combine with it rather than reading it back
+ * from the storage.
+ *
+ * An indicator is cached by itself, which means by its class, entity and time bucket, the same as its id in a model.
+ * Its memory is estimated by its serialized size and a fixed overhead of the entry. A time bucket is persisted again
+ * only when it is stale or receives late data after it is closed, so a cached indicator is evicted when it isn't
+ * persisted again in the expiry period, or by the least recently used ones when the budget is reached.
+ */
+public class PersistedIndicatorCache {
+
+    private static final int ENTRY_OVERHEAD = 160;
+
+    private final Cache<Indicator, Indicator> cache;
+
+    /**
+     * @param maxMemory max memory in MB of the cached indicators of all models, 0 means disable the cache.
+     * @param expireMinutes the cached indicator is evicted when it isn't persisted again in this period.
+     */
+    public PersistedIndicatorCache(long maxMemory, long expireMinutes) {
+        if (maxMemory > 0) {
+            this.cache = CacheBuilder.newBuilder().maximumWeight(maxMemory * 1024 * 1024)
+                .weigher((Indicator key, Indicator value) -> value.serialize().build().getSerializedSize() + ENTRY_OVERHEAD)
+                .expireAfterWrite(expireMinutes, TimeUnit.MINUTES).build();
+        } else {
+            this.cache = null;
+        }
+    }
+
+    /**
+     * @return the last persisted indicator which has the same id with the given one, or null if not cached.
+     */
+    public Indicator get(Indicator indicator) {
+        return cache == null ? null : cache.getIfPresent(indicator);
+    }
+
+    public void put(Indicator indicator) {
+        if (cache != null) {
+            cache.put(indicator, indicator);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.data;
+
+import org.apache.skywalking.apm.commons.datacarrier.partition.IDataPartitioner;
+import org.apache.skywalking.oap.server.core.remote.data.StreamData;
+
+/**
+ * Partitions the stream data by {@link StreamData#remoteHashCode()}, so the data of the same entity always goes into
+ * the same channel and is consumed by the same thread.
+ */
+public class StreamDataPartitioner<STREAM_DATA extends StreamData> implements IDataPartitioner<STREAM_DATA> {
+
+    public static int shardOf(StreamData data, int total) {
+        return Math.abs(data.remoteHashCode() % total);
+    }
+
+    @Override public int partition(int total, STREAM_DATA data) {
+        return shardOf(data, total);
+    }
+
+    @Override public int maxRetryCount() {
+        return 1;
+    }
+}
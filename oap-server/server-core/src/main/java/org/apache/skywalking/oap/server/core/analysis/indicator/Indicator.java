@@ -36,6 +36,12 @@ public abstract class Indicator extends StreamData implements StorageData {
 
     @Getter @Setter @Column(columnName = TIME_BUCKET) private long timeBucket;
 
+    /**
+     * The id of the indicator in the storage, only built for the storage requests. The merges in memory and the remote
+     * routing use the equals and hashCode of the indicator instead, which cover the same entity fields and time
+     * bucket. The generated indicators of the scopes keyed by an int id, such as service, service instance and
+     * endpoint, keep that id as a primitive key, and build the string entity_id column only for the storage.
+     */
     public abstract String id();
 
     public abstract void combine(Indicator indicator);
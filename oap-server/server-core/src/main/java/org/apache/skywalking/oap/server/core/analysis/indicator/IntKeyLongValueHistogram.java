@@ -0,0 +1,213 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.indicator;
+
+import java.util.*;
+import org.apache.skywalking.oap.server.core.Const;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.*;
+import org.apache.skywalking.oap.server.core.storage.type.StorageDataType;
+
+/**
+ * IntKeyLongValueHistogram counts the values in buckets, keyed by the int bucket index. The keys and counts are kept in
+ * two primitive arrays sorted by the key, so the buckets are combined, merged and read in order without boxing or
+ * sorting.
+ *
+ * The storage format is the same as {@link IntKeyLongValueArray}.
+ */
+public class IntKeyLongValueHistogram implements StorageDataType {
+    private int[] keys;
+    private long[] values;
+    private int size;
+
+    public IntKeyLongValueHistogram() {
+        this(8);
+    }
+
+    public IntKeyLongValueHistogram(int initialCapacity) {
+        this.keys = new int[initialCapacity];
+        this.values = new long[initialCapacity];
+    }
+
+    public IntKeyLongValueHistogram(String data) {
+        this();
+        toObject(data);
+    }
+
+    /**
+     * Decode the histogram of the given index written by {@link #serialize(RemoteData.Builder)}, or the pairs of the
+     * only histogram written by the nodes of the previous version.
+     */
+    public IntKeyLongValueHistogram(RemoteData remoteData, int index) {
+        this(1);
+        if (remoteData.getDataIntLongPairListsCount() > 0) {
+            IntKeyLongValuePairList columns = remoteData.getDataIntLongPairLists(index);
+            int columnsSize = columns.getKeysCount();
+            if (columnsSize != columns.getValuesCount()) {
+                throw new IllegalArgumentException("The histogram has " + columnsSize + " keys but " + columns.getValuesCount() + " values.");
+            }
+            ensureCapacity(columnsSize);
+            for (int i = 0; i < columnsSize; i++) {
+                if (i > 0 && columns.getKeys(i) <= keys[i - 1]) {
+                    throw new IllegalArgumentException("The keys of the histogram are not in ascending order.");
+                }
+                keys[i] = columns.getKeys(i);
+                values[i] = columns.getValues(i);
+            }
+            this.size = columnsSize;
+        } else if (index == 0) {
+            for (IntKeyLongValuePair pair : remoteData.getDataIntLongPairListList()) {
+                increase(pair.getKey(), pair.getValue());
+            }
+        }
+    }
+
+    /**
+     * Add the value to the count of the bucket, the bucket is created if absent.
+     */
+    public void increase(int key, long value) {
+        int index = Arrays.binarySearch(keys, 0, size, key);
+        if (index >= 0) {
+            values[index] += value;
+            return;
+        }
+
+        int insertion = -index - 1;
+        ensureCapacity(size + 1);
+        System.arraycopy(keys, insertion, keys, insertion + 1, size - insertion);
+        System.arraycopy(values, insertion, values, insertion + 1, size - insertion);
+        keys[insertion] = key;
+        values[insertion] = value;
+        size++;
+    }
+
+    /**
+     * Add all buckets of the given histogram into this one, in one pass over the both sorted keys.
+     */
+    public void merge(IntKeyLongValueHistogram histogram) {
+        int[] mergedKeys = new int[size + histogram.size];
+        long[] mergedValues = new long[size + histogram.size];
+
+        int i = 0, j = 0, merged = 0;
+        while (i < size || j < histogram.size) {
+            if (j == histogram.size || (i < size && keys[i] < histogram.keys[j])) {
+                mergedKeys[merged] = keys[i];
+                mergedValues[merged] = values[i++];
+            } else if (i == size || histogram.keys[j] < keys[i]) {
+                mergedKeys[merged] = histogram.keys[j];
+                mergedValues[merged] = histogram.values[j++];
+            } else {
+                mergedKeys[merged] = keys[i];
+                mergedValues[merged] = values[i++] + histogram.values[j++];
+            }
+            merged++;
+        }
+
+        this.keys = mergedKeys;
+        this.values = mergedValues;
+        this.size = merged;
+    }
+
+    /**
+     * @return the count of the bucket, 0 if absent.
+     */
+    public long get(int key) {
+        int index = Arrays.binarySearch(keys, 0, size, key);
+        return index >= 0 ? values[index] : 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int keyAt(int index) {
+        return keys[index];
+    }
+
+    public long valueAt(int index) {
+        return values[index];
+    }
+
+    /**
+     * @param percentileRank from 0 to 100.
+     * @return the key of the first bucket, where the accumulated count reaches the given percentage of the total
+     * count. 0 if there is no bucket.
+     */
+    public int percentile(int percentileRank) {
+        long total = 0;
+        for (int i = 0; i < size; i++) {
+            total += values[i];
+        }
+        long roof = Math.round(total * percentileRank * 1.0 / 100);
+
+        long count = 0;
+        for (int i = 0; i < size; i++) {
+            count += values[i];
+            if (count >= roof) {
+                return keys[i];
+            }
+        }
+        return size > 0 ? keys[size - 1] : 0;
+    }
+
+    public void serialize(RemoteData.Builder remoteBuilder) {
+        IntKeyLongValuePairList.Builder columns = IntKeyLongValuePairList.newBuilder();
+        for (int i = 0; i < size; i++) {
+            columns.addKeys(keys[i]);
+            columns.addValues(values[i]);
+        }
+        remoteBuilder.addDataIntLongPairLists(columns);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > keys.length) {
+            int newCapacity = Math.max(capacity, keys.length + (keys.length >> 1) + 1);
+            keys = Arrays.copyOf(keys, newCapacity);
+            values = Arrays.copyOf(values, newCapacity);
+        }
+    }
+
+    @Override public String toStorageData() {
+        StringBuilder data = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                data.append(Const.ARRAY_SPLIT);
+            }
+            data.append(keys[i]).append(Const.KEY_VALUE_SPLIT).append(values[i]);
+        }
+        return data.toString();
+    }
+
+    @Override public void toObject(String data) {
+        if (data == null || data.isEmpty()) {
+            return;
+        }
+
+        for (String keyValue : data.split(Const.ARRAY_PARSER_SPLIT)) {
+            String[] pair = keyValue.split(Const.KEY_VALUE_SPLIT);
+            increase(Integer.parseInt(pair[0]), Long.parseLong(pair[1]));
+        }
+    }
+
+    @Override public void copyFrom(Object source) {
+        IntKeyLongValueHistogram histogram = (IntKeyLongValueHistogram)source;
+        this.keys = Arrays.copyOf(histogram.keys, Math.max(histogram.size, 1));
+        this.values = Arrays.copyOf(histogram.values, Math.max(histogram.size, 1));
+        this.size = histogram.size;
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.apache.skywalking.oap.server.core.analysis.indicator;
+
+import java.util.regex.*;
+import lombok.*;
+import org.apache.skywalking.oap.server.core.analysis.indicator.annotation.*;
+import org.apache.skywalking.oap.server.core.storage.annotation.Column;
+
+/**
+ * PercentileIndicator is the multiple ranks version of {@link PxxIndicator}. All the given ranks, such as p50, p75,
+ * p90, p95 and p99, are calculated from one shared dataset, so the values are aggregated, transferred and persisted
+ * once, rather than once per rank.
+ *
+ * The ranks are kept as the keys of the value column, the percentile of each rank is the value of its key. One rank
+ * is referred by its rank name, such as service_p99 of service_percentile, in the linear metric queries and the alarm
+ * rules, see {@link #rankName(String, int)}. The official analysis keeps the pxx indicators, this one is opt-in.
+ */
+@IndicatorFunction(functionName = "percentile")
+public abstract class PercentileIndicator extends Indicator {
+    protected static final String DATASET = "dataset";
+    protected static final String VALUE = "value";
+    protected static final String PRECISION = "precision";
+    private static final String NAME_SUFFIX = "_percentile";
+    private static final Pattern RANK_NAME = Pattern.compile("(.+)_p(\\d{1,3})");
+
+    @Getter @Setter @Column(columnName = VALUE, isValue = true) private IntKeyLongValueHistogram percentileValues;
+    @Getter @Setter @Column(columnName = PRECISION) private int precision;
+    @Getter @Setter @Column(columnName = DATASET) private IntKeyLongValueHistogram dataset;
+
+    public PercentileIndicator() {
+        percentileValues = new IntKeyLongValueHistogram();
+        dataset = new IntKeyLongValueHistogram();
+    }
+
+    /**
+     * @param value of the source.
+     * @param precision the size of each bucket in the dataset.
+     * @param ranks percentile ranks to calculate, from 0 to 100.
+     */
+    @Entrance
+    public final void combine(@SourceFrom int value, @Arg int precision, @Arg int[] ranks) {
+        this.precision = precision;
+        if (percentileValues.size() == 0) {
+            for (int rank : ranks) {
+                percentileValues.increase(rank, 0);
+            }
+        }
+
+        dataset.increase(value / precision, 1);
+    }
+
+    @Override
+    public void combine(Indicator indicator) {
+        PercentileIndicator percentileIndicator = (PercentileIndicator)indicator;
+        if (percentileValues.size() == 0) {
+            percentileValues.copyFrom(percentileIndicator.percentileValues);
+        }
+        dataset.merge(percentileIndicator.dataset);
+    }
+
+    @Override
+    public final void calculate() {
+        if (dataset.size() == 0) {
+            return;
+        }
+
+        IntKeyLongValueHistogram calculated = new IntKeyLongValueHistogram(percentileValues.size());
+        for (int i = 0; i < percentileValues.size(); i++) {
+            int rank = percentileValues.keyAt(i);
+            calculated.increase(rank, dataset.percentile(rank) * (long)precision);
+        }
+        percentileValues = calculated;
+    }
+
+    /**
+     * @return the calculated value of the given rank, 0 if the rank isn't declared.
+     */
+    public long getValue(int rank) {
+        return percentileValues.get(rank);
+    }
+
+    /**
+     * @return the name of the given rank, the suffix _percentile of the indicator name is replaced by _p and the rank.
+     */
+    public static String rankName(String indicatorName, int rank) {
+        String prefix = indicatorName.endsWith(NAME_SUFFIX) ? indicatorName.substring(0, indicatorName.length() - NAME_SUFFIX.length()) : indicatorName;
+        return prefix + "_p" + rank;
+    }
+
+    /**
+     * @return the name of the percentile indicator which the given rank name belongs to, or null if it isn't a rank
+     * name.
+     */
+    public static String indicatorNameOfRank(String rankName) {
+        Matcher matcher = RANK_NAME.matcher(rankName);
+        return matcher.matches() ? matcher.group(1) + NAME_SUFFIX : null;
+    }
+
+    /**
+     * @return the rank of the given rank name, or -1 if it isn't a rank name.
+     */
+    public static int rankOf(String rankName) {
+        Matcher matcher = RANK_NAME.matcher(rankName);
+        return matcher.matches() ? Integer.parseInt(matcher.group(2)) : -1;
+    }
+}
@@ -99,13 +99,17 @@ public class ServiceRelationClientSideIndicator extends Indicator {
     }
 
     @Override public void deserialize(RemoteData remoteData) {
+        deserialize(remoteData, remoteData.getDataStringsList());
+    }
+
+    @Override public void deserialize(RemoteData remoteData, List<String> dataStrings) {
         setSourceServiceId(remoteData.getDataIntegers(0));
         setDestServiceId(remoteData.getDataIntegers(1));
         setComponentId(remoteData.getDataIntegers(2));
 
         setTimeBucket(remoteData.getDataLongs(0));
 
-        setEntityId(remoteData.getDataStrings(0));
+        setEntityId(dataStrings.get(0));
     }
 
     @Override public RemoteData.Builder serialize() {
@@ -100,7 +100,11 @@ public class ServiceRelationServerSideIndicator extends Indicator {
     }
 
     @Override public void deserialize(RemoteData remoteData) {
-        setEntityId(remoteData.getDataStrings(0));
+        deserialize(remoteData, remoteData.getDataStringsList());
+    }
+
+    @Override public void deserialize(RemoteData remoteData, List<String> dataStrings) {
+        setEntityId(dataStrings.get(0));
 
         setSourceServiceId(remoteData.getDataIntegers(0));
         setDestServiceId(remoteData.getDataIntegers(1));
@@ -24,12 +24,18 @@ import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
 import org.apache.skywalking.oap.server.core.analysis.data.EndOfBatchContext;
 import org.apache.skywalking.oap.server.core.analysis.data.MergeDataCache;
+import org.apache.skywalking.oap.server.core.analysis.data.StreamDataPartitioner;
 import org.apache.skywalking.oap.server.core.analysis.indicator.Indicator;
 import org.apache.skywalking.oap.server.core.worker.AbstractWorker;
+import org.apache.skywalking.oap.server.core.worker.WorkerConsumePool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
+ * Pre-aggregates the indicators in memory before sending them to the remote worker. The indicators are partitioned
+ * into shards by {@link Indicator#remoteHashCode()}, each shard has its own channel, consumer thread and merge cache,
+ * so a hot model scales across cores without sharing any state between the shards.
+ *
  * @author peng-yongsheng
  */
 public class IndicatorAggregateWorker extends AbstractWorker<Indicator> {
@@ -38,17 +44,20 @@ public class IndicatorAggregateWorker extends AbstractWorker<Indicator> {
 
     private AbstractWorker<Indicator> nextWorker;
     private final DataCarrier<Indicator> dataCarrier;
-    private final MergeDataCache<Indicator> mergeDataCache;
-    private int messageNum;
+    private final Shard[] shards;
     private final String modelName;
 
-    IndicatorAggregateWorker(int workerId, AbstractWorker<Indicator> nextWorker, String modelName) {
+    IndicatorAggregateWorker(int workerId, AbstractWorker<Indicator> nextWorker, String modelName, int shardSize) {
         super(workerId);
         this.modelName = modelName;
         this.nextWorker = nextWorker;
-        this.mergeDataCache = new MergeDataCache<>();
-        this.dataCarrier = new DataCarrier<>("IndicatorAggregateWorker." + modelName, 1, 10000);
-        this.dataCarrier.consume(new AggregatorConsumer(this), 1);
+        this.shards = new Shard[shardSize];
+        for (int i = 0; i < shardSize; i++) {
+            shards[i] = new Shard();
+        }
+        this.dataCarrier = new DataCarrier<>("IndicatorAggregateWorker." + modelName, shardSize, 10000);
+        this.dataCarrier.setPartitioner(new StreamDataPartitioner<>());
+        WorkerConsumePool.INSTANCES.consume(this.dataCarrier, new AggregatorConsumer(this), shardSize);
     }
 
     @Override public final void in(Indicator indicator) {
@@ -57,44 +66,32 @@ public class IndicatorAggregateWorker extends AbstractWorker<Indicator> {
     }
 
     private void onWork(Indicator indicator) {
-        messageNum++;
-        aggregate(indicator);
+        Shard shard = shards[StreamDataPartitioner.shardOf(indicator, shards.length)];
+        shard.messageNum++;
+        shard.mergeDataCache.accept(indicator);
 
-        if (messageNum >= 1000 || indicator.getEndOfBatchContext().isEndOfBatch()) {
-            sendToNext();
-            messageNum = 0;
+        if (shard.messageNum >= 1000 || indicator.getEndOfBatchContext().isEndOfBatch()) {
+            sendToNext(shard);
+            shard.messageNum = 0;
         }
     }
 
-    private void sendToNext() {
-        mergeDataCache.switchPointer();
-        while (mergeDataCache.getLast().isWriting()) {
-            try {
-                Thread.sleep(10);
-            } catch (InterruptedException e) {
-                logger.error(e.getMessage(), e);
-            }
-        }
-
-        mergeDataCache.getLast().collection().forEach(data -> {
+    private void sendToNext(Shard shard) {
+        shard.mergeDataCache.read().forEach(data -> {
             if (logger.isDebugEnabled()) {
                 logger.debug(data.toString());
             }
 
             nextWorker.in(data);
         });
-        mergeDataCache.finishReadingLast();
     }
 
-    private void aggregate(Indicator indicator) {
-        mergeDataCache.writing();
-        if (mergeDataCache.containsKey(indicator)) {
-            mergeDataCache.get(indicator).combine(indicator);
-        } else {
-            mergeDataCache.put(indicator);
-        }
-
-        mergeDataCache.finishWriting();
+    /**
+     * Only accessed by the consumer thread of the channel with the same index.
+     */
+    private static class Shard {
+        private final MergeDataCache<Indicator> mergeDataCache = new MergeDataCache<>();
+        private int messageNum;
     }
 
     private class AggregatorConsumer implements IConsumer<Indicator> {
@@ -18,17 +18,26 @@
 
 package org.apache.skywalking.oap.server.core.analysis.worker;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import lombok.Getter;
 import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
 import org.apache.skywalking.oap.server.core.analysis.data.EndOfBatchContext;
 import org.apache.skywalking.oap.server.core.analysis.data.MergeDataCache;
+import org.apache.skywalking.oap.server.core.analysis.data.PersistedIndicatorCache;
+import org.apache.skywalking.oap.server.core.analysis.data.StreamDataPartitioner;
 import org.apache.skywalking.oap.server.core.analysis.indicator.Indicator;
+import org.apache.skywalking.oap.server.core.storage.IBatchDAO;
 import org.apache.skywalking.oap.server.core.storage.IIndicatorDAO;
 import org.apache.skywalking.oap.server.core.worker.AbstractWorker;
+import org.apache.skywalking.oap.server.core.worker.WorkerConsumePool;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -42,25 +51,79 @@ public class IndicatorPersistentWorker extends PersistenceWorker<Indicator, Merg
 
     private static final Logger logger = LoggerFactory.getLogger(IndicatorPersistentWorker.class);
 
-    private final String modelName;
+    /**
+     * Max number of indicators read from the storage in one {@link IIndicatorDAO#multiGet(String, List)}.
+     */
+    private static final int BATCH_GET_SIZE = 1000;
+    /**
+     * The open time buckets are persisted too when the cache reaches this times of the batch size, which bounds the
+     * memory when the time buckets can't be closed, such as the data is received far ahead of the clock.
+     */
+    private static final int MAX_CACHE_BATCHES = 10;
+
+    @Getter private final String modelName;
     private final MergeDataCache<Indicator> mergeDataCache;
+    private final PersistedIndicatorCache persistedCache;
     private final IIndicatorDAO indicatorDAO;
     private final AbstractWorker<Indicator> nextWorker;
     private final DataCarrier<Indicator> dataCarrier;
+    private final long maxStalenessMillis;
+    private final long gracePeriodMillis;
+    private final int maxCacheSize;
+    private volatile long lastPersistAllTime;
+    private volatile boolean persistAll;
+    private volatile long latestTimeBucket;
+    private volatile long latestTimeBucketSince;
+    private volatile long previousTimeBucket;
+    /**
+     * The time buckets before it have been persisted as closed.
+     */
+    private volatile long closedTimeBucket;
+    /**
+     * The indicators of the time buckets after it have never been persisted, so they are inserted without reading the
+     * storage. It starts from the first time bucket received, which could have been persisted before the server
+     * started. It relies on {@link PersistenceWorker#persist()} flushing the batch before the next preparation, and on
+     * {@link IBatchDAO#flush()} waiting for the storage to respond, else the next preparation would not read back the
+     * inserted indicators, and overwrite them.
+     */
+    private volatile long writtenTimeBucket;
 
-    IndicatorPersistentWorker(int workerId, String modelName, int batchSize, ModuleManager moduleManager,
-        IIndicatorDAO indicatorDAO, AbstractWorker<Indicator> nextWorker) {
+    /**
+     * @param batchSize the cached indicators are persisted at once when their number reaches it.
+     * @param maxStaleness in second, the indicators of the open time buckets are kept merging in memory at most in this
+     * period. 0 means persist them in every period of the persistence timer.
+     * @param gracePeriod in second, a time bucket is closed when the next one has been received for this period, to
+     * wait for the late data.
+     */
+    IndicatorPersistentWorker(int workerId, String modelName, int batchSize, int maxStaleness, int gracePeriod,
+        ModuleManager moduleManager, IIndicatorDAO indicatorDAO, PersistedIndicatorCache persistedCache,
+        AbstractWorker<Indicator> nextWorker, int shardSize) {
         super(moduleManager, workerId, batchSize);
         this.modelName = modelName;
+        this.maxStalenessMillis = maxStaleness * 1000L;
+        this.gracePeriodMillis = gracePeriod * 1000L;
+        this.maxCacheSize = batchSize * MAX_CACHE_BATCHES;
+        this.lastPersistAllTime = System.currentTimeMillis();
         this.mergeDataCache = new MergeDataCache<>();
+        this.persistedCache = persistedCache;
         this.indicatorDAO = indicatorDAO;
         this.nextWorker = nextWorker;
-        this.dataCarrier = new DataCarrier<>("IndicatorPersistentWorker." + modelName, 1, 10000);
-        this.dataCarrier.consume(new IndicatorPersistentWorker.PersistentConsumer(this), 1);
+        this.dataCarrier = new DataCarrier<>("IndicatorPersistentWorker." + modelName, shardSize, 10000);
+        this.dataCarrier.setPartitioner(new StreamDataPartitioner<>());
+        WorkerConsumePool.INSTANCES.consume(this.dataCarrier, new IndicatorPersistentWorker.PersistentConsumer(this), shardSize);
     }
 
+    /**
+     * When the cache reaches the batch size, only the closed time buckets are persisted, the open ones are kept merging
+     * in memory until the cache reaches the max size.
+     */
     @Override void onWork(Indicator indicator) {
-        super.onWork(indicator);
+        cacheData(indicator);
+
+        int cacheSize = mergeDataCache.currentCollectionSize();
+        if (cacheSize >= maxCacheSize || (cacheSize >= getBatchSize() && closingTimeBucket(System.currentTimeMillis()) > closedTimeBucket)) {
+            persist();
+        }
     }
 
     @Override public void in(Indicator indicator) {
@@ -68,64 +131,155 @@ public class IndicatorPersistentWorker extends PersistenceWorker<Indicator, Merg
         dataCarrier.produce(indicator);
     }
 
+    /**
+     * The closed time buckets are persisted once in the next period of the timer after they closed. The open ones are
+     * kept merging in memory, and persisted only when they have not been persisted for the max staleness, to make the
+     * latest data visible.
+     */
+    @Override public boolean isPersistenceDue(long currentTimeMillis) {
+        if (maxStalenessMillis <= 0 || currentTimeMillis - lastPersistAllTime >= maxStalenessMillis) {
+            persistAll = true;
+            lastPersistAllTime = currentTimeMillis;
+            return true;
+        }
+        return closingTimeBucket(currentTimeMillis) > closedTimeBucket;
+    }
+
+    /**
+     * @return the time buckets before it are closed.
+     */
+    private long closingTimeBucket(long currentTimeMillis) {
+        return currentTimeMillis - latestTimeBucketSince >= gracePeriodMillis ? latestTimeBucket : previousTimeBucket;
+    }
+
     @Override public MergeDataCache<Indicator> getCache() {
         return mergeDataCache;
     }
 
-    public boolean flushAndSwitch() {
-        boolean isSwitch;
-        try {
-            if (isSwitch = getCache().trySwitchPointer()) {
-                getCache().switchPointer();
+    /**
+     * The indicators of the open time buckets are put back into the cache, unless the max staleness reached or the cache
+     * reached the max size. The ones never persisted are inserted directly, the others, including the late data of the
+     * persisted time buckets, are merged with the storage. Only called by {@link PersistenceWorker#persist()}, which
+     * flushes the batch and waits for the storage before the next preparation, as the direct inserts require.
+     */
+    @Override public List<Object> prepareBatch(Collection<Indicator> collection) {
+        long closingTimeBucket = closingTimeBucket(System.currentTimeMillis());
+        boolean all = persistAll || collection.size() >= maxCacheSize;
+        persistAll = false;
+
+        List<Object> batchCollection = new LinkedList<>();
+
+        long written = writtenTimeBucket;
+        long maxPersisted = written;
+        List<Indicator> indicators = new ArrayList<>(BATCH_GET_SIZE);
+        for (Indicator data : collection) {
+            long timeBucket = data.getTimeBucket();
+            if (!all && timeBucket >= closingTimeBucket) {
+                mergeDataCache.accept(data);
+                continue;
+            }
+            maxPersisted = Math.max(maxPersisted, timeBucket);
+
+            if (timeBucket > written) {
+                insert(data, batchCollection);
+                continue;
             }
-        } finally {
-            getCache().trySwitchPointerFinally();
+
+            indicators.add(data);
+            if (indicators.size() == BATCH_GET_SIZE) {
+                mergeWithStorage(indicators, batchCollection);
+                indicators.clear();
+            }
+        }
+        if (!indicators.isEmpty()) {
+            mergeWithStorage(indicators, batchCollection);
         }
-        return isSwitch;
+
+        closedTimeBucket = Math.max(closedTimeBucket, closingTimeBucket);
+        writtenTimeBucket = maxPersisted;
+        return batchCollection;
     }
 
-    @Override public List<Object> prepareBatch(MergeDataCache<Indicator> cache) {
-        List<Object> batchCollection = new LinkedList<>();
-        cache.getLast().collection().forEach(data -> {
-            Indicator dbData = null;
+    /**
+     * The indicators read back are keyed by themselves, their equals and hashCode are defined by the entity and the time
+     * bucket, the same as their ids. So the string ids are only built for the storage requests.
+     */
+    private void mergeWithStorage(List<Indicator> indicators, List<Object> batchCollection) {
+        Map<Indicator, Indicator> dbIndicators = new HashMap<>();
+
+        List<Indicator> notCached = new ArrayList<>(indicators.size());
+        for (Indicator data : indicators) {
+            Indicator cached = persistedCache.get(data);
+            if (nonNull(cached)) {
+                dbIndicators.put(cached, cached);
+            } else {
+                notCached.add(data);
+            }
+        }
+
+        if (!notCached.isEmpty()) {
             try {
-                dbData = indicatorDAO.get(modelName, data);
+                List<Indicator> dbDataList = indicatorDAO.multiGet(modelName, notCached);
+                dbDataList.forEach(dbData -> dbIndicators.put(dbData, dbData));
             } catch (Throwable t) {
                 logger.error(t.getMessage(), t);
             }
-            try {
-                if (nonNull(dbData)) {
+        }
+
+        indicators.forEach(data -> {
+            Indicator dbData = dbIndicators.get(data);
+            if (nonNull(dbData)) {
+                try {
                     data.combine(dbData);
                     data.calculate();
 
                     batchCollection.add(indicatorDAO.prepareBatchUpdate(modelName, data));
-                } else {
-                    batchCollection.add(indicatorDAO.prepareBatchInsert(modelName, data));
+                    persisted(data);
+                } catch (Throwable t) {
+                    logger.error(t.getMessage(), t);
                 }
-
-                if (Objects.nonNull(nextWorker)) {
-                    nextWorker.in(data);
-                }
-            } catch (Throwable t) {
-                logger.error(t.getMessage(), t);
+            } else {
+                insert(data, batchCollection);
             }
         });
+    }
 
-        return batchCollection;
+    private void insert(Indicator data, List<Object> batchCollection) {
+        try {
+            data.calculate();
+
+            batchCollection.add(indicatorDAO.prepareBatchInsert(modelName, data));
+            persisted(data);
+        } catch (Throwable t) {
+            logger.error(t.getMessage(), t);
+        }
+    }
+
+    private void persisted(Indicator data) {
+        persistedCache.put(data);
+
+        if (Objects.nonNull(nextWorker)) {
+            nextWorker.in(data);
+        }
     }
 
     @Override public void cacheData(Indicator input) {
-        mergeDataCache.writing();
-        if (mergeDataCache.containsKey(input)) {
-            Indicator indicator = mergeDataCache.get(input);
-            indicator.combine(input);
-            indicator.calculate();
-        } else {
-            input.calculate();
-            mergeDataCache.put(input);
+        if (input.getTimeBucket() > latestTimeBucket) {
+            newTimeBucket(input.getTimeBucket());
         }
+        mergeDataCache.accept(input);
+    }
 
-        mergeDataCache.finishWriting();
+    private synchronized void newTimeBucket(long timeBucket) {
+        if (timeBucket > latestTimeBucket) {
+            if (latestTimeBucket == 0) {
+                closedTimeBucket = timeBucket;
+                writtenTimeBucket = timeBucket;
+            }
+            previousTimeBucket = latestTimeBucket;
+            latestTimeBucket = timeBucket;
+            latestTimeBucketSince = System.currentTimeMillis();
+        }
     }
 
     private class PersistentConsumer implements IConsumer<Indicator> {
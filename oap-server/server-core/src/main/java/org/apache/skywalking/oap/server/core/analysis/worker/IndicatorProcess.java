@@ -19,9 +19,11 @@
 package org.apache.skywalking.oap.server.core.analysis.worker;
 
 import java.util.*;
-import lombok.Getter;
+import lombok.*;
 import org.apache.skywalking.oap.server.core.*;
+import org.apache.skywalking.oap.server.core.analysis.data.PersistedIndicatorCache;
 import org.apache.skywalking.oap.server.core.analysis.indicator.Indicator;
+import org.apache.skywalking.oap.server.core.remote.selector.Selector;
 import org.apache.skywalking.oap.server.core.storage.*;
 import org.apache.skywalking.oap.server.core.storage.annotation.StorageEntityAnnotationUtils;
 import org.apache.skywalking.oap.server.core.worker.*;
@@ -35,6 +37,11 @@ public enum IndicatorProcess {
 
     private Map<Class<? extends Indicator>, IndicatorAggregateWorker> entryWorkers = new HashMap<>();
     @Getter private List<IndicatorPersistentWorker> persistentWorkers = new ArrayList<>();
+    /**
+     * The settings of the workers, the defaults are defined there only.
+     */
+    @Setter private CoreModuleConfig moduleConfig;
+    private PersistedIndicatorCache persistedCache;
 
     public void in(Indicator indicator) {
         entryWorkers.get(indicator.getClass()).in(indicator);
@@ -60,10 +67,10 @@ public enum IndicatorProcess {
         IndicatorTransWorker transWorker = new IndicatorTransWorker(WorkerIdGenerator.INSTANCES.generate(), minutePersistentWorker, hourPersistentWorker, dayPersistentWorker, monthPersistentWorker);
         WorkerInstances.INSTANCES.put(transWorker.getWorkerId(), transWorker);
 
-        IndicatorRemoteWorker remoteWorker = new IndicatorRemoteWorker(WorkerIdGenerator.INSTANCES.generate(), moduleManager, transWorker, modelName);
+        IndicatorRemoteWorker remoteWorker = new IndicatorRemoteWorker(WorkerIdGenerator.INSTANCES.generate(), moduleManager, transWorker, modelName, Selector.valueOf(moduleConfig.getRemoteSelector()));
         WorkerInstances.INSTANCES.put(remoteWorker.getWorkerId(), remoteWorker);
 
-        IndicatorAggregateWorker aggregateWorker = new IndicatorAggregateWorker(WorkerIdGenerator.INSTANCES.generate(), remoteWorker, modelName);
+        IndicatorAggregateWorker aggregateWorker = new IndicatorAggregateWorker(WorkerIdGenerator.INSTANCES.generate(), remoteWorker, modelName, moduleConfig.getAggregationShards());
         WorkerInstances.INSTANCES.put(aggregateWorker.getWorkerId(), aggregateWorker);
 
         entryWorkers.put(indicatorClass, aggregateWorker);
@@ -75,7 +82,7 @@ public enum IndicatorProcess {
         WorkerInstances.INSTANCES.put(alarmNotifyWorker.getWorkerId(), alarmNotifyWorker);
 
         IndicatorPersistentWorker minutePersistentWorker = new IndicatorPersistentWorker(WorkerIdGenerator.INSTANCES.generate(), modelName,
-            1000, moduleManager, indicatorDAO, alarmNotifyWorker);
+            1000, moduleConfig.getPersistentMaxStaleness(), moduleConfig.getTimeBucketGracePeriod(), moduleManager, indicatorDAO, persistedCache(), alarmNotifyWorker, moduleConfig.getAggregationShards());
         WorkerInstances.INSTANCES.put(minutePersistentWorker.getWorkerId(), minutePersistentWorker);
         persistentWorkers.add(minutePersistentWorker);
 
@@ -85,10 +92,20 @@ public enum IndicatorProcess {
     private IndicatorPersistentWorker worker(ModuleManager moduleManager,
         IIndicatorDAO indicatorDAO, String modelName) {
         IndicatorPersistentWorker persistentWorker = new IndicatorPersistentWorker(WorkerIdGenerator.INSTANCES.generate(), modelName,
-            1000, moduleManager, indicatorDAO, null);
+            moduleConfig.getDownsamplingCacheSize(), moduleConfig.getDownsamplingPersistentPeriod(), moduleConfig.getTimeBucketGracePeriod(), moduleManager, indicatorDAO, persistedCache(), null, 1);
         WorkerInstances.INSTANCES.put(persistentWorker.getWorkerId(), persistentWorker);
         persistentWorkers.add(persistentWorker);
 
         return persistentWorker;
     }
+
+    /**
+     * @return the cache shared by the workers of all models, so they are bounded by one memory budget.
+     */
+    private PersistedIndicatorCache persistedCache() {
+        if (persistedCache == null) {
+            persistedCache = new PersistedIndicatorCache(moduleConfig.getPersistedIndicatorCacheMaxMemory(), moduleConfig.getPersistedIndicatorCacheExpireMinutes());
+        }
+        return persistedCache;
+    }
 }
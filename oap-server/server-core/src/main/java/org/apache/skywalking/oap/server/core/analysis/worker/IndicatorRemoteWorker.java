@@ -37,18 +37,20 @@ public class IndicatorRemoteWorker extends AbstractWorker<Indicator> {
     private final AbstractWorker<Indicator> nextWorker;
     private final RemoteSenderService remoteSender;
     private final String modelName;
+    private final Selector selector;
 
     IndicatorRemoteWorker(int workerId, ModuleManager moduleManager, AbstractWorker<Indicator> nextWorker,
-        String modelName) {
+        String modelName, Selector selector) {
         super(workerId);
         this.remoteSender = moduleManager.find(CoreModule.NAME).provider().getService(RemoteSenderService.class);
         this.nextWorker = nextWorker;
         this.modelName = modelName;
+        this.selector = selector;
     }
 
     @Override public final void in(Indicator indicator) {
         try {
-            remoteSender.send(nextWorker.getWorkerId(), indicator, Selector.HashCode);
+            remoteSender.send(nextWorker.getWorkerId(), indicator, selector);
         } catch (Throwable e) {
             logger.error(e.getMessage(), e);
         }
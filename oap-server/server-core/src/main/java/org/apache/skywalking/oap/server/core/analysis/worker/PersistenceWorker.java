@@ -19,21 +19,20 @@
 package org.apache.skywalking.oap.server.core.analysis.worker;
 
 import java.util.*;
-import org.apache.skywalking.oap.server.core.analysis.data.Window;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.apache.skywalking.oap.server.core.analysis.data.DataCache;
 import org.apache.skywalking.oap.server.core.storage.*;
 import org.apache.skywalking.oap.server.core.worker.AbstractWorker;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
-import org.slf4j.*;
 
 /**
  * @author peng-yongsheng
  */
-public abstract class PersistenceWorker<INPUT extends StorageData, CACHE extends Window<INPUT>> extends AbstractWorker<INPUT> {
-
-    private static final Logger logger = LoggerFactory.getLogger(PersistenceWorker.class);
+public abstract class PersistenceWorker<INPUT extends StorageData, CACHE extends DataCache<INPUT>> extends AbstractWorker<INPUT> {
 
     private final int batchSize;
     private final IBatchDAO batchDAO;
+    private final AtomicBoolean persisting = new AtomicBoolean(false);
 
     PersistenceWorker(ModuleManager moduleManager, int workerId, int batchSize) {
         super(workerId);
@@ -42,56 +41,59 @@ public abstract class PersistenceWorker<INPUT extends StorageData, CACHE extends
     }
 
     void onWork(INPUT input) {
+        cacheData(input);
+
         if (getCache().currentCollectionSize() >= batchSize) {
-            try {
-                if (getCache().trySwitchPointer()) {
-                    getCache().switchPointer();
-
-                    List<?> collection = buildBatchCollection();
-                    batchDAO.batchPersistence(collection);
-                }
-            } finally {
-                getCache().trySwitchPointerFinally();
-            }
+            persist();
         }
-        cacheData(input);
+    }
+
+    int getBatchSize() {
+        return batchSize;
+    }
+
+    public abstract String getModelName();
+
+    /**
+     * @param currentTimeMillis the start time of the persistence period.
+     * @return true if the cached data should be persisted in this period, otherwise it is kept in the cache and merged
+     * with the following data.
+     */
+    public boolean isPersistenceDue(long currentTimeMillis) {
+        return true;
     }
 
     public abstract void cacheData(INPUT input);
 
     public abstract CACHE getCache();
 
-    public boolean flushAndSwitch() {
-        boolean isSwitch;
-        try {
-            if (isSwitch = getCache().trySwitchPointer()) {
-                getCache().switchPointer();
-            }
-        } finally {
-            getCache().trySwitchPointerFinally();
-        }
-        return isSwitch;
-    }
+    public abstract List<Object> prepareBatch(Collection<INPUT> collection);
 
-    public abstract List<Object> prepareBatch(CACHE cache);
+    /**
+     * Read out the cache, prepare the batch requests of it and save them. The requests are flushed to the storage
+     * before the next preparation of this worker starts, so the storage reads of that one see them. Only one caller
+     * persists this worker at a time, the others leave the data to the next persistence.
+     *
+     * @return number of the saved requests, or -1 if another caller is persisting this worker.
+     */
+    public final int persist() {
+        if (!persisting.compareAndSet(false, true)) {
+            return -1;
+        }
 
-    public final List<?> buildBatchCollection() {
-        List<?> batchCollection = new LinkedList<>();
         try {
-            while (getCache().getLast().isWriting()) {
-                try {
-                    Thread.sleep(10);
-                } catch (InterruptedException e) {
-                    logger.warn("thread wake up");
-                }
-            }
-
-            if (getCache().getLast().collection() != null) {
-                batchCollection = prepareBatch(getCache());
+            List<?> collection = buildBatchCollection();
+            if (!collection.isEmpty()) {
+                batchDAO.batchPersistence(collection);
+                batchDAO.flush();
             }
+            return collection.size();
         } finally {
-            getCache().finishReadingLast();
+            persisting.set(false);
         }
-        return batchCollection;
+    }
+
+    List<?> buildBatchCollection() {
+        return prepareBatch(getCache().read());
     }
 }
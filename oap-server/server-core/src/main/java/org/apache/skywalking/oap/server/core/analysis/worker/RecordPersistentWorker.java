@@ -19,11 +19,13 @@
 package org.apache.skywalking.oap.server.core.analysis.worker;
 
 import java.util.*;
+import lombok.Getter;
 import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
 import org.apache.skywalking.oap.server.core.analysis.data.NonMergeDataCache;
 import org.apache.skywalking.oap.server.core.analysis.record.Record;
 import org.apache.skywalking.oap.server.core.storage.IRecordDAO;
+import org.apache.skywalking.oap.server.core.worker.WorkerConsumePool;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
 import org.slf4j.*;
 
@@ -34,7 +36,7 @@ public class RecordPersistentWorker extends PersistenceWorker<Record, NonMergeDa
 
     private static final Logger logger = LoggerFactory.getLogger(RecordPersistentWorker.class);
 
-    private final String modelName;
+    @Getter private final String modelName;
     private final NonMergeDataCache<Record> nonMergeDataCache;
     private final IRecordDAO recordDAO;
     private final DataCarrier<Record> dataCarrier;
@@ -46,7 +48,7 @@ public class RecordPersistentWorker extends PersistenceWorker<Record, NonMergeDa
         this.nonMergeDataCache = new NonMergeDataCache<>();
         this.recordDAO = recordDAO;
         this.dataCarrier = new DataCarrier<>(1, 10000);
-        this.dataCarrier.consume(new RecordPersistentWorker.PersistentConsumer(this), 1);
+        WorkerConsumePool.INSTANCES.consume(this.dataCarrier, new RecordPersistentWorker.PersistentConsumer(this), 1);
     }
 
     @Override public void in(Record record) {
@@ -57,9 +59,9 @@ public class RecordPersistentWorker extends PersistenceWorker<Record, NonMergeDa
         return nonMergeDataCache;
     }
 
-    @Override public List<Object> prepareBatch(NonMergeDataCache<Record> cache) {
+    @Override public List<Object> prepareBatch(Collection<Record> collection) {
         List<Object> batchCollection = new LinkedList<>();
-        cache.getLast().collection().forEach(record -> {
+        collection.forEach(record -> {
             try {
                 batchCollection.add(recordDAO.prepareBatchInsert(modelName, record));
             } catch (Throwable t) {
@@ -70,9 +72,7 @@ public class RecordPersistentWorker extends PersistenceWorker<Record, NonMergeDa
     }
 
     @Override public void cacheData(Record input) {
-        nonMergeDataCache.writing();
-        nonMergeDataCache.add(input);
-        nonMergeDataCache.finishWriting();
+        nonMergeDataCache.accept(input);
     }
 
     private class PersistentConsumer implements IConsumer<Record> {
@@ -23,7 +23,7 @@ import java.text.ParseException;
 import java.util.*;
 import org.apache.skywalking.apm.util.StringUtil;
 import org.apache.skywalking.oap.server.core.Const;
-import org.apache.skywalking.oap.server.core.analysis.indicator.Indicator;
+import org.apache.skywalking.oap.server.core.analysis.indicator.*;
 import org.apache.skywalking.oap.server.core.query.entity.*;
 import org.apache.skywalking.oap.server.core.query.sql.*;
 import org.apache.skywalking.oap.server.core.storage.StorageModule;
@@ -80,6 +80,13 @@ public class MetricQueryService implements Service {
             durationPoints.forEach(durationPoint -> ids.add(durationPoint.getPoint() + Const.ID_SPLIT + id));
         }
 
+        if (!ValueColumnIds.INSTANCE.contains(indName)) {
+            String percentileName = PercentileIndicator.indicatorNameOfRank(indName);
+            if (percentileName != null && ValueColumnIds.INSTANCE.contains(percentileName)) {
+                return getMetricQueryDAO().getLinearPercentileValues(percentileName, step, ids, ValueColumnIds.INSTANCE.getValueCName(percentileName), PercentileIndicator.rankOf(indName));
+            }
+        }
+
         return getMetricQueryDAO().getLinearIntValues(indName, step, ids, ValueColumnIds.INSTANCE.getValueCName(indName));
     }
 
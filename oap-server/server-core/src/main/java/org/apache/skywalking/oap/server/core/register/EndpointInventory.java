@@ -96,6 +96,10 @@ public class EndpointInventory extends RegisterSource {
     }
 
     @Override public void deserialize(RemoteData remoteData) {
+        deserialize(remoteData, remoteData.getDataStringsList());
+    }
+
+    @Override public void deserialize(RemoteData remoteData, List<String> dataStrings) {
         setSequence(remoteData.getDataIntegers(0));
         setServiceId(remoteData.getDataIntegers(1));
         setDetectPoint(remoteData.getDataIntegers(2));
@@ -103,7 +107,7 @@ public class EndpointInventory extends RegisterSource {
         setRegisterTime(remoteData.getDataLongs(0));
         setHeartbeatTime(remoteData.getDataLongs(1));
 
-        setName(remoteData.getDataStrings(0));
+        setName(dataStrings.get(0));
     }
 
     @Override public int remoteHashCode() {
@@ -93,13 +93,17 @@ public class NetworkAddressInventory extends RegisterSource {
     }
 
     @Override public void deserialize(RemoteData remoteData) {
+        deserialize(remoteData, remoteData.getDataStringsList());
+    }
+
+    @Override public void deserialize(RemoteData remoteData, List<String> dataStrings) {
         setSequence(remoteData.getDataIntegers(0));
         setSrcLayer(remoteData.getDataIntegers(1));
 
         setRegisterTime(remoteData.getDataLongs(0));
         setHeartbeatTime(remoteData.getDataLongs(1));
 
-        setName(remoteData.getDataStrings(0));
+        setName(dataStrings.get(0));
     }
 
     @Override public int remoteHashCode() {
@@ -132,6 +132,10 @@ public class ServiceInstanceInventory extends RegisterSource {
     }
 
     @Override public void deserialize(RemoteData remoteData) {
+        deserialize(remoteData, remoteData.getDataStringsList());
+    }
+
+    @Override public void deserialize(RemoteData remoteData, List<String> dataStrings) {
         setSequence(remoteData.getDataIntegers(0));
         setServiceId(remoteData.getDataIntegers(1));
         setLanguage(remoteData.getDataIntegers(2));
@@ -142,11 +146,11 @@ public class ServiceInstanceInventory extends RegisterSource {
         setRegisterTime(remoteData.getDataLongs(0));
         setHeartbeatTime(remoteData.getDataLongs(1));
 
-        setName(remoteData.getDataStrings(0));
-        setOsName(remoteData.getDataStrings(1));
-        setHostName(remoteData.getDataStrings(2));
-        setIpv4s(remoteData.getDataStrings(3));
-        setInstanceUUID(remoteData.getDataStrings(4));
+        setName(dataStrings.get(0));
+        setOsName(dataStrings.get(1));
+        setHostName(dataStrings.get(2));
+        setIpv4s(dataStrings.get(3));
+        setInstanceUUID(dataStrings.get(4));
     }
 
     @Override public int remoteHashCode() {
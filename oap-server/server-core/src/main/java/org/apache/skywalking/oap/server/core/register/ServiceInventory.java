@@ -125,6 +125,10 @@ public class ServiceInventory extends RegisterSource {
     }
 
     @Override public void deserialize(RemoteData remoteData) {
+        deserialize(remoteData, remoteData.getDataStringsList());
+    }
+
+    @Override public void deserialize(RemoteData remoteData, List<String> dataStrings) {
         setSequence(remoteData.getDataIntegers(0));
         setIsAddress(remoteData.getDataIntegers(1));
         setAddressId(remoteData.getDataIntegers(2));
@@ -134,7 +138,7 @@ public class ServiceInventory extends RegisterSource {
         setHeartbeatTime(remoteData.getDataLongs(1));
         setMappingLastUpdateTime(remoteData.getDataLongs(2));
 
-        setName(remoteData.getDataStrings(0));
+        setName(dataStrings.get(0));
     }
 
     @Override public int remoteHashCode() {
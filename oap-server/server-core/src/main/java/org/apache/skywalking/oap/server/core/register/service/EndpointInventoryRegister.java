@@ -75,9 +75,7 @@ public class EndpointInventoryRegister implements IEndpointInventoryRegister {
     @Override public void heartbeat(int endpointId, long heartBeatTime) {
         EndpointInventory endpointInventory = getCacheService().get(endpointId);
         if (Objects.nonNull(endpointInventory)) {
-            endpointInventory.setHeartbeatTime(heartBeatTime);
-
-            InventoryProcess.INSTANCE.in(endpointInventory);
+            InventoryProcess.INSTANCE.heartbeat(endpointInventory, heartBeatTime);
         } else {
             logger.warn("Endpoint {} heartbeat, but not found in storage.");
         }
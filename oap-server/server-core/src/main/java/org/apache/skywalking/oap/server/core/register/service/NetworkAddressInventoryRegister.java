@@ -99,9 +99,7 @@ public class NetworkAddressInventoryRegister implements INetworkAddressInventory
     @Override public void heartbeat(int addressId, long heartBeatTime) {
         NetworkAddressInventory networkAddress = getNetworkAddressInventoryCache().get(addressId);
         if (Objects.nonNull(networkAddress)) {
-            networkAddress.setHeartbeatTime(heartBeatTime);
-
-            InventoryProcess.INSTANCE.in(networkAddress);
+            InventoryProcess.INSTANCE.heartbeat(networkAddress, heartBeatTime);
         } else {
             logger.warn("Network getAddress {} heartbeat, but not found in storage.");
         }
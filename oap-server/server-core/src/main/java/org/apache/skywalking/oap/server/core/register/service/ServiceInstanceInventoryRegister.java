@@ -104,8 +104,7 @@ public class ServiceInstanceInventoryRegister implements IServiceInstanceInvento
     @Override public void heartbeat(int serviceInstanceId, long heartBeatTime) {
         ServiceInstanceInventory serviceInstanceInventory = getServiceInstanceInventoryCache().get(serviceInstanceId);
         if (Objects.nonNull(serviceInstanceInventory)) {
-            serviceInstanceInventory.setHeartbeatTime(heartBeatTime);
-            InventoryProcess.INSTANCE.in(serviceInstanceInventory);
+            InventoryProcess.INSTANCE.heartbeat(serviceInstanceInventory, heartBeatTime);
         } else {
             logger.warn("Service instance {} heartbeat, but not found in storage.", serviceInstanceId);
         }
@@ -92,9 +92,7 @@ public class ServiceInventoryRegister implements IServiceInventoryRegister {
     @Override public void heartbeat(int serviceId, long heartBeatTime) {
         ServiceInventory serviceInventory = getServiceInventoryCache().get(serviceId);
         if (Objects.nonNull(serviceInventory)) {
-            serviceInventory.setHeartbeatTime(heartBeatTime);
-
-            InventoryProcess.INSTANCE.in(serviceInventory);
+            InventoryProcess.INSTANCE.heartbeat(serviceInventory, heartBeatTime);
         } else {
             logger.warn("Service {} heartbeat, but not found in storage.");
         }
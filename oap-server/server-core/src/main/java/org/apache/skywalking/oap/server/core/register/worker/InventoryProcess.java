@@ -18,10 +18,15 @@
 
 package org.apache.skywalking.oap.server.core.register.worker;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
 import org.apache.skywalking.oap.server.core.UnexpectedException;
 import org.apache.skywalking.oap.server.core.register.RegisterSource;
 import org.apache.skywalking.oap.server.core.source.Scope;
@@ -33,6 +38,8 @@ import org.apache.skywalking.oap.server.core.storage.annotation.StorageEntityAnn
 import org.apache.skywalking.oap.server.core.worker.WorkerIdGenerator;
 import org.apache.skywalking.oap.server.core.worker.WorkerInstances;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * @author peng-yongsheng
@@ -40,12 +47,53 @@ import org.apache.skywalking.oap.server.library.module.ModuleManager;
 public enum InventoryProcess {
     INSTANCE;
 
+    private static final Logger logger = LoggerFactory.getLogger(InventoryProcess.class);
+
     private Map<Class<? extends RegisterSource>, RegisterDistinctWorker> entryWorkers = new HashMap<>();
+    private Map<Class<? extends RegisterSource>, RegisterHeartbeatCoalescer> heartbeatCoalescers = new HashMap<>();
+    private ScheduledExecutorService heartbeatFlushExecutor;
 
     public void in(RegisterSource registerSource) {
         entryWorkers.get(registerSource.getClass()).in(registerSource);
     }
 
+    /**
+     * Update the heartbeat time of a registered source, persisted in the next flush, see {@link
+     * RegisterHeartbeatCoalescer}.
+     */
+    public void heartbeat(RegisterSource registerSource, long heartbeatTime) {
+        heartbeatCoalescers.get(registerSource.getClass()).heartbeat(registerSource, heartbeatTime);
+    }
+
+    /**
+     * The heartbeats are also persisted when the server stops.
+     *
+     * @param flushInterval in second, period to persist the heartbeat times.
+     */
+    public void startHeartbeatFlush(long flushInterval) {
+        if (heartbeatFlushExecutor == null) {
+            heartbeatFlushExecutor = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("RegisterHeartbeatFlush-%d").setDaemon(true).build());
+            heartbeatFlushExecutor.scheduleAtFixedRate(
+                new RunnableWithExceptionProtection(this::flushHeartbeats,
+                    t -> logger.error("Flush heartbeat failure.", t)), flushInterval, flushInterval, TimeUnit.SECONDS);
+
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                heartbeatFlushExecutor.shutdown();
+                try {
+                    heartbeatFlushExecutor.awaitTermination(flushInterval, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                flushHeartbeats();
+            }, "RegisterHeartbeatFlushShutdown"));
+        }
+    }
+
+    private void flushHeartbeats() {
+        heartbeatCoalescers.values().forEach(RegisterHeartbeatCoalescer::flush);
+    }
+
     public void create(ModuleManager moduleManager, Class<? extends RegisterSource> inventoryClass) {
         String modelName = StorageEntityAnnotationUtils.getModelName(inventoryClass);
         Scope scope = StorageEntityAnnotationUtils.getSourceScope(inventoryClass);
@@ -70,6 +118,7 @@ public enum InventoryProcess {
         WorkerInstances.INSTANCES.put(distinctWorker.getWorkerId(), distinctWorker);
 
         entryWorkers.put(inventoryClass, distinctWorker);
+        heartbeatCoalescers.put(inventoryClass, new RegisterHeartbeatCoalescer(modelName, registerDAO));
     }
 
     /**
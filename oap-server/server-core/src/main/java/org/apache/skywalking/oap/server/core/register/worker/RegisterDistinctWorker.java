@@ -24,6 +24,7 @@ import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
 import org.apache.skywalking.oap.server.core.analysis.data.EndOfBatchContext;
 import org.apache.skywalking.oap.server.core.register.*;
 import org.apache.skywalking.oap.server.core.worker.AbstractWorker;
+import org.apache.skywalking.oap.server.core.worker.WorkerConsumePool;
 import org.slf4j.*;
 
 /**
@@ -43,7 +44,7 @@ public class RegisterDistinctWorker extends AbstractWorker<RegisterSource> {
         this.nextWorker = nextWorker;
         this.sources = new HashMap<>();
         this.dataCarrier = new DataCarrier<>(1, 10000);
-        this.dataCarrier.consume(new AggregatorConsumer(this), 1);
+        WorkerConsumePool.INSTANCES.consume(this.dataCarrier, new AggregatorConsumer(this), 1);
     }
 
     @Override public final void in(RegisterSource source) {
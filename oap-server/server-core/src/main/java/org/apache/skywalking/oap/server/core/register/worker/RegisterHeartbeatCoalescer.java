@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.register.worker;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.skywalking.oap.server.core.register.RegisterSource;
+import org.apache.skywalking.oap.server.core.storage.IRegisterDAO;
+import org.slf4j.*;
+
+/**
+ * Keeps the latest heartbeat time of each registered source of a scope, keyed by the sequence, and updates only the
+ * heartbeat time column of them in one storage request when flushed. The heartbeats are persisted by the OAP node
+ * receiving them, rather than sent through the register workers as the whole sources.
+ */
+public class RegisterHeartbeatCoalescer {
+
+    private static final Logger logger = LoggerFactory.getLogger(RegisterHeartbeatCoalescer.class);
+
+    private final String modelName;
+    private final IRegisterDAO registerDAO;
+    private final ConcurrentHashMap<Integer, Heartbeat> heartbeats = new ConcurrentHashMap<>();
+
+    RegisterHeartbeatCoalescer(String modelName, IRegisterDAO registerDAO) {
+        this.modelName = modelName;
+        this.registerDAO = registerDAO;
+    }
+
+    void heartbeat(RegisterSource registerSource, long heartbeatTime) {
+        heartbeats.merge(registerSource.getSequence(), new Heartbeat(registerSource.id(), heartbeatTime),
+            (current, heartbeat) -> current.time >= heartbeat.time ? current : heartbeat);
+    }
+
+    /**
+     * Persist the heartbeats, then remove the persisted ones unless replaced by the later heartbeats meanwhile. They
+     * are kept to the next flush when failed.
+     */
+    void flush() {
+        if (heartbeats.isEmpty()) {
+            return;
+        }
+
+        Map<Integer, Heartbeat> flushing = new HashMap<>(heartbeats);
+        Map<String, Long> heartbeatTimes = new HashMap<>(flushing.size());
+        flushing.values().forEach(heartbeat -> heartbeatTimes.put(heartbeat.id, heartbeat.time));
+        try {
+            registerDAO.updateHeartbeatTime(modelName, heartbeatTimes);
+            flushing.forEach(heartbeats::remove);
+        } catch (Throwable t) {
+            logger.error("Update the heartbeat time of {} {} failure.", heartbeatTimes.size(), modelName, t);
+        }
+    }
+
+    private static class Heartbeat {
+        private final String id;
+        private final long time;
+
+        private Heartbeat(String id, long time) {
+            this.id = id;
+            this.time = time;
+        }
+    }
+}
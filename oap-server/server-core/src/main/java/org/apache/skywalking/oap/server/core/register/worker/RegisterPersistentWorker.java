@@ -18,6 +18,7 @@
 
 package org.apache.skywalking.oap.server.core.register.worker;
 
+import java.io.IOException;
 import java.util.*;
 import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
@@ -26,22 +27,38 @@ import org.apache.skywalking.oap.server.core.register.RegisterSource;
 import org.apache.skywalking.oap.server.core.source.Scope;
 import org.apache.skywalking.oap.server.core.storage.*;
 import org.apache.skywalking.oap.server.core.worker.AbstractWorker;
+import org.apache.skywalking.oap.server.core.worker.WorkerConsumePool;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
 import org.slf4j.*;
 
 /**
+ * Registers the sources of a scope. The existing ones are read and updated in batches without the lock. The new ones
+ * are inserted in one bulk request under the lock of the scope, their sequences are assigned from a block reserved by
+ * this OAP node, so the max sequence is read only once per block.
+ *
  * @author peng-yongsheng
  */
 public class RegisterPersistentWorker extends AbstractWorker<RegisterSource> {
 
     private static final Logger logger = LoggerFactory.getLogger(RegisterPersistentWorker.class);
 
+    /**
+     * Max number of the sources read from the storage in one {@link IRegisterDAO#multiGet(String, List)}.
+     */
+    private static final int BATCH_GET_SIZE = 1000;
+    /**
+     * Number of the sequences reserved at once.
+     */
+    static final int SEQUENCE_BLOCK_SIZE = 100;
+
     private final Scope scope;
     private final String modelName;
     private final Map<RegisterSource, RegisterSource> sources;
     private final IRegisterLockDAO registerLockDAO;
     private final IRegisterDAO registerDAO;
     private final DataCarrier<RegisterSource> dataCarrier;
+    private int nextSequence;
+    private int lastReservedSequence;
 
     RegisterPersistentWorker(int workerId, String modelName, ModuleManager moduleManager,
         IRegisterDAO registerDAO, Scope scope) {
@@ -52,7 +69,7 @@ public class RegisterPersistentWorker extends AbstractWorker<RegisterSource> {
         this.registerLockDAO = moduleManager.find(StorageModule.NAME).provider().getService(IRegisterLockDAO.class);
         this.scope = scope;
         this.dataCarrier = new DataCarrier<>("IndicatorPersistentWorker." + modelName, 1, 10000);
-        this.dataCarrier.consume(new RegisterPersistentWorker.PersistentConsumer(this), 1);
+        WorkerConsumePool.INSTANCES.consume(this.dataCarrier, new RegisterPersistentWorker.PersistentConsumer(this), 1);
     }
 
     @Override public final void in(RegisterSource registerSource) {
@@ -60,7 +77,7 @@ public class RegisterPersistentWorker extends AbstractWorker<RegisterSource> {
         dataCarrier.produce(registerSource);
     }
 
-    private void onWork(RegisterSource registerSource) {
+    void onWork(RegisterSource registerSource) {
         if (!sources.containsKey(registerSource)) {
             sources.put(registerSource, registerSource);
         } else {
@@ -68,33 +85,120 @@ public class RegisterPersistentWorker extends AbstractWorker<RegisterSource> {
         }
 
         if (registerSource.getEndOfBatchContext().isEndOfBatch()) {
+            List<RegisterSource> newSources = new ArrayList<>();
+
+            List<RegisterSource> batch = new ArrayList<>(BATCH_GET_SIZE);
+            for (RegisterSource source : new ArrayList<>(sources.values())) {
+                batch.add(source);
+                if (batch.size() == BATCH_GET_SIZE) {
+                    updateExisting(batch, newSources);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                updateExisting(batch, newSources);
+            }
 
-            if (registerLockDAO.tryLock(scope)) {
-                try {
-                    sources.values().forEach(source -> {
-                        try {
-                            RegisterSource dbSource = registerDAO.get(modelName, source.id());
-                            if (Objects.nonNull(dbSource)) {
-                                dbSource.combine(source);
-                                registerDAO.forceUpdate(modelName, dbSource);
-                            } else {
-                                int sequence = registerDAO.max(modelName);
-                                source.setSequence(sequence + 1);
-                                registerDAO.forceInsert(modelName, source);
-                            }
-                        } catch (Throwable t) {
-                            logger.error(t.getMessage(), t);
-                        }
-                    });
-                } finally {
-                    registerLockDAO.releaseLock(scope);
+            if (!newSources.isEmpty()) {
+                if (registerLockDAO.tryLock(scope)) {
+                    try {
+                        insertNew(newSources);
+                    } finally {
+                        registerLockDAO.releaseLock(scope);
+                    }
+                } else {
+                    logger.info("Inventory register try lock failure.");
                 }
-            } else {
-                logger.info("Inventory register try lock failure.");
             }
         }
     }
 
+    /**
+     * Update the sources existing in the storage, and remove them from the cache. The others are added into the new
+     * sources.
+     */
+    private void updateExisting(List<RegisterSource> batch, List<RegisterSource> newSources) {
+        Map<String, RegisterSource> dbSources;
+        try {
+            dbSources = read(batch);
+        } catch (Throwable t) {
+            logger.error(t.getMessage(), t);
+            return;
+        }
+
+        List<RegisterSource> updates = new ArrayList<>(batch.size());
+        List<RegisterSource> updated = new ArrayList<>(batch.size());
+        batch.forEach(source -> {
+            RegisterSource dbSource = dbSources.get(source.id());
+            if (Objects.isNull(dbSource)) {
+                newSources.add(source);
+                return;
+            }
+
+            dbSource.combine(source);
+            updates.add(dbSource);
+            updated.add(source);
+        });
+
+        if (updates.isEmpty()) {
+            return;
+        }
+        try {
+            registerDAO.forceUpdate(modelName, updates);
+            updated.forEach(sources::remove);
+        } catch (Throwable t) {
+            logger.error(t.getMessage(), t);
+        }
+    }
+
+    /**
+     * The sources could have been registered by the other OAP nodes before the lock, so read them again, then insert
+     * the ones still not existing in one request.
+     */
+    private void insertNew(List<RegisterSource> newSources) {
+        List<RegisterSource> inserts = new ArrayList<>(newSources.size());
+        updateExisting(newSources, inserts);
+
+        if (inserts.isEmpty()) {
+            return;
+        }
+
+        try {
+            for (RegisterSource source : inserts) {
+                source.setSequence(nextSequence());
+            }
+            registerDAO.forceInsert(modelName, inserts);
+            inserts.forEach(sources::remove);
+        } catch (Throwable t) {
+            logger.error(t.getMessage(), t);
+        }
+    }
+
+    private Map<String, RegisterSource> read(List<RegisterSource> batch) throws IOException {
+        List<String> ids = new ArrayList<>(batch.size());
+        batch.forEach(source -> ids.add(source.id()));
+
+        Map<String, RegisterSource> dbSources = new HashMap<>();
+        registerDAO.multiGet(modelName, ids).forEach(dbSource -> dbSources.put(dbSource.id(), dbSource));
+        return dbSources;
+    }
+
+    /**
+     * Only called when holding the lock. A new block starts after the max sequence reserved by all the OAP nodes and
+     * the max one in the storage, the latter covers the storage not keeping the reservations.
+     */
+    private int nextSequence() throws IOException {
+        if (nextSequence == 0 || nextSequence > lastReservedSequence) {
+            int reserved = Math.max(registerLockDAO.getReservedSequence(scope), registerDAO.max(modelName));
+            reserved = Math.max(reserved, lastReservedSequence);
+
+            registerLockDAO.setReservedSequence(scope, reserved + SEQUENCE_BLOCK_SIZE);
+            nextSequence = reserved + 1;
+            lastReservedSequence = reserved + SEQUENCE_BLOCK_SIZE;
+        }
+        return nextSequence++;
+    }
+
     private class PersistentConsumer implements IConsumer<RegisterSource> {
 
         private final RegisterPersistentWorker persistent;
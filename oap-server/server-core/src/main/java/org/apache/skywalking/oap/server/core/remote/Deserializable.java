@@ -18,6 +18,7 @@
 
 package org.apache.skywalking.oap.server.core.remote;
 
+import java.util.List;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
 
 /**
@@ -25,4 +26,17 @@ import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
  */
 public interface Deserializable {
     void deserialize(RemoteData remoteData);
+
+    /**
+     * Deserialize the remote data whose strings may be given apart, such as the ones of a batch, kept in the dictionary
+     * of the batch. The stream data having strings reads them from the given list directly, without copying the remote
+     * data to restore them.
+     */
+    default void deserialize(RemoteData remoteData, List<String> dataStrings) {
+        if (remoteData.getDataStringIndexesCount() == 0) {
+            deserialize(remoteData);
+        } else {
+            deserialize(remoteData.toBuilder().clearDataStringIndexes().addAllDataStrings(dataStrings).build());
+        }
+    }
 }
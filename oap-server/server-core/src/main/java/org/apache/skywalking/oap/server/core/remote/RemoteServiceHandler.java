@@ -18,8 +18,12 @@
 
 package org.apache.skywalking.oap.server.core.remote;
 
-import io.grpc.stub.StreamObserver;
-import java.util.Objects;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.grpc.stub.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.function.Supplier;
 import org.apache.skywalking.oap.server.core.CoreModule;
 import org.apache.skywalking.oap.server.core.remote.annotation.StreamDataClassGetter;
 import org.apache.skywalking.oap.server.core.remote.data.StreamData;
@@ -34,6 +38,11 @@ import org.slf4j.*;
  * to receive message from each others.
  * The stream data id is used to find the object to deserialize message.
  * The next worker id is used to find the worker to process message.
+ * Batch call receives the messages grouped by the stream data id and the next worker id, in one frame.
+ *
+ * The messages are deserialized and pushed into the workers by the decode pool, not by the gRPC threads. Each stream
+ * requests a new message from the peer only after one of its messages has been processed, so a slow worker holds back
+ * its peers by the gRPC flow control, rather than blocking the gRPC threads.
  *
  * @author peng-yongsheng
  */
@@ -41,14 +50,53 @@ public class RemoteServiceHandler extends RemoteServiceGrpc.RemoteServiceImplBas
 
     private static final Logger logger = LoggerFactory.getLogger(RemoteServiceHandler.class);
 
+    private static final int MAX_MESSAGES_IN_PROCESSING = 4;
+    private static final long LOG_INTERVAL_MILLIS = 60_000;
+
     private final ModuleDefineHolder moduleDefineHolder;
+    private final ExecutorService decodePool;
     private StreamDataClassGetter streamDataClassGetter;
 
-    public RemoteServiceHandler(ModuleDefineHolder moduleDefineHolder) {
+    /**
+     * @param decodeThreads number of threads to deserialize the received messages, the processors number if not
+     * positive.
+     */
+    public RemoteServiceHandler(ModuleDefineHolder moduleDefineHolder, int decodeThreads) {
         this.moduleDefineHolder = moduleDefineHolder;
+        this.decodePool = Executors.newFixedThreadPool(decodeThreads > 0 ? decodeThreads : Runtime.getRuntime().availableProcessors(),
+            new ThreadFactoryBuilder().setNameFormat("RemoteServiceDecoder-%d").setDaemon(true).build());
     }
 
     @Override public StreamObserver<RemoteMessage> call(StreamObserver<Empty> responseObserver) {
+        initStreamDataClassGetter();
+
+        return new ReceiveStream<RemoteMessage>(responseObserver) {
+            @Override int process(RemoteMessage message) {
+                RemoteData remoteData = message.getRemoteData();
+                receive(message.getStreamDataId(), message.getNextWorkerId(), remoteData, remoteData.getDataStringsList());
+                return 1;
+            }
+        };
+    }
+
+    @Override public StreamObserver<RemoteMessageBatch> batchCall(StreamObserver<Empty> responseObserver) {
+        initStreamDataClassGetter();
+
+        return new ReceiveStream<RemoteMessageBatch>(responseObserver) {
+            @Override int process(RemoteMessageBatch batch) {
+                int count = 0;
+                for (RemoteDataGroup group : batch.getGroupsList()) {
+                    for (RemoteData remoteData : group.getRemoteDataList()) {
+                        receive(group.getStreamDataId(), group.getNextWorkerId(), remoteData, new DictionaryStrings(batch.getStringDictionaryList(), remoteData));
+                        count++;
+                    }
+                }
+                return count;
+            }
+        };
+    }
+
+    private void initStreamDataClassGetter() {
         if (Objects.isNull(streamDataClassGetter)) {
             synchronized (RemoteServiceHandler.class) {
                 if (Objects.isNull(streamDataClassGetter)) {
@@ -56,31 +104,158 @@ public class RemoteServiceHandler extends RemoteServiceGrpc.RemoteServiceImplBas
                 }
             }
         }
+    }
 
-        return new StreamObserver<RemoteMessage>() {
-            @Override public void onNext(RemoteMessage message) {
-                int streamDataId = message.getStreamDataId();
-                int nextWorkerId = message.getNextWorkerId();
-                RemoteData remoteData = message.getRemoteData();
+    /**
+     * The strings of a remote data in a batch, read from the dictionary of the batch by their indexes, so the decoded
+     * stream data share the string instances of the dictionary, and the remote data isn't copied to restore them.
+     */
+    private static class DictionaryStrings extends AbstractList<String> {
+        private final List<String> dictionary;
+        private final RemoteData remoteData;
+
+        DictionaryStrings(List<String> dictionary, RemoteData remoteData) {
+            this.dictionary = dictionary;
+            this.remoteData = remoteData;
+        }
+
+        @Override public String get(int index) {
+            return dictionary.get(remoteData.getDataStringIndexes(index));
+        }
+
+        @Override public int size() {
+            return remoteData.getDataStringIndexesCount();
+        }
+    }
+
+    /**
+     * @return false if the stream data failed to be deserialized or pushed into the worker.
+     */
+    private boolean dispatch(int streamDataId, int nextWorkerId, RemoteData remoteData, List<String> dataStrings) {
+        try {
+            Supplier<StreamData> streamDataFactory = streamDataClassGetter.findFactoryById(streamDataId);
+            StreamData streamData = streamDataFactory.get();
+            streamData.deserialize(remoteData, dataStrings);
+            WorkerInstances.INSTANCES.get(nextWorkerId).in(streamData);
+            return true;
+        } catch (Throwable t) {
+            logger.error(t.getMessage(), t);
+            return false;
+        }
+    }
 
-                Class<StreamData> streamDataClass = streamDataClassGetter.findClassById(streamDataId);
+    /**
+     * Process the messages of one stream in the decode pool, one by one in the order of receiving, with at most {@link
+     * #MAX_MESSAGES_IN_PROCESSING} messages requested from the peer and not processed yet. The stream holds at most one
+     * task in the queue of the decode pool, which processes all its pending messages, so the queue is bounded by the
+     * number of the streams. Respond to the peer after all the messages have been processed.
+     *
+     * The numbers of the received messages, stream data and failed stream data of the stream are logged once a minute
+     * while it is open, and when it completes or fails.
+     */
+    private abstract class ReceiveStream<MESSAGE> implements StreamObserver<MESSAGE> {
+        private final StreamObserver<Empty> responseObserver;
+        private final ServerCallStreamObserver<Empty> flowController;
+        private final Queue<MESSAGE> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger processing = new AtomicInteger(0);
+        private final AtomicBoolean responded = new AtomicBoolean(false);
+        private long streamMessages = 0;
+        private long streamData = 0;
+        private long failedStreamData = 0;
+        private long lastLogTimestamp = System.currentTimeMillis();
+        private volatile boolean completed = false;
+        private volatile boolean cancelled = false;
+
+        ReceiveStream(StreamObserver<Empty> responseObserver) {
+            this.responseObserver = responseObserver;
+            if (responseObserver instanceof ServerCallStreamObserver) {
+                this.flowController = (ServerCallStreamObserver<Empty>)responseObserver;
+                this.flowController.disableAutoInboundFlowControl();
+                this.flowController.request(MAX_MESSAGES_IN_PROCESSING);
+            } else {
+                this.flowController = null;
+            }
+        }
+
+        /**
+         * @return number of stream data in the message.
+         */
+        abstract int process(MESSAGE message);
+
+        void receive(int streamDataId, int nextWorkerId, RemoteData remoteData, List<String> dataStrings) {
+            if (!dispatch(streamDataId, nextWorkerId, remoteData, dataStrings)) {
+                failedStreamData++;
+            }
+        }
+
+        @Override public void onNext(MESSAGE message) {
+            if (cancelled) {
+                return;
+            }
+            pending.offer(message);
+            if (processing.getAndIncrement() == 0) {
+                decodePool.execute(this::processPending);
+            }
+        }
+
+        /**
+         * Process the pending messages until none left, only one thread runs this at the same time for the stream.
+         */
+        private void processPending() {
+            do {
+                MESSAGE message = pending.poll();
+                if (Objects.isNull(message) || cancelled) {
+                    continue;
+                }
                 try {
-                    StreamData streamData = streamDataClass.newInstance();
-                    streamData.deserialize(remoteData);
-                    WorkerInstances.INSTANCES.get(nextWorkerId).in(streamData);
+                    int count = process(message);
+                    streamMessages++;
+                    streamData += count;
                 } catch (Throwable t) {
                     logger.error(t.getMessage(), t);
+                } finally {
+                    if (Objects.nonNull(flowController) && !completed) {
+                        flowController.request(1);
+                    }
                 }
             }
+            while (processing.decrementAndGet() > 0);
 
-            @Override public void onError(Throwable throwable) {
-                logger.error(throwable.getMessage(), throwable);
+            long now = System.currentTimeMillis();
+            if (now - lastLogTimestamp >= LOG_INTERVAL_MILLIS) {
+                lastLogTimestamp = now;
+                logStatistics("open");
             }
 
-            @Override public void onCompleted() {
+            if (completed) {
+                respond();
+            }
+        }
+
+        @Override public void onError(Throwable throwable) {
+            logger.error(throwable.getMessage(), throwable);
+            cancelled = true;
+            pending.clear();
+            logStatistics("failed");
+        }
+
+        @Override public void onCompleted() {
+            completed = true;
+            if (processing.get() == 0) {
+                respond();
+            }
+        }
+
+        private void respond() {
+            if (!cancelled && responded.compareAndSet(false, true)) {
+                logStatistics("completed");
                 responseObserver.onNext(Empty.newBuilder().build());
                 responseObserver.onCompleted();
             }
-        };
+        }
+
+        private void logStatistics(String state) {
+            logger.info("Remote stream {}, received messages: {}, stream data: {}, failed stream data: {}", state, streamMessages, streamData, failedStreamData);
+        }
     }
 }
@@ -18,7 +18,10 @@
 
 package org.apache.skywalking.oap.server.core.remote.annotation;
 
+import java.lang.invoke.*;
 import java.util.*;
+import java.util.function.Supplier;
+import org.apache.skywalking.oap.server.core.UnexpectedException;
 import org.apache.skywalking.oap.server.core.remote.data.StreamData;
 import org.slf4j.*;
 
@@ -32,10 +35,12 @@ public class StreamDataAnnotationContainer implements StreamDataClassGetter {
     private int id = 0;
     private final Map<Class<StreamData>, Integer> classMap;
     private final Map<Integer, Class<StreamData>> idMap;
+    private final Map<Integer, Supplier<StreamData>> factoryMap;
 
     public StreamDataAnnotationContainer() {
         this.classMap = new HashMap<>();
         this.idMap = new HashMap<>();
+        this.factoryMap = new HashMap<>();
     }
 
     @SuppressWarnings(value = "unchecked")
@@ -46,6 +51,24 @@ public class StreamDataAnnotationContainer implements StreamDataClassGetter {
             id++;
             classMap.put(streamDataClass, id);
             idMap.put(id, streamDataClass);
+            factoryMap.put(id, createFactory(streamDataClass));
+        }
+    }
+
+    /**
+     * Generate a {@link Supplier} which calls the no-argument constructor of the given class directly, the same as
+     * {@code StreamDataClass::new}.
+     */
+    @SuppressWarnings(value = "unchecked")
+    static Supplier<StreamData> createFactory(Class streamDataClass) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodHandle constructor = lookup.findConstructor(streamDataClass, MethodType.methodType(void.class));
+            CallSite callSite = LambdaMetafactory.metafactory(lookup, "get", MethodType.methodType(Supplier.class),
+                MethodType.methodType(Object.class), constructor, MethodType.methodType(streamDataClass));
+            return (Supplier<StreamData>)callSite.getTarget().invoke();
+        } catch (Throwable t) {
+            throw new UnexpectedException("Can't create the factory of stream data class: " + streamDataClass.getName(), t);
         }
     }
 
@@ -56,4 +79,8 @@ public class StreamDataAnnotationContainer implements StreamDataClassGetter {
     @Override public Class<StreamData> findClassById(int id) {
         return idMap.get(id);
     }
+
+    @Override public Supplier<StreamData> findFactoryById(int id) {
+        return factoryMap.get(id);
+    }
 }
@@ -18,6 +18,7 @@
 
 package org.apache.skywalking.oap.server.core.remote.annotation;
 
+import java.util.function.Supplier;
 import org.apache.skywalking.oap.server.core.remote.data.StreamData;
 import org.apache.skywalking.oap.server.library.module.Service;
 
@@ -29,4 +30,9 @@ public interface StreamDataClassGetter extends Service {
     int findIdByClass(Class streamDataClass);
 
     Class<StreamData> findClassById(int id);
+
+    /**
+     * @return the factory to create the empty stream data of the given id, without reflection.
+     */
+    Supplier<StreamData> findFactoryById(int id);
 }
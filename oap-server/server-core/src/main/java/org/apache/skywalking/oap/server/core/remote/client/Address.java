@@ -29,15 +29,17 @@ public class Address implements Comparable<Address> {
     private final String host;
     private final int port;
     @Setter private boolean isSelf;
+    @Getter(AccessLevel.NONE) private final int hashCode;
 
     public Address(String host, int port, boolean isSelf) {
         this.host = host;
         this.port = port;
         this.isSelf = isSelf;
+        this.hashCode = toString().hashCode();
     }
 
     @Override public int hashCode() {
-        return toString().hashCode();
+        return hashCode;
     }
 
     @Override public boolean equals(Object obj) {
@@ -18,22 +18,27 @@
 
 package org.apache.skywalking.oap.server.core.remote.client;
 
-import io.grpc.ManagedChannel;
-import io.grpc.stub.StreamObserver;
+import io.grpc.*;
+import io.grpc.stub.*;
 import java.util.*;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.*;
 import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
 import org.apache.skywalking.oap.server.core.remote.annotation.StreamDataClassGetter;
 import org.apache.skywalking.oap.server.core.remote.data.StreamData;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.*;
+import org.apache.skywalking.oap.server.core.worker.WorkerConsumePool;
 import org.apache.skywalking.oap.server.library.client.grpc.GRPCClient;
 import org.slf4j.*;
 
 /**
  * This is a wrapper of the gRPC client for sending message to each other OAP server.
- * It contains a block queue to buffering the message and sending the message by batch.
+ * It contains a block queue to buffering the message and sending the message by batch,
+ * each batch is one frame of a long-lived stream to the peer.
+ * The peer of the previous version, which doesn't serve the batch call, gets the messages one by one by the call stream,
+ * so the cluster works during a rolling upgrade.
  *
  * @author peng-yongsheng
  */
@@ -41,27 +46,39 @@ public class GRPCRemoteClient implements RemoteClient {
 
     private static final Logger logger = LoggerFactory.getLogger(GRPCRemoteClient.class);
 
+    private static final long READY_CHECK_MILLIS = 100;
+    private static final long PROBE_TIMEOUT_SECONDS = 10;
+    private static final long REPROBE_INTERVAL_MILLIS = 60_000;
+    private static final long CALL_TIMEOUT_SECONDS = 60;
+
     private final int channelSize;
     private final int bufferSize;
     private final Address address;
     private final StreamDataClassGetter streamDataClassGetter;
-    private final AtomicInteger concurrentStreamObserverNumber = new AtomicInteger(0);
+    private final boolean compression;
     private GRPCClient client;
-    private DataCarrier<RemoteMessage> carrier;
+    private DataCarrier<RemoteItem> carrier;
+    private volatile BatchStream batchStream;
+    /**
+     * Whether the peer serves the batch call, null until probed.
+     */
+    private volatile Boolean batchSupported;
+    private volatile long probeTimestamp;
     private boolean isConnect;
 
     public GRPCRemoteClient(StreamDataClassGetter streamDataClassGetter, Address address, int channelSize,
-        int bufferSize) {
+        int bufferSize, boolean compression) {
         this.streamDataClassGetter = streamDataClassGetter;
         this.address = address;
         this.channelSize = channelSize;
         this.bufferSize = bufferSize;
+        this.compression = compression;
     }
 
     @Override public void connect() {
         if (!isConnect) {
             this.getClient().connect();
-            this.getDataCarrier().consume(new RemoteMessageConsumer(), 1);
+            WorkerConsumePool.INSTANCES.consume(this.getDataCarrier(), new RemoteMessageConsumer(), 1);
             this.isConnect = true;
         }
     }
@@ -87,15 +104,16 @@ public class GRPCRemoteClient implements RemoteClient {
     }
 
     RemoteServiceGrpc.RemoteServiceStub getStub() {
-        return RemoteServiceGrpc.newStub(getChannel());
+        RemoteServiceGrpc.RemoteServiceStub stub = RemoteServiceGrpc.newStub(getChannel());
+        return compression ? stub.withCompression("gzip") : stub;
     }
 
-    DataCarrier<RemoteMessage> getDataCarrier() {
+    DataCarrier<RemoteItem> getDataCarrier() {
         if (Objects.isNull(this.carrier)) {
             synchronized (GRPCRemoteClient.class) {
                 if (Objects.isNull(this.carrier)) {
                     this.carrier = new DataCarrier<>("GRPCRemoteClient", channelSize, bufferSize);
-                    this.carrier.setBufferStrategy(BufferStrategy.BLOCKING);
+                    this.carrier.setBufferStrategy(BufferStrategy.BLOCKING_PARK);
                 }
             }
         }
@@ -110,31 +128,52 @@ public class GRPCRemoteClient implements RemoteClient {
      */
     @Override public void push(int nextWorkerId, StreamData streamData) {
         int streamDataId = streamDataClassGetter.findIdByClass(streamData.getClass());
-        RemoteMessage.Builder builder = RemoteMessage.newBuilder();
-        builder.setNextWorkerId(nextWorkerId);
-        builder.setStreamDataId(streamDataId);
-        builder.setRemoteData(streamData.serialize());
+        this.getDataCarrier().produce(new RemoteItem(nextWorkerId, streamDataId, streamData.serialize()));
+    }
+
+    /**
+     * The serialized stream data waiting to be sent. The remote data is built only once, when it is packed into a
+     * batch, after its strings have been replaced by the indexes of the batch dictionary.
+     */
+    static class RemoteItem {
+        private final int nextWorkerId;
+        private final int streamDataId;
+        private final RemoteData.Builder remoteData;
 
-        this.getDataCarrier().produce(builder.build());
+        RemoteItem(int nextWorkerId, int streamDataId, RemoteData.Builder remoteData) {
+            this.nextWorkerId = nextWorkerId;
+            this.streamDataId = streamDataId;
+            this.remoteData = remoteData;
+        }
     }
 
-    class RemoteMessageConsumer implements IConsumer<RemoteMessage> {
+    class RemoteMessageConsumer implements IConsumer<RemoteItem> {
         @Override public void init() {
         }
 
-        @Override public void consume(List<RemoteMessage> remoteMessages) {
+        @Override public void consume(List<RemoteItem> remoteItems) {
             try {
-                StreamObserver<RemoteMessage> streamObserver = createStreamObserver();
-                for (RemoteMessage remoteMessage : remoteMessages) {
-                    streamObserver.onNext(remoteMessage);
+                RemoteMessageBatch batch = buildBatch(remoteItems);
+                if (isBatchSupported()) {
+                    if (getBatchStream().send(batch)) {
+                        return;
+                    }
+                    // The stream has been closed by the peer while waiting, retry once with a new one, or by the call
+                    // stream if the peer turned out to be of the previous version.
+                    if (isBatchSupported()) {
+                        if (!getBatchStream().send(batch)) {
+                            logger.error("{} remote messages to {} are dropped, the stream is closed by the peer.", remoteItems.size(), address);
+                        }
+                        return;
+                    }
                 }
-                streamObserver.onCompleted();
+                sendByCall(toPreviousVersion(batch));
             } catch (Throwable t) {
                 logger.error(t.getMessage(), t);
             }
         }
 
-        @Override public void onError(List<RemoteMessage> remoteMessages, Throwable t) {
+        @Override public void onError(List<RemoteItem> remoteItems, Throwable t) {
             logger.error(t.getMessage(), t);
         }
 
@@ -143,50 +182,247 @@ public class GRPCRemoteClient implements RemoteClient {
     }
 
     /**
-     * Create a gRPC stream observer to sending stream data, one stream observer
-     * could send multiple stream data by a single consume.
-     * The max number of concurrency allowed at the same time is 10.
-     *
-     * @return stream observer
+     * Pack the messages into one batch, the messages for the same worker and stream data class share one group. The
+     * strings of the remote data, mostly the entity ids repeated by the indicators of the same entity, are replaced by
+     * the indexes of a dictionary shared by the whole batch.
      */
-    private StreamObserver<RemoteMessage> createStreamObserver() {
-        int sleepTotalMillis = 0;
-        int sleepMillis = 10;
-        while (concurrentStreamObserverNumber.incrementAndGet() > 10) {
-            concurrentStreamObserverNumber.addAndGet(-1);
+    static RemoteMessageBatch buildBatch(List<RemoteItem> remoteItems) {
+        RemoteMessageBatch.Builder batch = RemoteMessageBatch.newBuilder();
+        Map<String, Integer> dictionary = new HashMap<>();
+        Map<Long, RemoteDataGroup.Builder> groups = new LinkedHashMap<>();
+        for (RemoteItem remoteItem : remoteItems) {
+            long groupKey = ((long)remoteItem.nextWorkerId << 32) | (remoteItem.streamDataId & 0xFFFFFFFFL);
+            RemoteDataGroup.Builder group = groups.get(groupKey);
+            if (Objects.isNull(group)) {
+                group = RemoteDataGroup.newBuilder();
+                group.setNextWorkerId(remoteItem.nextWorkerId);
+                group.setStreamDataId(remoteItem.streamDataId);
+                groups.put(groupKey, group);
+            }
 
-            try {
-                Thread.sleep(sleepMillis);
-            } catch (InterruptedException e) {
-                logger.error(e.getMessage(), e);
+            RemoteData.Builder remoteData = remoteItem.remoteData;
+            int stringsCount = remoteData.getDataStringsCount();
+            if (stringsCount > 0) {
+                for (int i = 0; i < stringsCount; i++) {
+                    String value = remoteData.getDataStrings(i);
+                    Integer index = dictionary.get(value);
+                    if (Objects.isNull(index)) {
+                        index = dictionary.size();
+                        dictionary.put(value, index);
+                        batch.addStringDictionary(value);
+                    }
+                    remoteData.addDataStringIndexes(index);
+                }
+                remoteData.clearDataStrings();
             }
+            group.addRemoteData(remoteData);
+        }
+
+        groups.values().forEach(batch::addGroups);
+        return batch.build();
+    }
+
+    /**
+     * Probe the peer by a batch call without message, the peer of the previous version responds UNIMPLEMENTED. A probe
+     * which fails for another reason or times out leaves the batch stream to be tried, so the consumer doesn't wait
+     * for the probe again on every consume. The peer known as the previous version is probed again once a minute, in
+     * case it has been upgraded.
+     */
+    private boolean isBatchSupported() throws InterruptedException {
+        Boolean supported = batchSupported;
+        if (Objects.isNull(supported) || (!supported && System.currentTimeMillis() - probeTimestamp > REPROBE_INTERVAL_MILLIS)) {
+            probeTimestamp = System.currentTimeMillis();
+            CountDownLatch probed = new CountDownLatch(1);
+            getStub().batchCall(new StreamObserver<Empty>() {
+                @Override public void onNext(Empty empty) {
+                }
 
-            sleepTotalMillis += sleepMillis;
+                @Override public void onError(Throwable throwable) {
+                    if (Status.fromThrowable(throwable).getCode() == Status.Code.UNIMPLEMENTED) {
+                        logger.info("Remote server {} doesn't serve the batch call, send the messages one by one.", address);
+                        batchSupported = false;
+                    } else {
+                        logger.warn("Probe remote server {} failed, try the batch stream.", address);
+                        batchSupported = true;
+                    }
+                    probed.countDown();
+                }
+
+                @Override public void onCompleted() {
+                    batchSupported = true;
+                    probed.countDown();
+                }
+            }).onCompleted();
 
-            if (sleepTotalMillis > 60000) {
-                logger.warn("Remote client block times over 60 seconds.");
+            if (!probed.await(PROBE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                logger.warn("Probe remote server {} timeout, try the batch stream.", address);
+                batchSupported = true;
             }
         }
+        return batchSupported;
+    }
 
-        return getStub().call(new StreamObserver<Empty>() {
+    /**
+     * Send the messages to the peer of the previous version by the call stream, with the histograms in the field it
+     * reads. Wait for the peer to complete the stream, so there is only one stream in flight.
+     */
+    private void sendByCall(List<RemoteMessage> remoteMessages) throws InterruptedException {
+        CountDownLatch completed = new CountDownLatch(1);
+        StreamObserver<RemoteMessage> stream = getStub().call(new StreamObserver<Empty>() {
             @Override public void onNext(Empty empty) {
             }
 
             @Override public void onError(Throwable throwable) {
-                concurrentStreamObserverNumber.addAndGet(-1);
                 logger.error(throwable.getMessage(), throwable);
+                completed.countDown();
             }
 
             @Override public void onCompleted() {
-                concurrentStreamObserverNumber.addAndGet(-1);
+                completed.countDown();
             }
         });
+
+        for (RemoteMessage remoteMessage : remoteMessages) {
+            stream.onNext(remoteMessage);
+        }
+        stream.onCompleted();
+
+        if (!completed.await(CALL_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            logger.warn("Remote server {} doesn't complete the call in {} seconds.", address, CALL_TIMEOUT_SECONDS);
+        }
+    }
+
+    /**
+     * Unpack the batch into the messages of the previous version, which have the strings in place, and the only
+     * histogram in the IntKeyLongValuePair list.
+     */
+    static List<RemoteMessage> toPreviousVersion(RemoteMessageBatch batch) {
+        List<RemoteMessage> remoteMessages = new ArrayList<>();
+        for (RemoteDataGroup group : batch.getGroupsList()) {
+            for (RemoteData remoteData : group.getRemoteDataList()) {
+                RemoteData.Builder converted = remoteData.toBuilder().clearDataStringIndexes().clearDataIntLongPairLists();
+                for (int i = 0; i < remoteData.getDataStringIndexesCount(); i++) {
+                    converted.addDataStrings(batch.getStringDictionary(remoteData.getDataStringIndexes(i)));
+                }
+                if (remoteData.getDataIntLongPairListsCount() > 0) {
+                    IntKeyLongValuePairList histogram = remoteData.getDataIntLongPairLists(0);
+                    for (int i = 0; i < histogram.getKeysCount(); i++) {
+                        converted.addDataIntLongPairList(IntKeyLongValuePair.newBuilder().setKey(histogram.getKeys(i)).setValue(histogram.getValues(i)));
+                    }
+                }
+
+                RemoteMessage.Builder remoteMessage = RemoteMessage.newBuilder();
+                remoteMessage.setNextWorkerId(group.getNextWorkerId());
+                remoteMessage.setStreamDataId(group.getStreamDataId());
+                remoteMessage.setRemoteData(converted);
+                remoteMessages.add(remoteMessage.build());
+            }
+        }
+        return remoteMessages;
+    }
+
+    /**
+     * Get the long-lived stream to the peer, a new one is created when the previous one has been closed.
+     * Only called by the single consumer thread.
+     *
+     * @return batch stream
+     */
+    private BatchStream getBatchStream() {
+        if (Objects.isNull(batchStream) || batchStream.isClosed()) {
+            BatchStream stream = new BatchStream();
+            getStub().batchCall(stream);
+            batchStream = stream;
+        }
+        return batchStream;
+    }
+
+    /**
+     * A client stream kept open across consumes. Sending waits for the transport to be ready, which follows the gRPC
+     * flow control window, instead of buffering an unbounded number of batches in memory.
+     */
+    private class BatchStream implements ClientResponseObserver<RemoteMessageBatch, Empty> {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition ready = lock.newCondition();
+        private volatile ClientCallStreamObserver<RemoteMessageBatch> requestStream;
+        private volatile boolean closed = false;
+
+        @Override public void beforeStart(ClientCallStreamObserver<RemoteMessageBatch> requestStream) {
+            this.requestStream = requestStream;
+            requestStream.setOnReadyHandler(this::signalReady);
+        }
+
+        /**
+         * @return false if the stream has been closed before the batch could be sent.
+         */
+        boolean send(RemoteMessageBatch batch) throws InterruptedException {
+            long blockedMillis = 0;
+            lock.lock();
+            try {
+                while (!closed && !requestStream.isReady()) {
+                    ready.await(READY_CHECK_MILLIS, TimeUnit.MILLISECONDS);
+
+                    blockedMillis += READY_CHECK_MILLIS;
+                    if (blockedMillis % 60000 == 0) {
+                        logger.warn("Remote client block times over {} seconds.", blockedMillis / 1000);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (closed) {
+                return false;
+            }
+            requestStream.onNext(batch);
+            return true;
+        }
+
+        boolean isClosed() {
+            return closed;
+        }
+
+        void complete() {
+            if (!closed) {
+                closed = true;
+                requestStream.onCompleted();
+            }
+        }
+
+        private void signalReady() {
+            lock.lock();
+            try {
+                ready.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override public void onNext(Empty empty) {
+        }
+
+        @Override public void onError(Throwable throwable) {
+            closed = true;
+            if (Status.fromThrowable(throwable).getCode() == Status.Code.UNIMPLEMENTED) {
+                batchSupported = false;
+                probeTimestamp = System.currentTimeMillis();
+            }
+            signalReady();
+            logger.error(throwable.getMessage(), throwable);
+        }
+
+        @Override public void onCompleted() {
+            closed = true;
+            signalReady();
+        }
     }
 
     @Override public void close() {
         if (Objects.nonNull(this.carrier)) {
             this.carrier.shutdownConsumers();
         }
+        if (Objects.nonNull(this.batchStream)) {
+            this.batchStream.complete();
+        }
         if (Objects.nonNull(this.client)) {
             this.client.shutdown();
         }
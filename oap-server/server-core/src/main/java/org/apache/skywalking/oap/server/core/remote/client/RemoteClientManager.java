@@ -38,14 +38,16 @@ public class RemoteClientManager implements Service {
     private static final Logger logger = LoggerFactory.getLogger(RemoteClientManager.class);
 
     private final ModuleDefineHolder moduleDefineHolder;
+    private final boolean remoteCompression;
     private StreamDataClassGetter streamDataClassGetter;
     private ClusterNodesQuery clusterNodesQuery;
     private final List<RemoteClient> clientsA;
     private final List<RemoteClient> clientsB;
     private volatile List<RemoteClient> usingClients;
 
-    public RemoteClientManager(ModuleDefineHolder moduleDefineHolder) {
+    public RemoteClientManager(ModuleDefineHolder moduleDefineHolder, boolean remoteCompression) {
         this.moduleDefineHolder = moduleDefineHolder;
+        this.remoteCompression = remoteCompression;
         this.clientsA = new LinkedList<>();
         this.clientsB = new LinkedList<>();
         this.usingClients = clientsA;
@@ -193,7 +195,7 @@ public class RemoteClientManager implements Service {
                         RemoteClient client = new SelfRemoteClient(address);
                         getFreeClients().add(client);
                     } else {
-                        RemoteClient client = new GRPCRemoteClient(streamDataClassGetter, address, 1, 3000);
+                        RemoteClient client = new GRPCRemoteClient(streamDataClassGetter, address, 1, 3000, remoteCompression);
                         client.connect();
                         getFreeClients().add(client);
                     }
@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.apache.skywalking.oap.server.core.remote.selector;
+
+import java.util.List;
+import org.apache.skywalking.oap.server.core.remote.client.RemoteClient;
+import org.apache.skywalking.oap.server.core.remote.data.StreamData;
+
+/**
+ * Select the client by rendezvous (highest random weight) hashing. Every client is weighted by the hash of its address
+ * together with the remote hash code of the stream data, the client with the highest weight wins.
+ *
+ * Unlike {@link HashCodeSelector}, when a client joins or leaves, only the stream data moving to the new client, or
+ * owned by the left client, are reassigned. The others keep being aggregated by the same OAP server.
+ */
+public class ConsistentHashSelector implements RemoteClientSelector {
+
+    @Override public RemoteClient select(List<RemoteClient> clients, StreamData streamData) {
+        int remoteHashCode = streamData.remoteHashCode();
+
+        RemoteClient selected = null;
+        long maxWeight = Long.MIN_VALUE;
+        for (RemoteClient client : clients) {
+            long weight = weight(client.getAddress().hashCode(), remoteHashCode);
+            if (selected == null || weight > maxWeight) {
+                selected = client;
+                maxWeight = weight;
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Mix the address hash and the stream data hash by the finalizer of MurmurHash3, so the weights of the different
+     * addresses are independent of each other.
+     */
+    static long weight(int addressHashCode, int remoteHashCode) {
+        long h = ((long)addressHashCode << 32) | (remoteHashCode & 0xFFFFFFFFL);
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
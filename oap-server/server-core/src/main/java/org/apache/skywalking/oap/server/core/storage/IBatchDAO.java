@@ -26,4 +26,10 @@ import java.util.List;
 public interface IBatchDAO extends DAO {
 
     void batchPersistence(List<?> batchCollection);
+
+    /**
+     * Send out the data buffered by {@link #batchPersistence(List)}, if the implementation buffers, and wait until the
+     * storage responds, so the following reads see the data.
+     */
+    void flush();
 }
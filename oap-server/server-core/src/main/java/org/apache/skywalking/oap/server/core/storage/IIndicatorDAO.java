@@ -19,6 +19,7 @@
 package org.apache.skywalking.oap.server.core.storage;
 
 import java.io.IOException;
+import java.util.List;
 import org.apache.skywalking.oap.server.core.analysis.indicator.Indicator;
 
 /**
@@ -26,7 +27,11 @@ import org.apache.skywalking.oap.server.core.analysis.indicator.Indicator;
  */
 public interface IIndicatorDAO<INSERT, UPDATE> extends DAO {
 
-    Indicator get(String modelName, Indicator indicator) throws IOException;
+    /**
+     * Read the stored indicators which have the same {@link Indicator#id()} as the given ones, in one storage request.
+     * Indicators not existing in the storage are absent from the result.
+     */
+    List<Indicator> multiGet(String modelName, List<Indicator> indicators) throws IOException;
 
     INSERT prepareBatchInsert(String modelName, Indicator indicator) throws IOException;
 
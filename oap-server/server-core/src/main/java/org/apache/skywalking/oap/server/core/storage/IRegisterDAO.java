@@ -19,6 +19,8 @@
 package org.apache.skywalking.oap.server.core.storage;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.Map;
 import org.apache.skywalking.oap.server.core.register.RegisterSource;
 
 /**
@@ -30,7 +32,31 @@ public interface IRegisterDAO extends DAO {
 
     RegisterSource get(String modelName, String id) throws IOException;
 
+    /**
+     * Read the stored sources of the given ids in one storage request, the ones not existing are absent from the
+     * result.
+     */
+    List<RegisterSource> multiGet(String modelName, List<String> ids) throws IOException;
+
     void forceInsert(String modelName, RegisterSource source) throws IOException;
 
+    /**
+     * Insert the sources in one storage request, they are visible to the queries as soon as it returns.
+     */
+    void forceInsert(String modelName, List<RegisterSource> sources) throws IOException;
+
     void forceUpdate(String modelName, RegisterSource source) throws IOException;
+
+    /**
+     * Update the sources in one storage request, they are visible to the queries as soon as it returns.
+     */
+    void forceUpdate(String modelName, List<RegisterSource> sources) throws IOException;
+
+    /**
+     * Update only the heartbeat time column of the sources in one storage request. The stored heartbeat time is kept
+     * when it is later than the given one.
+     *
+     * @param heartbeatTimes the heartbeat time keyed by the id of the source.
+     */
+    void updateHeartbeatTime(String modelName, Map<String, Long> heartbeatTimes) throws IOException;
 }
@@ -18,6 +18,7 @@
 
 package org.apache.skywalking.oap.server.core.storage;
 
+import java.io.IOException;
 import org.apache.skywalking.oap.server.core.source.Scope;
 
 /**
@@ -27,4 +28,17 @@ public interface IRegisterLockDAO extends DAO {
     boolean tryLock(Scope scope);
 
     void releaseLock(Scope scope);
+
+    /**
+     * Only called when holding the lock of the scope.
+     *
+     * @return the max sequence reserved by all the OAP nodes in the scope, 0 if none reserved or the storage doesn't
+     * keep the reservations.
+     */
+    int getReservedSequence(Scope scope) throws IOException;
+
+    /**
+     * Only called when holding the lock of the scope, to reserve the sequences up to the given one.
+     */
+    void setReservedSequence(Scope scope, int sequence) throws IOException;
 }
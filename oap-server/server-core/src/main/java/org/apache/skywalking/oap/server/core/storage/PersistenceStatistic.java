@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.storage;
+
+import lombok.Getter;
+
+/**
+ * The persistence status of one model, updated by {@link PersistenceTimer} in every persistent period.
+ */
+@Getter
+public class PersistenceStatistic {
+    private final String modelName;
+    /**
+     * Time in milliseconds to prepare and save the data of the last persistence.
+     */
+    private volatile long lastDuration;
+    /**
+     * Number of the data saved in the last persistence.
+     */
+    private volatile int lastSize;
+    /**
+     * Number of the data cached and waiting for the next persistence.
+     */
+    private volatile int backlog;
+    /**
+     * Times of the persistent periods skipped, because the previous persistence of this model was still running.
+     */
+    private volatile long delayedTimes;
+
+    PersistenceStatistic(String modelName) {
+        this.modelName = modelName;
+    }
+
+    void finish(long duration, int size) {
+        this.lastDuration = duration;
+        this.lastSize = size;
+    }
+
+    void setBacklog(int backlog) {
+        this.backlog = backlog;
+    }
+
+    void delayed() {
+        delayedTimes++;
+    }
+}
@@ -18,6 +18,7 @@
 
 package org.apache.skywalking.oap.server.core.storage;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.util.*;
 import java.util.concurrent.*;
 import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
@@ -26,6 +27,10 @@ import org.apache.skywalking.oap.server.library.module.ModuleManager;
 import org.slf4j.*;
 
 /**
+ * Persists the data of all {@link PersistenceWorker}s in every persistent period. The batch of each model is prepared
+ * in a thread pool and flushed to the storage as soon as it is ready, see {@link PersistenceWorker#persist()}. A model is
+ * skipped in the period when its previous persistence is still running.
+ *
  * @author peng-yongsheng
  */
 public enum PersistenceTimer {
@@ -35,69 +40,134 @@ public enum PersistenceTimer {
 
     private Boolean isStarted = false;
     private final Boolean debug;
+    private long timeInterval;
+    private ScheduledExecutorService scheduler;
+    private ExecutorService prepareExecutor;
+    private final Set<PersistenceWorker> runningWorkers = ConcurrentHashMap.newKeySet();
+    private final Map<PersistenceWorker, PersistenceStatistic> statistics = new ConcurrentHashMap<>();
 
     PersistenceTimer() {
         this.debug = System.getProperty("debug") != null;
     }
 
-    public void start(ModuleManager moduleManager) {
+    /**
+     * @param timeInterval persistent period in second.
+     * @param concurrency number of threads to prepare and save the batches of the models.
+     */
+    public void start(ModuleManager moduleManager, long timeInterval, int concurrency) {
         logger.info("persistence timer start");
-        //TODO timer value config
-//        final long timeInterval = EsConfig.Es.Persistence.Timer.VALUE * 1000;
-        final long timeInterval = 3;
-        IBatchDAO batchDAO = moduleManager.find(StorageModule.NAME).provider().getService(IBatchDAO.class);
 
         if (!isStarted) {
-            Executors.newSingleThreadScheduledExecutor().scheduleAtFixedRate(
-                new RunnableWithExceptionProtection(() -> extractDataAndSave(batchDAO),
+            this.timeInterval = timeInterval;
+            this.prepareExecutor = Executors.newFixedThreadPool(concurrency,
+                new ThreadFactoryBuilder().setNameFormat("PersistenceTimerPrepare-%d").setDaemon(true).build());
+
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("PersistenceTimer-%d").setDaemon(true).build());
+            this.scheduler.scheduleAtFixedRate(
+                new RunnableWithExceptionProtection(this::extractDataAndSave,
                     t -> logger.error("Extract data and save failure.", t)), 1, timeInterval, TimeUnit.SECONDS);
 
+            Runtime.getRuntime().addShutdownHook(new Thread(this::persistAll, "PersistenceTimerShutdown"));
+
             this.isStarted = true;
         }
     }
 
-    @SuppressWarnings("unchecked")
-    private void extractDataAndSave(IBatchDAO batchDAO) {
+    private void extractDataAndSave() {
         if (logger.isDebugEnabled()) {
             logger.debug("Extract data and save");
         }
 
-        long startTime = System.currentTimeMillis();
-        try {
-            List batchAllCollection = new LinkedList();
-            List<PersistenceWorker> persistenceWorkers = new ArrayList<>();
-            persistenceWorkers.addAll(IndicatorProcess.INSTANCE.getPersistentWorkers());
-            persistenceWorkers.addAll(RecordProcess.INSTANCE.getPersistentWorkers());
+        List<PersistenceWorker> persistenceWorkers = new ArrayList<>();
+        persistenceWorkers.addAll(IndicatorProcess.INSTANCE.getPersistentWorkers());
+        persistenceWorkers.addAll(RecordProcess.INSTANCE.getPersistentWorkers());
 
-            persistenceWorkers.forEach(worker -> {
-                if (logger.isDebugEnabled()) {
-                    logger.debug("extract {} worker data and save", worker.getClass().getName());
-                }
+        long currentTimeMillis = System.currentTimeMillis();
+        persistenceWorkers.forEach(worker -> {
+            PersistenceStatistic statistic = statistics.computeIfAbsent(worker, key -> new PersistenceStatistic(worker.getModelName()));
+            statistic.setBacklog(worker.getCache().currentCollectionSize());
 
-                if (worker.flushAndSwitch()) {
-                    List<?> batchCollection = worker.buildBatchCollection();
+            if (runningWorkers.add(worker)) {
+                if (!worker.isPersistenceDue(currentTimeMillis)) {
+                    runningWorkers.remove(worker);
+                    return;
+                }
 
-                    if (logger.isDebugEnabled()) {
-                        logger.debug("extract {} worker data size: {}", worker.getClass().getName(), batchCollection.size());
+                prepareExecutor.execute(() -> {
+                    try {
+                        extractDataAndSave(worker, statistic);
+                    } finally {
+                        runningWorkers.remove(worker);
                     }
-                    batchAllCollection.addAll(batchCollection);
-                }
+                });
+            } else {
+                statistic.delayed();
+                logger.warn("The persistence of {} is still running after {} seconds, skip it in this period.", worker.getModelName(), timeInterval);
+            }
+        });
+    }
+
+    /**
+     * Persist the data cached by all the workers when the server stops, including the ones kept in memory for a longer
+     * period, such as the open time buckets and the hour, day and month indicators. The periods are stopped first, and
+     * the running persistence is waited for, so no worker is skipped as still running.
+     */
+    private void persistAll() {
+        logger.info("persist all the cached data before shutdown");
+
+        try {
+            scheduler.shutdown();
+            scheduler.awaitTermination(timeInterval, TimeUnit.SECONDS);
+            prepareExecutor.shutdown();
+            if (!prepareExecutor.awaitTermination(timeInterval, TimeUnit.SECONDS)) {
+                logger.warn("The persistence is still running after {} seconds, the running models are skipped.", timeInterval);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        List<PersistenceWorker> persistenceWorkers = new ArrayList<>();
+        persistenceWorkers.addAll(IndicatorProcess.INSTANCE.getPersistentWorkers());
+        persistenceWorkers.addAll(RecordProcess.INSTANCE.getPersistentWorkers());
+
+        try {
+            persistenceWorkers.forEach(worker -> {
+                // No more period, make all the cached data due.
+                worker.isPersistenceDue(Long.MAX_VALUE);
+                worker.persist();
             });
+        } catch (Throwable t) {
+            logger.error("Persist the cached data before shutdown failure.", t);
+        }
+    }
 
-            if (debug) {
-                logger.info("build batch persistence duration: {} ms", System.currentTimeMillis() - startTime);
+    private void extractDataAndSave(PersistenceWorker worker, PersistenceStatistic statistic) {
+        long startTime = System.currentTimeMillis();
+        try {
+            if (logger.isDebugEnabled()) {
+                logger.debug("extract {} worker data and save", worker.getModelName());
             }
-            batchDAO.batchPersistence(batchAllCollection);
-        } catch (Throwable e) {
-            logger.error(e.getMessage(), e);
-        } finally {
+
+            int size = Math.max(worker.persist(), 0);
+
             if (logger.isDebugEnabled()) {
-                logger.debug("persistence data save finish");
+                logger.debug("extract {} worker data size: {}", worker.getModelName(), size);
             }
+
+            statistic.finish(System.currentTimeMillis() - startTime, size);
+        } catch (Throwable e) {
+            logger.error(e.getMessage(), e);
         }
 
-        if (debug) {
-            logger.info("batch persistence duration: {} ms", System.currentTimeMillis() - startTime);
+        if (debug || logger.isDebugEnabled()) {
+            String format = "{} batch persistence duration: {} ms, size: {}, backlog: {}, delayed times: {}";
+            Object[] arguments = {statistic.getModelName(), statistic.getLastDuration(), statistic.getLastSize(), statistic.getBacklog(), statistic.getDelayedTimes()};
+            if (debug) {
+                logger.info(format, arguments);
+            } else {
+                logger.debug(format, arguments);
+            }
         }
     }
 }
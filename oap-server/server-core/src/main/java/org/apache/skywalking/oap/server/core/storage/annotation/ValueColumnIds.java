@@ -33,6 +33,10 @@ public enum ValueColumnIds {
         mapping.putIfAbsent(indName, new ValueColumn(valueCName, function));
     }
 
+    public boolean contains(String indName) {
+        return mapping.containsKey(indName);
+    }
+
     public String getValueCName(String indName) {
         return mapping.get(indName).valueCName;
     }
@@ -34,5 +34,12 @@ public interface IMetricQueryDAO extends DAO {
 
     IntValues getLinearIntValues(String indName, Step step, List<String> ids, String valueCName) throws IOException;
 
+    /**
+     * Same as {@link #getLinearIntValues(String, Step, List, String)}, but the value column is the percentiles keyed
+     * by rank, see {@link org.apache.skywalking.oap.server.core.analysis.indicator.PercentileIndicator}.
+     */
+    IntValues getLinearPercentileValues(String indName, Step step, List<String> ids, String valueCName,
+        int rank) throws IOException;
+
     Thermodynamic getThermodynamic(String indName, Step step, List<String> ids, String valueCName) throws IOException;
 }
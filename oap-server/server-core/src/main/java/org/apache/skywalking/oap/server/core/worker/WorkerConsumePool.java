@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.worker;
+
+import java.util.Objects;
+import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
+import org.apache.skywalking.apm.commons.datacarrier.consumer.*;
+
+/**
+ * Decides the consumer threads of the workers' data carriers. When the pool size is set, the carriers of all workers
+ * are consumed by one shared {@link BulkConsumePool}, so the number of threads doesn't grow with the number of models.
+ * Otherwise, each carrier has its own consumer threads.
+ */
+public enum WorkerConsumePool {
+    INSTANCES;
+
+    private static final long CONSUME_CYCLE = 100;
+
+    private BulkConsumePool pool;
+
+    /**
+     * @param poolSize number of the shared consumer threads, 0 means each carrier has its own consumer threads.
+     */
+    public synchronized void setPoolSize(int poolSize) {
+        if (Objects.nonNull(pool)) {
+            pool.close();
+        }
+        this.pool = poolSize > 0 ? new BulkConsumePool("Worker", poolSize, CONSUME_CYCLE) : null;
+    }
+
+    /**
+     * @param num number of the dedicated consumer threads, ignored when the shared pool is used, the channels of the
+     * carrier are spread across the threads of the pool.
+     */
+    public <T> void consume(DataCarrier<T> dataCarrier, IConsumer<T> consumer, int num) {
+        if (Objects.nonNull(pool)) {
+            dataCarrier.consume(pool, consumer);
+        } else {
+            dataCarrier.consume(consumer, num);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.data;
+
+import java.util.*;
+import java.util.concurrent.*;
+import org.apache.skywalking.oap.server.core.analysis.indicator.*;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.junit.*;
+
+public class MergeDataCacheTest {
+
+    @Test
+    public void testConcurrentAccept() throws Exception {
+        MergeDataCache<Indicator> cache = new MergeDataCache<>();
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int thread = 0; thread < 4; thread++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 10000; i++) {
+                    CountIndicatorImpl indicator = new CountIndicatorImpl(i % 10);
+                    indicator.combine(1);
+                    cache.accept(indicator);
+                }
+            }));
+        }
+
+        long total = 0;
+        for (Future<?> future : futures) {
+            while (!future.isDone()) {
+                total += sum(cache.read());
+            }
+            future.get();
+        }
+        total += sum(cache.read());
+        executor.shutdown();
+
+        Assert.assertEquals(40000, total);
+        Assert.assertEquals(0, cache.currentCollectionSize());
+    }
+
+    @Test
+    public void testMergeSameKey() {
+        MergeDataCache<Indicator> cache = new MergeDataCache<>();
+        for (int i = 0; i < 3; i++) {
+            CountIndicatorImpl indicator = new CountIndicatorImpl(1);
+            indicator.combine(5);
+            cache.accept(indicator);
+        }
+
+        Collection<Indicator> collection = cache.read();
+        Assert.assertEquals(1, collection.size());
+        Assert.assertEquals(15, sum(collection));
+    }
+
+    private long sum(Collection<Indicator> collection) {
+        return collection.stream().mapToLong(indicator -> ((CountIndicator)indicator).getValue()).sum();
+    }
+
+    public class CountIndicatorImpl extends CountIndicator {
+        private final int key;
+
+        CountIndicatorImpl(int key) {
+            this.key = key;
+        }
+
+        @Override public String id() {
+            return String.valueOf(key);
+        }
+
+        @Override public int hashCode() {
+            return key;
+        }
+
+        @Override public boolean equals(Object obj) {
+            return obj instanceof CountIndicatorImpl && ((CountIndicatorImpl)obj).key == key;
+        }
+
+        @Override public Indicator toHour() {
+            return null;
+        }
+
+        @Override public Indicator toDay() {
+            return null;
+        }
+
+        @Override public Indicator toMonth() {
+            return null;
+        }
+
+        @Override public void deserialize(RemoteData remoteData) {
+
+        }
+
+        @Override public RemoteData.Builder serialize() {
+            return null;
+        }
+
+        @Override public int remoteHashCode() {
+            return key;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.data;
+
+import org.apache.skywalking.oap.server.core.analysis.indicator.*;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.junit.*;
+
+public class PersistedIndicatorCacheTest {
+
+    private static final String PAYLOAD = new String(new char[2000]).replace('\0', 'x');
+
+    @Test
+    public void testBoundedByMemory() {
+        PersistedIndicatorCache cache = new PersistedIndicatorCache(1, 1);
+        for (int i = 0; i < 2000; i++) {
+            cache.put(new CountIndicatorImpl(i));
+        }
+
+        int cached = 0;
+        for (int i = 0; i < 2000; i++) {
+            if (cache.get(new CountIndicatorImpl(i)) != null) {
+                cached++;
+            }
+        }
+        Assert.assertTrue(cached > 0);
+        Assert.assertTrue(cached <= 1024 * 1024 / PAYLOAD.length());
+        Assert.assertNull(cache.get(new CountIndicatorImpl(0)));
+        Assert.assertNotNull(cache.get(new CountIndicatorImpl(1999)));
+    }
+
+    @Test
+    public void testDisabled() {
+        PersistedIndicatorCache cache = new PersistedIndicatorCache(0, 1);
+        cache.put(new CountIndicatorImpl(1));
+
+        Assert.assertNull(cache.get(new CountIndicatorImpl(1)));
+    }
+
+    public class CountIndicatorImpl extends CountIndicator {
+        private final int key;
+
+        CountIndicatorImpl(int key) {
+            this.key = key;
+        }
+
+        @Override public String id() {
+            return String.valueOf(key);
+        }
+
+        @Override public int hashCode() {
+            return key;
+        }
+
+        @Override public boolean equals(Object obj) {
+            return obj instanceof CountIndicatorImpl && ((CountIndicatorImpl)obj).key == key;
+        }
+
+        @Override public Indicator toHour() {
+            return null;
+        }
+
+        @Override public Indicator toDay() {
+            return null;
+        }
+
+        @Override public Indicator toMonth() {
+            return null;
+        }
+
+        @Override public void deserialize(RemoteData remoteData) {
+
+        }
+
+        @Override public RemoteData.Builder serialize() {
+            return RemoteData.newBuilder().addDataStrings(PAYLOAD);
+        }
+
+        @Override public int remoteHashCode() {
+            return key;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.indicator;
+
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.IntKeyLongValuePair;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.IntKeyLongValuePairList;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class IntKeyLongValueHistogramTest {
+
+    @Test
+    public void testIncreaseKeepsKeysSorted() {
+        IntKeyLongValueHistogram histogram = new IntKeyLongValueHistogram(1);
+        histogram.increase(10, 1);
+        histogram.increase(2, 3);
+        histogram.increase(6, 1);
+        histogram.increase(2, 1);
+
+        Assert.assertEquals(3, histogram.size());
+        Assert.assertEquals(2, histogram.keyAt(0));
+        Assert.assertEquals(4, histogram.valueAt(0));
+        Assert.assertEquals(6, histogram.keyAt(1));
+        Assert.assertEquals(10, histogram.keyAt(2));
+        Assert.assertEquals(0, histogram.get(3));
+    }
+
+    @Test
+    public void testMerge() {
+        IntKeyLongValueHistogram histogram = new IntKeyLongValueHistogram("1,2|5,1|9,4");
+        histogram.merge(new IntKeyLongValueHistogram("0,1|5,2|12,3"));
+
+        Assert.assertEquals("0,1|1,2|5,3|9,4|12,3", histogram.toStorageData());
+    }
+
+    @Test
+    public void testPercentile() {
+        IntKeyLongValueHistogram histogram = new IntKeyLongValueHistogram("5,3|6,1|10,1|11,6");
+
+        Assert.assertEquals(11, histogram.percentile(99));
+        Assert.assertEquals(6, histogram.percentile(40));
+        Assert.assertEquals(5, histogram.percentile(20));
+        Assert.assertEquals(0, new IntKeyLongValueHistogram().percentile(99));
+    }
+
+    @Test
+    public void testSerialize() {
+        IntKeyLongValueHistogram histogram = new IntKeyLongValueHistogram("1,2|5,1");
+        RemoteData.Builder builder = RemoteData.newBuilder();
+        histogram.serialize(builder);
+
+        IntKeyLongValueHistogram deserialized = new IntKeyLongValueHistogram(builder.build(), 0);
+        Assert.assertEquals(histogram.toStorageData(), deserialized.toStorageData());
+
+        IntKeyLongValueHistogram copy = new IntKeyLongValueHistogram();
+        copy.copyFrom(histogram);
+        copy.increase(1, 1);
+        Assert.assertEquals(2, histogram.get(1));
+        Assert.assertEquals("", new IntKeyLongValueHistogram("").toStorageData());
+    }
+
+    @Test
+    public void testDeserializeLegacyPairs() {
+        RemoteData.Builder builder = RemoteData.newBuilder();
+        builder.addDataIntLongPairList(IntKeyLongValuePair.newBuilder().setKey(5).setValue(1));
+        builder.addDataIntLongPairList(IntKeyLongValuePair.newBuilder().setKey(1).setValue(2));
+
+        Assert.assertEquals("1,2|5,1", new IntKeyLongValueHistogram(builder.build(), 0).toStorageData());
+        Assert.assertEquals("", new IntKeyLongValueHistogram(builder.build(), 1).toStorageData());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectUnpairedColumns() {
+        RemoteData remoteData = RemoteData.newBuilder().addDataIntLongPairLists(IntKeyLongValuePairList.newBuilder().addKeys(1).addKeys(2).addValues(3)).build();
+        new IntKeyLongValueHistogram(remoteData, 0);
+    }
+}
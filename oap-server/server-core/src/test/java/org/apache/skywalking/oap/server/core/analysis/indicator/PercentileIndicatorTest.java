@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.apache.skywalking.oap.server.core.analysis.indicator;
+
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PercentileIndicatorTest {
+    private int precision = 10;//ms
+    private int[] ranks = {50, 75, 90, 99};
+
+    @Test
+    public void rankNameTest() {
+        Assert.assertEquals("service_p99", PercentileIndicator.rankName("service_percentile", 99));
+        Assert.assertEquals("service_latency_p50", PercentileIndicator.rankName("service_latency", 50));
+
+        Assert.assertEquals("service_percentile", PercentileIndicator.indicatorNameOfRank("service_p99"));
+        Assert.assertEquals(99, PercentileIndicator.rankOf("service_p99"));
+        Assert.assertNull(PercentileIndicator.indicatorNameOfRank("service_cpm"));
+        Assert.assertEquals(-1, PercentileIndicator.rankOf("service_cpm"));
+    }
+
+    @Test
+    public void percentileTest() {
+        PercentileIndicatorMocker indicatorMocker = new PercentileIndicatorMocker();
+
+        indicatorMocker.combine(110, precision, ranks);
+        indicatorMocker.combine(100, precision, ranks);
+        indicatorMocker.combine(100, precision, ranks);
+        indicatorMocker.combine(100, precision, ranks);
+        indicatorMocker.combine(50, precision, ranks);
+        indicatorMocker.combine(50, precision, ranks);
+        indicatorMocker.combine(50, precision, ranks);
+        indicatorMocker.combine(61, precision, ranks);
+        indicatorMocker.combine(61, precision, ranks);
+        indicatorMocker.combine(71, precision, ranks);
+        indicatorMocker.combine(100, precision, ranks);
+
+        indicatorMocker.calculate();
+
+        // precision = 10, 71 ~= 70
+        Assert.assertEquals(70, indicatorMocker.getValue(50));
+        Assert.assertEquals(100, indicatorMocker.getValue(75));
+        Assert.assertEquals(100, indicatorMocker.getValue(90));
+        Assert.assertEquals(110, indicatorMocker.getValue(99));
+        Assert.assertEquals(4, indicatorMocker.getPercentileValues().size());
+    }
+
+    @Test
+    public void combineTest() {
+        PercentileIndicatorMocker persisted = new PercentileIndicatorMocker();
+        persisted.combine(50, precision, ranks);
+        persisted.calculate();
+
+        PercentileIndicatorMocker indicatorMocker = new PercentileIndicatorMocker();
+        indicatorMocker.combine(persisted);
+        indicatorMocker.combine(110, precision, ranks);
+        indicatorMocker.calculate();
+
+        Assert.assertEquals(2, indicatorMocker.getDataset().size());
+        Assert.assertEquals(50, indicatorMocker.getValue(50));
+        Assert.assertEquals(110, indicatorMocker.getValue(99));
+    }
+
+    public class PercentileIndicatorMocker extends PercentileIndicator {
+
+        @Override public String id() {
+            return null;
+        }
+
+        @Override public Indicator toHour() {
+            return null;
+        }
+
+        @Override public Indicator toDay() {
+            return null;
+        }
+
+        @Override public Indicator toMonth() {
+            return null;
+        }
+
+        @Override public void deserialize(RemoteData remoteData) {
+
+        }
+
+        @Override public RemoteData.Builder serialize() {
+            return null;
+        }
+
+        @Override public int remoteHashCode() {
+            return 0;
+        }
+    }
+}
@@ -93,6 +93,21 @@ public class PxxIndicatorTest {
         Assert.assertEquals(70, indicatorMocker.getValue());
     }
 
+    @Test
+    public void combineTest() {
+        PxxIndicatorMocker persisted = new PxxIndicatorMocker(50);
+        persisted.combine(50, precision);
+
+        PxxIndicatorMocker indicatorMocker = new PxxIndicatorMocker(50);
+        indicatorMocker.combine(100, precision);
+        indicatorMocker.combine(persisted);
+        indicatorMocker.combine(50, precision);
+
+        Assert.assertEquals(2, indicatorMocker.getDetailGroup().size());
+        // The combined indicator is kept as it is, could be combined again.
+        Assert.assertEquals(1, persisted.getDetailGroup().valueAt(0));
+    }
+
     public class PxxIndicatorMocker extends PxxIndicator {
 
         public PxxIndicatorMocker(int percentileRank) {
@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.worker;
+
+import java.util.List;
+import org.apache.skywalking.oap.server.core.analysis.data.PersistedIndicatorCache;
+import org.apache.skywalking.oap.server.core.analysis.indicator.*;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.apache.skywalking.oap.server.core.storage.*;
+import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.junit.*;
+import org.mockito.ArgumentCaptor;
+
+import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.*;
+
+public class IndicatorPersistentWorkerTest {
+
+    private ModuleManager moduleManager;
+    private IIndicatorDAO indicatorDAO;
+
+    @Before
+    public void setUp() {
+        moduleManager = mock(ModuleManager.class, RETURNS_DEEP_STUBS);
+        when(moduleManager.find(StorageModule.NAME).provider().getService(IBatchDAO.class)).thenReturn(mock(IBatchDAO.class));
+        indicatorDAO = mock(IIndicatorDAO.class);
+    }
+
+    @Test
+    public void testPersistInEveryPeriod() {
+        IndicatorPersistentWorker worker = worker(0);
+
+        long now = System.currentTimeMillis();
+        Assert.assertTrue(worker.isPersistenceDue(now));
+        Assert.assertTrue(worker.isPersistenceDue(now + 3000));
+    }
+
+    @Test
+    public void testPersistInLongerPeriod() {
+        IndicatorPersistentWorker worker = worker(60);
+
+        long now = System.currentTimeMillis();
+        Assert.assertFalse(worker.isPersistenceDue(now + 3000));
+        Assert.assertTrue(worker.isPersistenceDue(now + 60000));
+        Assert.assertFalse(worker.isPersistenceDue(now + 63000));
+    }
+
+    @Test
+    public void testPersistWhenTimeBucketClosed() {
+        IndicatorPersistentWorker worker = worker(60);
+
+        long now = System.currentTimeMillis();
+        worker.cacheData(new CountIndicatorImpl(2018101813));
+        worker.cacheData(new CountIndicatorImpl(2018101813));
+        Assert.assertFalse(worker.isPersistenceDue(now + 3000));
+
+        worker.cacheData(new CountIndicatorImpl(2018101814));
+        Assert.assertTrue(worker.isPersistenceDue(now + 6000));
+        Assert.assertEquals(1, worker.buildBatchCollection().size());
+        Assert.assertFalse(worker.isPersistenceDue(now + 9000));
+        Assert.assertEquals(1, worker.getCache().currentCollectionSize());
+    }
+
+    @Test
+    public void testInsertClosedTimeBucketWithoutRead() throws Exception {
+        IndicatorPersistentWorker worker = worker(60);
+
+        worker.cacheData(new CountIndicatorImpl(2018101813));
+        worker.cacheData(new CountIndicatorImpl(2018101814));
+        worker.cacheData(new CountIndicatorImpl(2018101815));
+        Assert.assertEquals(2, worker.buildBatchCollection().size());
+
+        ArgumentCaptor<List> readIndicators = ArgumentCaptor.forClass(List.class);
+        verify(indicatorDAO).multiGet(anyString(), readIndicators.capture());
+        Assert.assertEquals(1, readIndicators.getValue().size());
+        verify(indicatorDAO, times(2)).prepareBatchInsert(anyString(), any());
+
+        worker.cacheData(new CountIndicatorImpl(2018101814));
+        Assert.assertTrue(worker.isPersistenceDue(System.currentTimeMillis() + 60000));
+        Assert.assertEquals(2, worker.buildBatchCollection().size());
+        verify(indicatorDAO, times(2)).multiGet(anyString(), anyList());
+    }
+
+    @Test
+    public void testPersistClosedTimeBucketsWhenCacheFull() throws Exception {
+        IndicatorPersistentWorker worker = new IndicatorPersistentWorker(1, "test_hour", 2, 60, 3600, moduleManager,
+            indicatorDAO, new PersistedIndicatorCache(0, 1), null, 1);
+
+        worker.onWork(new CountIndicatorImpl(2018101813));
+        worker.onWork(new CountIndicatorImpl(2018101814));
+        Assert.assertEquals(2, worker.getCache().currentCollectionSize());
+
+        // The full cache persists the closed time bucket only, the open ones are kept merging.
+        worker.onWork(new CountIndicatorImpl(2018101815));
+        Assert.assertEquals(2, worker.getCache().currentCollectionSize());
+        verify(indicatorDAO, times(1)).prepareBatchInsert(anyString(), any());
+    }
+
+    private IndicatorPersistentWorker worker(int maxStaleness) {
+        return new IndicatorPersistentWorker(1, "test_hour", 1000, maxStaleness, 0, moduleManager,
+            indicatorDAO, new PersistedIndicatorCache(0, 1), null, 1);
+    }
+
+    public class CountIndicatorImpl extends CountIndicator {
+
+        CountIndicatorImpl(long timeBucket) {
+            setTimeBucket(timeBucket);
+        }
+
+        @Override public String id() {
+            return String.valueOf(getTimeBucket());
+        }
+
+        @Override public int hashCode() {
+            return Long.hashCode(getTimeBucket());
+        }
+
+        @Override public boolean equals(Object obj) {
+            return obj instanceof CountIndicatorImpl && ((CountIndicatorImpl)obj).getTimeBucket() == getTimeBucket();
+        }
+
+        @Override public Indicator toHour() {
+            return null;
+        }
+
+        @Override public Indicator toDay() {
+            return null;
+        }
+
+        @Override public Indicator toMonth() {
+            return null;
+        }
+
+        @Override public void deserialize(RemoteData remoteData) {
+
+        }
+
+        @Override public RemoteData.Builder serialize() {
+            return null;
+        }
+
+        @Override public int remoteHashCode() {
+            return hashCode();
+        }
+    }
+}
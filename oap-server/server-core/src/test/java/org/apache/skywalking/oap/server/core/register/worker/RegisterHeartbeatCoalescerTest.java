@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.register.worker;
+
+import java.io.IOException;
+import java.util.*;
+import org.apache.skywalking.oap.server.core.register.ServiceInventory;
+import org.apache.skywalking.oap.server.core.storage.IRegisterDAO;
+import org.junit.*;
+
+import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.*;
+
+public class RegisterHeartbeatCoalescerTest {
+
+    @Test
+    public void testFlushLatestHeartbeat() throws Exception {
+        IRegisterDAO registerDAO = mock(IRegisterDAO.class);
+        RegisterHeartbeatCoalescer coalescer = new RegisterHeartbeatCoalescer(ServiceInventory.MODEL_NAME, registerDAO);
+
+        ServiceInventory service1 = serviceInventory(2, "service-1");
+        ServiceInventory service2 = serviceInventory(3, "service-2");
+        coalescer.heartbeat(service1, 100);
+        coalescer.heartbeat(service1, 300);
+        coalescer.heartbeat(service1, 200);
+        coalescer.heartbeat(service2, 150);
+        coalescer.flush();
+
+        Map<String, Long> heartbeatTimes = new HashMap<>();
+        heartbeatTimes.put(service1.id(), 300L);
+        heartbeatTimes.put(service2.id(), 150L);
+        verify(registerDAO).updateHeartbeatTime(ServiceInventory.MODEL_NAME, heartbeatTimes);
+
+        coalescer.flush();
+        verify(registerDAO, times(1)).updateHeartbeatTime(anyString(), anyMap());
+    }
+
+    @Test
+    public void testKeepHeartbeatDuringFlush() throws Exception {
+        IRegisterDAO registerDAO = mock(IRegisterDAO.class);
+        RegisterHeartbeatCoalescer coalescer = new RegisterHeartbeatCoalescer(ServiceInventory.MODEL_NAME, registerDAO);
+
+        ServiceInventory service = serviceInventory(2, "service-1");
+        coalescer.heartbeat(service, 100);
+        doAnswer(invocation -> {
+            coalescer.heartbeat(service, 200);
+            return null;
+        }).doNothing().when(registerDAO).updateHeartbeatTime(anyString(), anyMap());
+        coalescer.flush();
+
+        // The heartbeat received during the flush is persisted in the next one.
+        coalescer.flush();
+        verify(registerDAO).updateHeartbeatTime(ServiceInventory.MODEL_NAME, Collections.singletonMap(service.id(), 200L));
+    }
+
+    @Test
+    public void testKeepHeartbeatWhenFlushFailed() throws Exception {
+        IRegisterDAO registerDAO = mock(IRegisterDAO.class);
+        RegisterHeartbeatCoalescer coalescer = new RegisterHeartbeatCoalescer(ServiceInventory.MODEL_NAME, registerDAO);
+
+        ServiceInventory service = serviceInventory(2, "service-1");
+        coalescer.heartbeat(service, 100);
+        doThrow(new IOException()).doNothing().when(registerDAO).updateHeartbeatTime(anyString(), anyMap());
+        coalescer.flush();
+        coalescer.flush();
+
+        verify(registerDAO, times(2)).updateHeartbeatTime(ServiceInventory.MODEL_NAME, Collections.singletonMap(service.id(), 100L));
+    }
+
+    private ServiceInventory serviceInventory(int sequence, String name) {
+        ServiceInventory source = new ServiceInventory();
+        source.setSequence(sequence);
+        source.setName(name);
+        return source;
+    }
+}
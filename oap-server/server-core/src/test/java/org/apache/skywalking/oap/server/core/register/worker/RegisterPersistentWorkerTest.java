@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.register.worker;
+
+import java.util.*;
+import org.apache.skywalking.oap.server.core.analysis.data.EndOfBatchContext;
+import org.apache.skywalking.oap.server.core.register.*;
+import org.apache.skywalking.oap.server.core.source.Scope;
+import org.apache.skywalking.oap.server.core.storage.*;
+import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.junit.*;
+import org.mockito.ArgumentCaptor;
+
+import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.*;
+
+public class RegisterPersistentWorkerTest {
+
+    private IRegisterLockDAO registerLockDAO;
+    private IRegisterDAO registerDAO;
+    private RegisterPersistentWorker worker;
+
+    @Before
+    public void setUp() throws Exception {
+        registerLockDAO = mock(IRegisterLockDAO.class);
+        when(registerLockDAO.tryLock(Scope.ServiceInventory)).thenReturn(true);
+
+        ModuleManager moduleManager = mock(ModuleManager.class, RETURNS_DEEP_STUBS);
+        when(moduleManager.find(StorageModule.NAME).provider().getService(IRegisterLockDAO.class)).thenReturn(registerLockDAO);
+
+        registerDAO = mock(IRegisterDAO.class);
+        when(registerDAO.max(ServiceInventory.MODEL_NAME)).thenReturn(1);
+
+        worker = new RegisterPersistentWorker(1, ServiceInventory.MODEL_NAME, moduleManager, registerDAO, Scope.ServiceInventory);
+    }
+
+    @Test
+    public void testInsertWithReservedSequences() throws Exception {
+        register(RegisterPersistentWorker.SEQUENCE_BLOCK_SIZE + 1);
+
+        ArgumentCaptor<List> inserts = ArgumentCaptor.forClass(List.class);
+        verify(registerDAO).forceInsert(eq(ServiceInventory.MODEL_NAME), inserts.capture());
+        verify(registerDAO, times(2)).max(ServiceInventory.MODEL_NAME);
+        verify(registerLockDAO).setReservedSequence(Scope.ServiceInventory, 1 + RegisterPersistentWorker.SEQUENCE_BLOCK_SIZE);
+        verify(registerLockDAO).setReservedSequence(Scope.ServiceInventory, 1 + 2 * RegisterPersistentWorker.SEQUENCE_BLOCK_SIZE);
+        verify(registerLockDAO).releaseLock(Scope.ServiceInventory);
+
+        Set<Integer> sequences = new HashSet<>();
+        for (Object source : inserts.getValue()) {
+            sequences.add(((RegisterSource)source).getSequence());
+        }
+        Assert.assertEquals(RegisterPersistentWorker.SEQUENCE_BLOCK_SIZE + 1, sequences.size());
+        Assert.assertTrue(sequences.contains(2));
+        Assert.assertTrue(sequences.contains(RegisterPersistentWorker.SEQUENCE_BLOCK_SIZE + 2));
+    }
+
+    @Test
+    public void testUpdateExistingWithoutLock() throws Exception {
+        ServiceInventory dbSource = serviceInventory(0);
+        dbSource.setSequence(2);
+        when(registerDAO.multiGet(eq(ServiceInventory.MODEL_NAME), anyList())).thenReturn(Collections.singletonList(dbSource));
+
+        register(1);
+
+        verify(registerDAO).forceUpdate(ServiceInventory.MODEL_NAME, Collections.singletonList(dbSource));
+        verify(registerLockDAO, never()).tryLock(any());
+        verify(registerDAO, never()).forceInsert(anyString(), anyList());
+    }
+
+    private void register(int size) {
+        for (int i = 0; i < size; i++) {
+            ServiceInventory source = serviceInventory(i);
+            source.setEndOfBatchContext(new EndOfBatchContext(i == size - 1));
+            worker.onWork(source);
+        }
+    }
+
+    private ServiceInventory serviceInventory(int i) {
+        ServiceInventory source = new ServiceInventory();
+        source.setName("service-" + i);
+        return source;
+    }
+}
@@ -22,6 +22,9 @@ import io.grpc.inprocess.*;
 import io.grpc.stub.StreamObserver;
 import io.grpc.testing.GrpcCleanupRule;
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.skywalking.oap.server.core.CoreModule;
 import org.apache.skywalking.oap.server.core.remote.annotation.StreamDataClassGetter;
 import org.apache.skywalking.oap.server.core.remote.data.StreamData;
@@ -42,7 +45,7 @@ public class RemoteServiceHandlerTestCase {
     public final GrpcCleanupRule gRPCCleanup = new GrpcCleanupRule();
 
     @Test
-    public void callTest() throws DuplicateProviderException, ProviderNotFoundException, IOException {
+    public void callTest() throws DuplicateProviderException, ProviderNotFoundException, IOException, InterruptedException {
         final int streamDataClassId = 1;
         final int testWorkerId = 1;
 
@@ -53,16 +56,20 @@ public class RemoteServiceHandlerTestCase {
         StreamDataClassGetter classGetter = mock(StreamDataClassGetter.class);
         Class<?> dataClass = TestRemoteData.class;
         when(classGetter.findClassById(streamDataClassId)).thenReturn((Class<StreamData>)dataClass);
+        when(classGetter.findFactoryById(streamDataClassId)).thenReturn(TestRemoteData::new);
 
         moduleDefine.provider().registerServiceImplementation(StreamDataClassGetter.class, classGetter);
 
-        WorkerInstances.INSTANCES.put(testWorkerId, new TestWorker());
+        TestWorker worker = new TestWorker();
+        WorkerInstances.INSTANCES.put(testWorkerId, worker);
 
+        RemoteServiceHandler handler = new RemoteServiceHandler(moduleManager, 1);
         String serverName = InProcessServerBuilder.generateName();
 
         gRPCCleanup.register(InProcessServerBuilder
-            .forName(serverName).directExecutor().addService(new RemoteServiceHandler(moduleManager)).build().start());
+            .forName(serverName).directExecutor().addService(handler).build().start());
 
+        CountDownLatch responded = new CountDownLatch(1);
         RemoteServiceGrpc.RemoteServiceStub remoteServiceStub = RemoteServiceGrpc.newStub(
             gRPCCleanup.register(InProcessChannelBuilder.forName(serverName).directExecutor().build()));
 
@@ -76,7 +83,7 @@ public class RemoteServiceHandlerTestCase {
             }
 
             @Override public void onCompleted() {
-
+                responded.countDown();
             }
         });
 
@@ -94,6 +101,161 @@ public class RemoteServiceHandlerTestCase {
 
         streamObserver.onNext(remoteMessage.build());
         streamObserver.onCompleted();
+
+        Assert.assertTrue(responded.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(1, worker.received.get());
+    }
+
+    @Test
+    public void batchCallTest() throws DuplicateProviderException, ProviderNotFoundException, IOException, InterruptedException {
+        final int streamDataClassId = 1;
+        final int testWorkerId = 1;
+
+        ModuleManagerTesting moduleManager = new ModuleManagerTesting();
+        ModuleDefineTesting moduleDefine = new ModuleDefineTesting();
+        moduleManager.put(CoreModule.NAME, moduleDefine);
+
+        StreamDataClassGetter classGetter = mock(StreamDataClassGetter.class);
+        Class<?> dataClass = TestRemoteData.class;
+        when(classGetter.findClassById(streamDataClassId)).thenReturn((Class<StreamData>)dataClass);
+        when(classGetter.findFactoryById(streamDataClassId)).thenReturn(TestRemoteData::new);
+
+        moduleDefine.provider().registerServiceImplementation(StreamDataClassGetter.class, classGetter);
+
+        TestWorker worker = new TestWorker();
+        WorkerInstances.INSTANCES.put(testWorkerId, worker);
+
+        RemoteServiceHandler handler = new RemoteServiceHandler(moduleManager, 1);
+        String serverName = InProcessServerBuilder.generateName();
+
+        gRPCCleanup.register(InProcessServerBuilder
+            .forName(serverName).directExecutor().addService(handler).build().start());
+
+        CountDownLatch responded = new CountDownLatch(1);
+        RemoteServiceGrpc.RemoteServiceStub remoteServiceStub = RemoteServiceGrpc.newStub(
+            gRPCCleanup.register(InProcessChannelBuilder.forName(serverName).directExecutor().build()));
+
+        StreamObserver<RemoteMessageBatch> streamObserver = remoteServiceStub.batchCall(new StreamObserver<Empty>() {
+            @Override public void onNext(Empty empty) {
+
+            }
+
+            @Override public void onError(Throwable throwable) {
+
+            }
+
+            @Override public void onCompleted() {
+                responded.countDown();
+            }
+        });
+
+        RemoteData.Builder remoteData = RemoteData.newBuilder();
+        remoteData.addDataStrings("test1");
+        remoteData.addDataStrings("test2");
+
+        remoteData.addDataLongs(10);
+        remoteData.addDataLongs(20);
+
+        RemoteDataGroup.Builder group = RemoteDataGroup.newBuilder();
+        group.setStreamDataId(streamDataClassId);
+        group.setNextWorkerId(testWorkerId);
+        group.addRemoteData(remoteData);
+        group.addRemoteData(remoteData);
+
+        streamObserver.onNext(RemoteMessageBatch.newBuilder().addGroups(group).build());
+        streamObserver.onNext(RemoteMessageBatch.newBuilder().addGroups(group).build());
+        streamObserver.onCompleted();
+
+        // Respond after all the stream data have been processed by the decode pool.
+        Assert.assertTrue(responded.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(4, worker.received.get());
+    }
+
+    @Test
+    public void callInOrderTest() throws DuplicateProviderException, ProviderNotFoundException, IOException, InterruptedException {
+        final int streamDataClassId = 2;
+        final int testWorkerId = 2;
+
+        ModuleManagerTesting moduleManager = new ModuleManagerTesting();
+        ModuleDefineTesting moduleDefine = new ModuleDefineTesting();
+        moduleManager.put(CoreModule.NAME, moduleDefine);
+
+        StreamDataClassGetter classGetter = mock(StreamDataClassGetter.class);
+        when(classGetter.findFactoryById(streamDataClassId)).thenReturn(OrderedRemoteData::new);
+
+        moduleDefine.provider().registerServiceImplementation(StreamDataClassGetter.class, classGetter);
+
+        OrderedWorker worker = new OrderedWorker();
+        WorkerInstances.INSTANCES.put(testWorkerId, worker);
+
+        RemoteServiceHandler handler = new RemoteServiceHandler(moduleManager, 4);
+        String serverName = InProcessServerBuilder.generateName();
+
+        gRPCCleanup.register(InProcessServerBuilder
+            .forName(serverName).directExecutor().addService(handler).build().start());
+
+        CountDownLatch responded = new CountDownLatch(1);
+        RemoteServiceGrpc.RemoteServiceStub remoteServiceStub = RemoteServiceGrpc.newStub(
+            gRPCCleanup.register(InProcessChannelBuilder.forName(serverName).directExecutor().build()));
+
+        StreamObserver<RemoteMessage> streamObserver = remoteServiceStub.call(new StreamObserver<Empty>() {
+            @Override public void onNext(Empty empty) {
+
+            }
+
+            @Override public void onError(Throwable throwable) {
+
+            }
+
+            @Override public void onCompleted() {
+                responded.countDown();
+            }
+        });
+
+        for (int i = 0; i < 100; i++) {
+            RemoteMessage.Builder remoteMessage = RemoteMessage.newBuilder();
+            remoteMessage.setStreamDataId(streamDataClassId);
+            remoteMessage.setNextWorkerId(testWorkerId);
+            remoteMessage.setRemoteData(RemoteData.newBuilder().addDataLongs(i));
+            streamObserver.onNext(remoteMessage.build());
+        }
+        streamObserver.onCompleted();
+
+        // The messages of one stream are processed in the order of sending, even by several decode threads.
+        Assert.assertTrue(responded.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(100, worker.received.size());
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals(i, worker.received.get(i).longValue());
+        }
+    }
+
+    static class OrderedRemoteData extends StreamData {
+
+        private long sequence;
+
+        @Override public int remoteHashCode() {
+            return 0;
+        }
+
+        @Override public void deserialize(RemoteData remoteData) {
+            sequence = remoteData.getDataLongs(0);
+        }
+
+        @Override public RemoteData.Builder serialize() {
+            return null;
+        }
+    }
+
+    static class OrderedWorker extends AbstractWorker {
+        private final List<Long> received = new CopyOnWriteArrayList<>();
+
+        public OrderedWorker() {
+            super(2);
+        }
+
+        @Override public void in(Object o) {
+            received.add(((OrderedRemoteData)o).sequence);
+        }
     }
 
     static class TestRemoteData extends StreamData {
@@ -125,6 +287,7 @@ public class RemoteServiceHandlerTestCase {
     }
 
     static class TestWorker extends AbstractWorker {
+        private final AtomicInteger received = new AtomicInteger(0);
 
         public TestWorker() {
             super(1);
@@ -137,6 +300,7 @@ public class RemoteServiceHandlerTestCase {
             Assert.assertEquals("test2", data.str2);
             Assert.assertEquals(10, data.long1);
             Assert.assertEquals(20, data.long2);
+            received.incrementAndGet();
         }
     }
 }
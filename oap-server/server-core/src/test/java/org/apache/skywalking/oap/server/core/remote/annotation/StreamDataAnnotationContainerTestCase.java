@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.apache.skywalking.oap.server.core.remote.annotation;
+
+import java.util.*;
+import org.apache.skywalking.oap.server.core.remote.data.StreamData;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.junit.*;
+
+public class StreamDataAnnotationContainerTestCase {
+
+    @Test
+    public void testFactory() {
+        StreamDataAnnotationContainer container = new StreamDataAnnotationContainer();
+        List<Class> streamDataClasses = new ArrayList<>();
+        streamDataClasses.add(TestStreamDataB.class);
+        streamDataClasses.add(TestStreamDataA.class);
+        container.generate(streamDataClasses);
+
+        int id = container.findIdByClass(TestStreamDataB.class);
+        Assert.assertEquals(2, id);
+
+        StreamData streamData = container.findFactoryById(id).get();
+        Assert.assertEquals(TestStreamDataB.class, streamData.getClass());
+        Assert.assertNotSame(streamData, container.findFactoryById(id).get());
+    }
+
+    public static class TestStreamDataA extends StreamData {
+        @Override public int remoteHashCode() {
+            return 0;
+        }
+
+        @Override public void deserialize(RemoteData remoteData) {
+        }
+
+        @Override public RemoteData.Builder serialize() {
+            return null;
+        }
+    }
+
+    public static class TestStreamDataB extends TestStreamDataA {
+    }
+}
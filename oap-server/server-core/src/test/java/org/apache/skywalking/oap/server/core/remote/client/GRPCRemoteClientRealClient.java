@@ -19,6 +19,7 @@
 package org.apache.skywalking.oap.server.core.remote.client;
 
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import org.apache.skywalking.oap.server.core.remote.annotation.StreamDataClassGetter;
 import org.apache.skywalking.oap.server.core.remote.data.StreamData;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
@@ -34,7 +35,7 @@ public class GRPCRemoteClientRealClient {
 
     public static void main(String[] args) throws InterruptedException {
         Address address = new Address("localhost", 10000, false);
-        GRPCRemoteClient remoteClient = spy(new GRPCRemoteClient(new TestClassGetter(), address, 1, 10));
+        GRPCRemoteClient remoteClient = spy(new GRPCRemoteClient(new TestClassGetter(), address, 1, 10, false));
         remoteClient.connect();
 
         for (int i = 0; i < 10000; i++) {
@@ -55,6 +56,10 @@ public class GRPCRemoteClientRealClient {
             Class<?> clazz = TestStreamData.class;
             return (Class<StreamData>)clazz;
         }
+
+        @Override public Supplier<StreamData> findFactoryById(int id) {
+            return TestStreamData::new;
+        }
     }
 
     public static class TestStreamData extends StreamData {
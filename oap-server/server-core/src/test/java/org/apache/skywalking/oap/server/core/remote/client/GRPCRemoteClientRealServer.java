@@ -41,7 +41,7 @@ public class GRPCRemoteClientRealServer {
         GRPCServer server = new GRPCServer("localhost", 10000);
         server.initialize();
 
-        server.addHandler(new RemoteServiceHandler(moduleManager));
+        server.addHandler(new RemoteServiceHandler(moduleManager, 1));
 
         server.start();
 
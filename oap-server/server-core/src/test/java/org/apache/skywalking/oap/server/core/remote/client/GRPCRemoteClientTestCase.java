@@ -18,13 +18,16 @@
 
 package org.apache.skywalking.oap.server.core.remote.client;
 
+import io.grpc.stub.StreamObserver;
 import io.grpc.testing.GrpcServerRule;
+import java.util.*;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.skywalking.oap.server.core.CoreModule;
 import org.apache.skywalking.oap.server.core.remote.RemoteServiceHandler;
 import org.apache.skywalking.oap.server.core.remote.annotation.StreamDataClassGetter;
 import org.apache.skywalking.oap.server.core.remote.data.StreamData;
-import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.*;
 import org.apache.skywalking.oap.server.core.worker.*;
 import org.apache.skywalking.oap.server.testing.module.*;
 import org.junit.*;
@@ -39,6 +42,7 @@ public class GRPCRemoteClientTestCase {
     private final int nextWorkerId = 1;
     private ModuleManagerTesting moduleManager;
     private StreamDataClassGetter classGetter;
+    private TestWorker worker;
     @Rule public final GrpcServerRule grpcServerRule = new GrpcServerRule().directExecutor();
 
     @Before
@@ -50,16 +54,16 @@ public class GRPCRemoteClientTestCase {
         classGetter = mock(StreamDataClassGetter.class);
         moduleDefine.provider().registerServiceImplementation(StreamDataClassGetter.class, classGetter);
 
-        TestWorker worker = new TestWorker(nextWorkerId);
+        worker = new TestWorker(nextWorkerId);
         WorkerInstances.INSTANCES.put(nextWorkerId, worker);
     }
 
     @Test
     public void testPush() throws InterruptedException {
-        grpcServerRule.getServiceRegistry().addService(new RemoteServiceHandler(moduleManager));
+        grpcServerRule.getServiceRegistry().addService(new RemoteServiceHandler(moduleManager, 1));
 
         Address address = new Address("not-important", 11, false);
-        GRPCRemoteClient remoteClient = spy(new GRPCRemoteClient(classGetter, address, 1, 10));
+        GRPCRemoteClient remoteClient = spy(new GRPCRemoteClient(classGetter, address, 1, 10, false));
         remoteClient.connect();
 
         doReturn(grpcServerRule.getChannel()).when(remoteClient).getChannel();
@@ -68,12 +72,87 @@ public class GRPCRemoteClientTestCase {
 
         Class<?> dataClass = TestStreamData.class;
         when(classGetter.findClassById(1)).thenReturn((Class<StreamData>)dataClass);
+        when(classGetter.findFactoryById(1)).thenReturn(TestStreamData::new);
 
         for (int i = 0; i < 12; i++) {
             remoteClient.push(nextWorkerId, new TestStreamData());
         }
 
         TimeUnit.SECONDS.sleep(1);
+
+        Assert.assertEquals(12, worker.received.get());
+
+        remoteClient.close();
+    }
+
+    @Test
+    public void testPushToPreviousVersion() throws InterruptedException {
+        RemoteServiceHandler handler = new RemoteServiceHandler(moduleManager, 1);
+        // The previous version serves the call only.
+        grpcServerRule.getServiceRegistry().addService(new RemoteServiceGrpc.RemoteServiceImplBase() {
+            @Override public StreamObserver<RemoteMessage> call(StreamObserver<Empty> responseObserver) {
+                return handler.call(responseObserver);
+            }
+        });
+
+        Address address = new Address("not-important", 11, false);
+        GRPCRemoteClient remoteClient = spy(new GRPCRemoteClient(classGetter, address, 1, 10, false));
+        remoteClient.connect();
+
+        doReturn(grpcServerRule.getChannel()).when(remoteClient).getChannel();
+
+        when(classGetter.findIdByClass(TestStreamData.class)).thenReturn(1);
+        when(classGetter.findFactoryById(1)).thenReturn(TestStreamData::new);
+
+        for (int i = 0; i < 12; i++) {
+            remoteClient.push(nextWorkerId, new TestStreamData());
+        }
+
+        TimeUnit.SECONDS.sleep(1);
+
+        Assert.assertEquals(12, worker.received.get());
+
+        remoteClient.close();
+    }
+
+    @Test
+    public void testToPreviousVersion() {
+        List<GRPCRemoteClient.RemoteItem> remoteItems = new ArrayList<>();
+        remoteItems.add(new GRPCRemoteClient.RemoteItem(1, 1, RemoteData.newBuilder().addDataStrings("entity").addDataIntLongPairLists(IntKeyLongValuePairList.newBuilder().addKeys(1).addValues(2).addKeys(5).addValues(1))));
+
+        List<RemoteMessage> remoteMessages = GRPCRemoteClient.toPreviousVersion(GRPCRemoteClient.buildBatch(remoteItems));
+        Assert.assertEquals(1, remoteMessages.size());
+        Assert.assertEquals(1, remoteMessages.get(0).getNextWorkerId());
+
+        RemoteData remoteData = remoteMessages.get(0).getRemoteData();
+        Assert.assertEquals(0, remoteData.getDataStringIndexesCount());
+        Assert.assertEquals("entity", remoteData.getDataStrings(0));
+        Assert.assertEquals(0, remoteData.getDataIntLongPairListsCount());
+        Assert.assertEquals(2, remoteData.getDataIntLongPairListCount());
+        Assert.assertEquals(5, remoteData.getDataIntLongPairList(1).getKey());
+        Assert.assertEquals(1, remoteData.getDataIntLongPairList(1).getValue());
+    }
+
+    @Test
+    public void testBuildBatch() {
+        List<GRPCRemoteClient.RemoteItem> remoteItems = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            remoteItems.add(new GRPCRemoteClient.RemoteItem(i % 2, 1, RemoteData.newBuilder().addDataStrings("entity-" + i % 3).addDataLongs(i)));
+        }
+
+        RemoteMessageBatch batch = GRPCRemoteClient.buildBatch(remoteItems);
+
+        Assert.assertEquals(2, batch.getGroupsCount());
+        Assert.assertEquals(0, batch.getGroups(0).getNextWorkerId());
+        Assert.assertEquals(3, batch.getGroups(0).getRemoteDataCount());
+        Assert.assertEquals(4, batch.getGroups(0).getRemoteData(2).getDataLongs(0));
+        Assert.assertEquals(1, batch.getGroups(1).getNextWorkerId());
+        Assert.assertEquals(3, batch.getGroups(1).getRemoteDataCount());
+
+        Assert.assertEquals(3, batch.getStringDictionaryCount());
+        RemoteData remoteData = batch.getGroups(1).getRemoteData(2);
+        Assert.assertEquals(0, remoteData.getDataStringsCount());
+        Assert.assertEquals("entity-2", batch.getStringDictionary(remoteData.getDataStringIndexes(0)));
     }
 
     public static class TestStreamData extends StreamData {
@@ -96,6 +175,7 @@ public class GRPCRemoteClientTestCase {
     }
 
     class TestWorker extends AbstractWorker {
+        private final AtomicInteger received = new AtomicInteger(0);
 
         public TestWorker(int workerId) {
             super(workerId);
@@ -104,6 +184,7 @@ public class GRPCRemoteClientTestCase {
         @Override public void in(Object o) {
             TestStreamData streamData = (TestStreamData)o;
             Assert.assertEquals(987, streamData.value);
+            received.incrementAndGet();
         }
     }
 }
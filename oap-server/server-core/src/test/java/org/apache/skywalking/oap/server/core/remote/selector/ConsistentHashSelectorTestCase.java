@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.apache.skywalking.oap.server.core.remote.selector;
+
+import java.util.*;
+import org.apache.skywalking.oap.server.core.remote.client.*;
+import org.apache.skywalking.oap.server.core.remote.data.StreamData;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.junit.*;
+
+public class ConsistentHashSelectorTestCase {
+
+    private final ConsistentHashSelector selector = new ConsistentHashSelector();
+
+    @Test
+    public void testScaleOut() {
+        List<RemoteClient> clients = clients(5);
+        Map<Integer, RemoteClient> before = selectAll(clients);
+
+        List<RemoteClient> scaled = clients(6);
+        Map<Integer, RemoteClient> after = selectAll(scaled);
+
+        int moved = 0;
+        for (Map.Entry<Integer, RemoteClient> entry : before.entrySet()) {
+            RemoteClient selected = after.get(entry.getKey());
+            if (!selected.getAddress().equals(entry.getValue().getAddress())) {
+                // Only move to the new client.
+                Assert.assertEquals(scaled.get(5).getAddress(), selected.getAddress());
+                moved++;
+            }
+        }
+
+        // About 1/6 of the stream data move, HashCodeSelector moves about 5/6 of them.
+        Assert.assertTrue(moved > 1000 && moved < 2500);
+    }
+
+    @Test
+    public void testScaleIn() {
+        List<RemoteClient> clients = clients(5);
+        Map<Integer, RemoteClient> before = selectAll(clients);
+
+        RemoteClient left = clients.remove(2);
+        Map<Integer, RemoteClient> after = selectAll(clients);
+
+        for (Map.Entry<Integer, RemoteClient> entry : before.entrySet()) {
+            if (entry.getValue() != left) {
+                Assert.assertSame(entry.getValue(), after.get(entry.getKey()));
+            } else {
+                Assert.assertNotSame(left, after.get(entry.getKey()));
+            }
+        }
+    }
+
+    private List<RemoteClient> clients(int size) {
+        List<RemoteClient> clients = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            clients.add(new SelfRemoteClient(new Address("10.0.0." + i, 11800, false)));
+        }
+        return clients;
+    }
+
+    private Map<Integer, RemoteClient> selectAll(List<RemoteClient> clients) {
+        Map<Integer, RemoteClient> selected = new HashMap<>();
+        for (int i = 0; i < 10000; i++) {
+            selected.put(i, selector.select(clients, new TestStreamData(i)));
+        }
+        return selected;
+    }
+
+    private static class TestStreamData extends StreamData {
+        private final int remoteHashCode;
+
+        private TestStreamData(int remoteHashCode) {
+            this.remoteHashCode = remoteHashCode;
+        }
+
+        @Override public int remoteHashCode() {
+            return remoteHashCode;
+        }
+
+        @Override public void deserialize(RemoteData remoteData) {
+        }
+
+        @Override public RemoteData.Builder serialize() {
+            return null;
+        }
+    }
+}
@@ -18,7 +18,10 @@
 
 package org.apache.skywalking.oap.server.library.buffer;
 
+import java.io.*;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
+import java.util.zip.CRC32;
 
 /**
  * This class is a util for sort or build file name for the gRPC streaming data.
@@ -31,22 +34,59 @@ class BufferFileUtils {
     private BufferFileUtils() {
     }
 
-    static final String CHARSET = "UTF-8";
     static final String DATA_FILE_PREFIX = "data";
     static final String OFFSET_FILE_PREFIX = "offset";
+    /**
+     * The head of the data files whose messages are followed by their CRC32, the data files without it are written by
+     * the previous versions, and have no checksum.
+     */
+    static final byte[] DATA_FILE_HEADER = {0, 'S', 'W', 1};
+    static final int CHECKSUM_SIZE = 4;
     private static final String SEPARATOR = "-";
     private static final String SUFFIX = ".sw";
 
     static void sort(String[] fileList) {
-        Arrays.sort(fileList, (f1, f2) -> {
-            long t1 = Long.parseLong(f1.substring(0, f1.length() - 3).split(SEPARATOR)[1]);
-            long t2 = Long.parseLong(f2.substring(0, f2.length() - 3).split(SEPARATOR)[1]);
-
-            return (int)(t1 - t2);
-        });
+        Arrays.sort(fileList, (f1, f2) -> Long.compare(getTimestamp(f1), getTimestamp(f2)));
     }
 
     static String buildFileName(String prefix) {
-        return prefix + SEPARATOR + System.currentTimeMillis() + SUFFIX;
+        return buildFileName(prefix, System.currentTimeMillis());
+    }
+
+    static String buildFileName(String prefix, long timestamp) {
+        return prefix + SEPARATOR + timestamp + SUFFIX;
+    }
+
+    static int checksum(ByteBuffer data) {
+        CRC32 crc32 = new CRC32();
+        crc32.update(data);
+        return (int)crc32.getValue();
+    }
+
+    static boolean hasDataFileHeader(ByteBuffer data) {
+        if (data.remaining() < DATA_FILE_HEADER.length) {
+            return false;
+        }
+        for (int i = 0; i < DATA_FILE_HEADER.length; i++) {
+            if (data.get(data.position() + i) != DATA_FILE_HEADER[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static boolean hasDataFileHeader(File dataFile) throws IOException {
+        byte[] header = new byte[DATA_FILE_HEADER.length];
+        try (RandomAccessFile file = new RandomAccessFile(dataFile, "r")) {
+            if (file.length() < header.length) {
+                return false;
+            }
+            file.readFully(header);
+        }
+        return hasDataFileHeader(ByteBuffer.wrap(header));
+    }
+
+    static long getTimestamp(String fileName) {
+        return Long.parseLong(fileName.substring(0, fileName.length() - SUFFIX.length()).split(SEPARATOR)[1]);
     }
 }
\ No newline at end of file
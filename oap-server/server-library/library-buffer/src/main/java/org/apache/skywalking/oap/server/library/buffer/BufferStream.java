@@ -35,16 +35,21 @@ public class BufferStream<MESSAGE_TYPE extends GeneratedMessageV3> {
     private final boolean cleanWhenRestart;
     private final int dataFileMaxSize;
     private final int offsetFileMaxSize;
+    private final int forcePeriod;
+    private final int replayThreads;
     private final Parser<MESSAGE_TYPE> parser;
     private final DataStreamReader.CallBack<MESSAGE_TYPE> callBack;
-    private DataStream<MESSAGE_TYPE> dataStream;
+    private volatile DataStream<MESSAGE_TYPE> dataStream;
 
     private BufferStream(String absolutePath, boolean cleanWhenRestart, int dataFileMaxSize, int offsetFileMaxSize,
-        Parser<MESSAGE_TYPE> parser, DataStreamReader.CallBack<MESSAGE_TYPE> callBack) {
+        int forcePeriod, int replayThreads, Parser<MESSAGE_TYPE> parser,
+        DataStreamReader.CallBack<MESSAGE_TYPE> callBack) {
         this.absolutePath = absolutePath;
         this.cleanWhenRestart = cleanWhenRestart;
         this.dataFileMaxSize = dataFileMaxSize;
         this.offsetFileMaxSize = offsetFileMaxSize;
+        this.forcePeriod = forcePeriod;
+        this.replayThreads = replayThreads;
         this.parser = parser;
         this.callBack = callBack;
     }
@@ -54,7 +59,7 @@ public class BufferStream<MESSAGE_TYPE extends GeneratedMessageV3> {
         FileUtils.forceMkdir(directory);
         tryLock(directory);
 
-        dataStream = new DataStream<>(directory, dataFileMaxSize, offsetFileMaxSize, parser, callBack);
+        dataStream = new DataStream<>(directory, dataFileMaxSize, offsetFileMaxSize, forcePeriod, replayThreads, parser, callBack);
 
         if (cleanWhenRestart) {
             dataStream.clean();
@@ -63,7 +68,7 @@ public class BufferStream<MESSAGE_TYPE extends GeneratedMessageV3> {
         dataStream.initialize();
     }
 
-    public synchronized void write(AbstractMessageLite messageLite) {
+    public void write(AbstractMessageLite messageLite) {
         dataStream.getWriter().write(messageLite);
     }
 
@@ -90,6 +95,8 @@ public class BufferStream<MESSAGE_TYPE extends GeneratedMessageV3> {
         private boolean cleanWhenRestart;
         private int dataFileMaxSize;
         private int offsetFileMaxSize;
+        private int forcePeriod;
+        private int replayThreads;
         private Parser<MESSAGE_TYPE> parser;
         private DataStreamReader.CallBack<MESSAGE_TYPE> callBack;
 
@@ -98,7 +105,7 @@ public class BufferStream<MESSAGE_TYPE extends GeneratedMessageV3> {
         }
 
         public BufferStream<MESSAGE_TYPE> build() {
-            return new BufferStream<>(absolutePath, cleanWhenRestart, dataFileMaxSize, offsetFileMaxSize, parser, callBack);
+            return new BufferStream<>(absolutePath, cleanWhenRestart, dataFileMaxSize, offsetFileMaxSize, forcePeriod, replayThreads, parser, callBack);
         }
 
         public Builder<MESSAGE_TYPE> cleanWhenRestart(boolean cleanWhenRestart) {
@@ -116,6 +123,23 @@ public class BufferStream<MESSAGE_TYPE extends GeneratedMessageV3> {
             return this;
         }
 
+        /**
+         * @param forcePeriod seconds between forcing the written data to the disk, 0 leaves it to the operating system.
+         */
+        public Builder<MESSAGE_TYPE> forcePeriod(int forcePeriod) {
+            this.forcePeriod = forcePeriod;
+            return this;
+        }
+
+        /**
+         * @param replayThreads number of threads to replay the buffered messages, the processors number if not
+         * positive.
+         */
+        public Builder<MESSAGE_TYPE> replayThreads(int replayThreads) {
+            this.replayThreads = replayThreads;
+            return this;
+        }
+
         public Builder<MESSAGE_TYPE> parser(Parser<MESSAGE_TYPE> parser) {
             this.parser = parser;
             return this;
@@ -18,41 +18,81 @@
 
 package org.apache.skywalking.oap.server.library.buffer;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.protobuf.*;
 import java.io.*;
-import java.util.Objects;
+import java.nio.ByteBuffer;
+import java.util.*;
 import java.util.concurrent.*;
-import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.*;
 import org.apache.commons.io.filefilter.PrefixFileFilter;
 import org.apache.skywalking.apm.util.*;
 import org.slf4j.*;
 
 /**
+ * The reader reads the messages in batches and replays each batch by multiple threads, the read offset moves to the
+ * end of a batch after all the messages in it are replayed.
+ *
+ * A message which the call back refuses, e.g. its ids are not registered yet, is moved to a retry queue and replayed
+ * again with the following batches after a delay, so it doesn't block the others. It is discarded after {@link
+ * #MAX_RETRY_TIMES} retries. The messages waiting for retry are kept in memory only, the reader stops reading ahead
+ * when there are {@link #MAX_RETRY_MESSAGES} of them, until they are replayed or discarded.
+ *
+ * The read offset, which is checkpointed, doesn't move past the earliest message waiting for retry, and the file isn't
+ * deleted until none of its messages waits for retry, so they are read again after a restart. The messages replayed
+ * after that offset are replayed again too, the replay is at least once.
+ *
  * @author peng-yongsheng
  */
 public class DataStreamReader<MESSAGE_TYPE extends GeneratedMessageV3> {
 
     private static final Logger logger = LoggerFactory.getLogger(DataStreamReader.class);
 
+    private static final int BATCH_SIZE = 1000;
+    private static final int MAX_RETRY_TIMES = 10;
+    private static final long RETRY_DELAY = 500;
+    private static final int MAX_RETRY_MESSAGES = 10 * BATCH_SIZE;
+
     private final File directory;
     private final Offset.ReadOffset readOffset;
     private final Parser<MESSAGE_TYPE> parser;
     private final CallBack<MESSAGE_TYPE> callBack;
+    private final int replayThreads;
+    private final DelayQueue<Replay> retryQueue;
+    private ExecutorService replayExecutor;
     private File readingFile;
-    private InputStream inputStream;
+    private DataInputStream inputStream;
+    /**
+     * The offset of the input stream in the reading file, ahead of the read offset while messages wait for retry.
+     */
+    private long position;
+    /**
+     * The reading file has the checksums of the messages, see {@link DataStreamWriter}.
+     */
+    private boolean checksummed;
+    /**
+     * The input stream isn't at the read offset, since the broken data have been skipped.
+     */
+    private boolean skipped;
 
     DataStreamReader(File directory, Offset.ReadOffset readOffset, Parser<MESSAGE_TYPE> parser,
-        CallBack<MESSAGE_TYPE> callBack) {
+        CallBack<MESSAGE_TYPE> callBack, int replayThreads) {
         this.directory = directory;
         this.readOffset = readOffset;
         this.parser = parser;
         this.callBack = callBack;
+        this.replayThreads = replayThreads > 0 ? replayThreads : Runtime.getRuntime().availableProcessors();
+        this.retryQueue = new DelayQueue<>();
     }
 
     void initialize() {
         preRead();
 
-        Executors.newSingleThreadScheduledExecutor().scheduleWithFixedDelay(
+        replayExecutor = Executors.newFixedThreadPool(replayThreads,
+            new ThreadFactoryBuilder().setNameFormat("BufferDataReplay-%d").setDaemon(true).build());
+
+        Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("BufferDataRead-%d").setDaemon(true).build()).scheduleWithFixedDelay(
             new RunnableWithExceptionProtection(this::read,
                 t -> logger.error("Buffer data pre read failure.", t)), 3, 1, TimeUnit.SECONDS);
     }
@@ -60,35 +100,48 @@ public class DataStreamReader<MESSAGE_TYPE extends GeneratedMessageV3> {
     private void preRead() {
         String fileName = readOffset.getFileName();
         if (StringUtil.isEmpty(fileName)) {
-            openInputStream(readEarliestDataFile());
+            openInputStream(readEarliestDataFile(), 0);
         } else {
             File readingFile = new File(directory, fileName);
             if (readingFile.exists()) {
-                openInputStream(readingFile);
-                try {
-                    inputStream.skip(readOffset.getOffset());
-                } catch (IOException e) {
-                    logger.error(e.getMessage(), e);
-                }
+                openInputStream(readingFile, readOffset.getOffset());
             } else {
-                openInputStream(readEarliestDataFile());
+                openInputStream(readEarliestDataFile(), 0);
             }
         }
     }
 
-    private void openInputStream(File readingFile) {
+    /**
+     * Open the file at the given offset, which is moved after the header of the file if before it.
+     */
+    private void openInputStream(File readingFile, long offset) {
         try {
             this.readingFile = readingFile;
             if (Objects.nonNull(inputStream)) {
                 inputStream.close();
             }
 
-            inputStream = new FileInputStream(readingFile);
+            checksummed = BufferFileUtils.hasDataFileHeader(readingFile);
+            position = checksummed ? Math.max(offset, BufferFileUtils.DATA_FILE_HEADER.length) : offset;
+            inputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(readingFile)));
+            IOUtils.skipFully(inputStream, position);
+            checkpoint();
         } catch (IOException e) {
             logger.error(e.getMessage(), e);
         }
     }
 
+    /**
+     * Move the read offset to the position, or to the earliest message waiting for retry if there is one.
+     */
+    private void checkpoint() {
+        long offset = position;
+        for (Replay replay : retryQueue) {
+            offset = Math.min(offset, replay.offset);
+        }
+        readOffset.setOffset(offset);
+    }
+
     private File readEarliestDataFile() {
         String[] fileNames = directory.list(new PrefixFileFilter(BufferFileUtils.DATA_FILE_PREFIX));
 
@@ -107,36 +160,154 @@ public class DataStreamReader<MESSAGE_TYPE extends GeneratedMessageV3> {
             logger.debug("Read buffer data");
         }
 
+        long startTime = System.currentTimeMillis();
+        int replayed = 0;
         try {
-            if (readOffset.getOffset() == readingFile.length() && !readOffset.isCurrentWriteFile()) {
-                FileUtils.forceDelete(readingFile);
-                openInputStream(readEarliestDataFile());
-            }
+            while (true) {
+                if (position == readingFile.length() && !readOffset.isCurrentWriteFile() && retryQueue.isEmpty()) {
+                    FileUtils.forceDelete(readingFile);
+                    openInputStream(readEarliestDataFile(), 0);
+                }
+
+                List<Replay> replays = new ArrayList<>();
+                retryQueue.drainTo(replays);
+                long batchEndOffset = retryQueue.size() + replays.size() < MAX_RETRY_MESSAGES ? readBatch(replays) : position;
+                if (replays.isEmpty() && batchEndOffset == position) {
+                    break;
+                }
 
-            while (readOffset.getOffset() < readingFile.length()) {
-
-                MESSAGE_TYPE messageType = parser.parseDelimitedFrom(inputStream);
-                if (messageType != null) {
-                    int i = 0;
-                    while (!callBack.call(messageType)) {
-                        try {
-                            TimeUnit.MILLISECONDS.sleep(500);
-                        } catch (InterruptedException e) {
-                            logger.error(e.getMessage());
-                        }
-
-                        i++;
-                        if (i == 10) {
-                            break;
-                        }
+                for (Future<Boolean> result : replayExecutor.invokeAll(replays)) {
+                    if (result.get()) {
+                        replayed++;
                     }
-                    final int serialized = messageType.getSerializedSize();
-                    final int offset = CodedOutputStream.computeUInt32SizeNoTag(serialized) + serialized;
-                    readOffset.setOffset(readOffset.getOffset() + offset);
+                }
+                position = batchEndOffset;
+                if (skipped) {
+                    skipped = false;
+                    openInputStream(readingFile, position);
+                } else {
+                    checkpoint();
                 }
             }
-        } catch (IOException e) {
+        } catch (IOException | ExecutionException e) {
             logger.error(e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (replayed > 0) {
+            logger.info("Replayed {} buffered messages in {} ms, {} messages are waiting for retry.", replayed, System.currentTimeMillis() - startTime, retryQueue.size());
+        }
+    }
+
+    /**
+     * @return the offset of the end of the batch, which is ahead of the position until the batch is replayed.
+     */
+    private long readBatch(List<Replay> replays) throws IOException {
+        long offset = position;
+        long readLimit = readOffset.getReadLimit(readingFile.length());
+
+        int count = 0;
+        while (offset < readLimit && count < BATCH_SIZE) {
+            if (checksummed) {
+                int firstByte = inputStream.read();
+                if (firstByte == -1) {
+                    break;
+                }
+                int size;
+                try {
+                    size = CodedInputStream.readRawVarint32(firstByte, inputStream);
+                } catch (InvalidProtocolBufferException e) {
+                    return skipBrokenData(offset, readLimit);
+                }
+                if (size == 0) {
+                    return readingFile.length();
+                }
+
+                long recordEndOffset = offset + CodedOutputStream.computeUInt32SizeNoTag(size) + size + BufferFileUtils.CHECKSUM_SIZE;
+                if (size < 0 || recordEndOffset > readLimit) {
+                    return skipBrokenData(offset, readLimit);
+                }
+                byte[] data = new byte[size];
+                inputStream.readFully(data);
+                if (BufferFileUtils.checksum(ByteBuffer.wrap(data)) != inputStream.readInt()) {
+                    return skipBrokenData(offset, readLimit);
+                }
+
+                replays.add(new Replay(parser.parseFrom(data), offset));
+                offset = recordEndOffset;
+                count++;
+                continue;
+            }
+
+            MESSAGE_TYPE message = parser.parseDelimitedFrom(inputStream);
+            if (message == null) {
+                break;
+            }
+
+            final int serialized = message.getSerializedSize();
+            if (serialized == 0) {
+                /*
+                 * The zero length message is the preallocated space after the data of a full file.
+                 */
+                return readingFile.length();
+            }
+            replays.add(new Replay(message, offset));
+            offset += CodedOutputStream.computeUInt32SizeNoTag(serialized) + serialized;
+            count++;
+        }
+        return offset;
+    }
+
+    /**
+     * The data after a message torn by a crash are skipped, to the end of the file, or to the write offset if it is the
+     * current write file.
+     */
+    private long skipBrokenData(long offset, long readLimit) {
+        logger.warn("The buffer data file {} is broken after offset {}, skip to {}.", readingFile.getName(), offset, readLimit);
+        skipped = true;
+        return readLimit;
+    }
+
+    private class Replay implements Callable<Boolean>, Delayed {
+        private final MESSAGE_TYPE message;
+        /**
+         * The offset of the message in the reading file.
+         */
+        private final long offset;
+        private int retryTimes = 0;
+        private long retryTime;
+
+        private Replay(MESSAGE_TYPE message, long offset) {
+            this.message = message;
+            this.offset = offset;
+        }
+
+        @Override public Boolean call() {
+            try {
+                if (callBack.call(message)) {
+                    return true;
+                }
+            } catch (Throwable t) {
+                logger.error(t.getMessage(), t);
+            }
+
+            if (retryTimes < MAX_RETRY_TIMES) {
+                retryTimes++;
+                retryTime = System.currentTimeMillis() + RETRY_DELAY;
+                retryQueue.add(this);
+            } else {
+                logger.warn("Discard the buffered message after {} retries.", MAX_RETRY_TIMES);
+            }
+            return false;
+        }
+
+        @Override public long getDelay(TimeUnit unit) {
+            return unit.convert(retryTime - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override public int compareTo(Delayed o) {
+            return Long.compare(getDelay(TimeUnit.MILLISECONDS), o.getDelay(TimeUnit.MILLISECONDS));
         }
     }
 
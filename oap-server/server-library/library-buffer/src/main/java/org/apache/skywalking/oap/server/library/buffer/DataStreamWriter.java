@@ -20,28 +20,48 @@ package org.apache.skywalking.oap.server.library.buffer;
 
 import com.google.protobuf.*;
 import java.io.*;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.*;
 import org.apache.commons.io.FileUtils;
-import org.apache.skywalking.apm.util.StringUtil;
+import org.apache.skywalking.apm.util.*;
 import org.slf4j.*;
 
 /**
+ * Messages are appended, length delimited and followed by their CRC32, to data files which are preallocated to the max
+ * size and memory mapped, so a write is a copy into the page cache without any system call. The preallocated bytes are
+ * zero, a zero length marks the end of the data in a file, so empty messages are not written. A message torn by a
+ * crash fails its checksum, the data of the file ends before it.
+ *
+ * The data files start with {@link BufferFileUtils#DATA_FILE_HEADER}. A write file of the previous version, which has
+ * no header and no checksums, isn't appended to, the writer starts a new file, the reader reads it as before.
+ *
+ * The mapped data files are forced to the disk when they are full, and every force period when it is greater than
+ * zero, which commits all the messages written in the period at once.
+ *
  * @author peng-yongsheng
  */
 class DataStreamWriter<MESSAGE_TYPE extends GeneratedMessageV3> {
 
     private static final Logger logger = LoggerFactory.getLogger(DataStreamWriter.class);
 
+    private static final Unmapper UNMAPPER = findUnmapper();
+
     private final File directory;
     private final Offset.WriteOffset writeOffset;
 
     private final int dataFileMaxSize;
+    private final int forcePeriod;
 
     private boolean initialized = false;
-    private FileOutputStream outputStream;
+    private MappedByteBuffer mappedBuffer;
 
-    DataStreamWriter(File directory, Offset.WriteOffset writeOffset, int dataFileMaxSize) {
+    DataStreamWriter(File directory, Offset.WriteOffset writeOffset, int dataFileMaxSize, int forcePeriod) {
         this.directory = directory;
         this.dataFileMaxSize = dataFileMaxSize;
+        this.forcePeriod = forcePeriod;
         this.writeOffset = writeOffset;
     }
 
@@ -54,26 +74,53 @@ class DataStreamWriter<MESSAGE_TYPE extends GeneratedMessageV3> {
                 writingFile = createNewFile();
             } else {
                 writingFile = new File(directory, writeFileName);
-                if (!writingFile.exists()) {
+                if (!writingFile.exists() || isPreviousVersion(writingFile)) {
                     writingFile = createNewFile();
                 }
             }
 
-            outputStream = FileUtils.openOutputStream(writingFile, true);
+            mappedBuffer = map(writingFile);
+            if (BufferFileUtils.hasDataFileHeader(mappedBuffer)) {
+                mappedBuffer.position(recoverPosition(mappedBuffer));
+            } else {
+                mappedBuffer.put(BufferFileUtils.DATA_FILE_HEADER);
+            }
+            writeOffset.setOffset(mappedBuffer.position());
             initialized = true;
+
+            if (forcePeriod > 0) {
+                Executors.newSingleThreadScheduledExecutor().scheduleAtFixedRate(
+                    new RunnableWithExceptionProtection(this::force,
+                        t -> logger.error("Force buffer data file in background failure.", t)
+                    ), forcePeriod, forcePeriod, TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    /**
+     * @return true if the file has the data without the header written by the previous version.
+     */
+    private static boolean isPreviousVersion(File writingFile) throws IOException {
+        if (writingFile.length() == 0 || BufferFileUtils.hasDataFileHeader(writingFile)) {
+            return false;
+        }
+        try (InputStream input = new FileInputStream(writingFile)) {
+            return input.read() > 0;
         }
     }
 
+    /**
+     * A full file could be created in the same millisecond as the next one, the timestamp in the name is increased
+     * until the name is unique.
+     */
     private File createNewFile() throws IOException {
-        String fileName = BufferFileUtils.buildFileName(BufferFileUtils.DATA_FILE_PREFIX);
-        File writingFile = new File(directory, fileName);
-
-        boolean created = writingFile.createNewFile();
-        if (!created) {
-            logger.info("The file named {} already exists.", writingFile.getAbsolutePath());
-        } else {
-            logger.info("Create a new buffer data file: {}", writingFile.getAbsolutePath());
+        long timestamp = System.currentTimeMillis();
+        File writingFile = new File(directory, BufferFileUtils.buildFileName(BufferFileUtils.DATA_FILE_PREFIX, timestamp));
+        while (!writingFile.createNewFile()) {
+            timestamp++;
+            writingFile = new File(directory, BufferFileUtils.buildFileName(BufferFileUtils.DATA_FILE_PREFIX, timestamp));
         }
+        logger.info("Create a new buffer data file: {}", writingFile.getAbsolutePath());
 
         writeOffset.setOffset(0);
         writeOffset.setFileName(writingFile.getName());
@@ -81,18 +128,139 @@ class DataStreamWriter<MESSAGE_TYPE extends GeneratedMessageV3> {
         return writingFile;
     }
 
+    private MappedByteBuffer map(File writingFile) throws IOException {
+        long size = Math.max(FileUtils.ONE_MB * dataFileMaxSize, writingFile.length());
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("The buffer data file size must be less than 2048 MB, file: " + writingFile.getAbsolutePath());
+        }
+
+        try (RandomAccessFile file = new RandomAccessFile(writingFile, "rw")) {
+            file.setLength(size);
+            return file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    /**
+     * Find the end of the data by skipping the messages from the header of the file, the checkpointed write offset may
+     * be stale or ahead of the data flushed to the disk. The data ends before the message torn by a crash.
+     */
+    private int recoverPosition(MappedByteBuffer buffer) {
+        ByteBuffer data = buffer.duplicate();
+        int position = BufferFileUtils.DATA_FILE_HEADER.length;
+        data.position(position);
+        while (data.hasRemaining()) {
+            int size = readRawVarint32(data);
+            if (size <= 0 || size + BufferFileUtils.CHECKSUM_SIZE > data.remaining()) {
+                break;
+            }
+
+            ByteBuffer message = data.slice();
+            message.limit(size);
+            data.position(data.position() + size);
+            if (BufferFileUtils.checksum(message) != data.getInt()) {
+                logger.warn("The buffer data after offset {} is broken, discard it.", position);
+                break;
+            }
+            position = data.position();
+        }
+        return position;
+    }
+
+    private static int readRawVarint32(ByteBuffer data) {
+        int value = 0;
+        for (int shift = 0; shift < 32 && data.hasRemaining(); shift += 7) {
+            byte b = data.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        return -1;
+    }
+
     synchronized void write(AbstractMessageLite messageLite) {
         try {
-            messageLite.writeDelimitedTo(outputStream);
-            long position = outputStream.getChannel().position();
-            writeOffset.setOffset(position);
-            if (position >= (FileUtils.ONE_MB * dataFileMaxSize)) {
-                File writingFile = createNewFile();
-                outputStream.close();
-                outputStream = FileUtils.openOutputStream(writingFile, true);
+            int serializedSize = messageLite.getSerializedSize();
+            if (serializedSize == 0) {
+                return;
+            }
+
+            int recordSize = CodedOutputStream.computeUInt32SizeNoTag(serializedSize) + serializedSize + BufferFileUtils.CHECKSUM_SIZE;
+            if (recordSize > mappedBuffer.capacity() - BufferFileUtils.DATA_FILE_HEADER.length) {
+                logger.error("The message size {} is larger than the buffer data file size, discard it.", serializedSize);
+                return;
             }
+            if (recordSize > mappedBuffer.remaining()) {
+                MappedByteBuffer fullBuffer = mappedBuffer;
+                fullBuffer.force();
+                mappedBuffer = map(createNewFile());
+                mappedBuffer.put(BufferFileUtils.DATA_FILE_HEADER);
+                unmap(fullBuffer);
+            }
+
+            CodedOutputStream output = CodedOutputStream.newInstance(mappedBuffer);
+            output.writeUInt32NoTag(serializedSize);
+            output.flush();
+            ByteBuffer message = mappedBuffer.slice();
+            message.limit(serializedSize);
+            messageLite.writeTo(output);
+            output.flush();
+            mappedBuffer.putInt(BufferFileUtils.checksum(message));
+            writeOffset.setOffset(mappedBuffer.position());
         } catch (IOException e) {
             logger.error(e.getMessage(), e);
         }
     }
+
+    /**
+     * Writes wait for the force, so the file is never unmapped while it is being forced.
+     */
+    private synchronized void force() {
+        mappedBuffer.force();
+    }
+
+    /**
+     * Release the mapping of a full file at once, otherwise the disk space of the file is held after the reader deletes
+     * it until the buffer is garbage collected.
+     */
+    private static void unmap(MappedByteBuffer buffer) {
+        if (UNMAPPER == null) {
+            return;
+        }
+        try {
+            UNMAPPER.unmap(buffer);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            logger.warn("Unmap the buffer data file failure, it is released when the buffer is garbage collected.", e);
+        }
+    }
+
+    /**
+     * The mapping is released by sun.misc.Unsafe#invokeCleaner in Java 9 and later, the cleaner of the buffer is not
+     * accessible there, or by the cleaner in Java 8.
+     *
+     * @return null if neither is accessible, the mappings are released by the garbage collection then.
+     */
+    private static Unmapper findUnmapper() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            try {
+                Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+                Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+                theUnsafe.setAccessible(true);
+                Object unsafe = theUnsafe.get(null);
+                return buffer -> invokeCleaner.invoke(unsafe, buffer);
+            } catch (NoSuchMethodException e) {
+                Method cleanerMethod = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+                Method cleanMethod = Class.forName("sun.misc.Cleaner").getMethod("clean");
+                return buffer -> cleanMethod.invoke(cleanerMethod.invoke(buffer));
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            logger.info("The buffer data files can't be unmapped at once, they are released by the garbage collection.");
+            return null;
+        }
+    }
+
+    private interface Unmapper {
+        void unmap(MappedByteBuffer buffer) throws ReflectiveOperationException;
+    }
 }
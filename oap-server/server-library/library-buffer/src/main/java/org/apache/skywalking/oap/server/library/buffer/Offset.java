@@ -18,15 +18,24 @@
 
 package org.apache.skywalking.oap.server.library.buffer;
 
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
 import lombok.*;
 import org.apache.skywalking.apm.util.StringUtil;
 
 /**
+ * The offsets are checkpointed as fixed size binary records, the timestamp in the name of the read file, the read
+ * offset, the timestamp in the name of the write file, the write offset and the CRC32 of them. The text lines written
+ * by the previous versions are still readable, see {@link #deserializeLegacy(String)}.
+ *
  * @author peng-yongsheng
  */
 class Offset {
 
-    private static final String SPLIT_CHARACTER = ",";
+    static final int RECORD_SIZE = 4 * 8 + 4;
+    private static final long NO_FILE = -1;
+    private static final String LEGACY_SPLIT_CHARACTER = ",";
+    private static final String LEGACY_NO_FILE = "null";
     @Getter private final ReadOffset readOffset;
     @Getter private final WriteOffset writeOffset;
 
@@ -35,21 +44,93 @@ class Offset {
         readOffset = new ReadOffset(writeOffset);
     }
 
-    String serialize() {
-        return readOffset.getFileName() + SPLIT_CHARACTER + String.valueOf(readOffset.getOffset())
-            + SPLIT_CHARACTER + writeOffset.getFileName() + SPLIT_CHARACTER + String.valueOf(writeOffset.getOffset());
+    byte[] serialize() {
+        ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+        record.putLong(toTimestamp(readOffset.getFileName()));
+        record.putLong(readOffset.getOffset());
+        record.putLong(toTimestamp(writeOffset.getFileName()));
+        record.putLong(writeOffset.getOffset());
+        record.putInt(checksum(record.array()));
+        return record.array();
+    }
+
+    /**
+     * @return false if the record is broken, the offsets are not changed in that case.
+     */
+    boolean deserialize(byte[] value) {
+        if (value == null || value.length != RECORD_SIZE) {
+            return false;
+        }
+
+        ByteBuffer record = ByteBuffer.wrap(value);
+        String readFileName = toFileName(record.getLong());
+        long readFileOffset = record.getLong();
+        String writeFileName = toFileName(record.getLong());
+        long writeFileOffset = record.getLong();
+        if (record.getInt() != checksum(value)) {
+            return false;
+        }
+
+        readOffset.setFileName(readFileName);
+        readOffset.setOffset(readFileOffset);
+        writeOffset.setFileName(writeFileName);
+        writeOffset.setOffset(writeFileOffset);
+        return true;
+    }
+
+    /**
+     * Read the text line of the previous versions, "readFile,readOffset,writeFile,writeOffset".
+     *
+     * @return false if the line is broken, the offsets are not changed in that case.
+     */
+    boolean deserializeLegacy(String value) {
+        if (StringUtil.isEmpty(value)) {
+            return false;
+        }
+
+        String[] values = value.trim().split(LEGACY_SPLIT_CHARACTER);
+        if (values.length != 4) {
+            return false;
+        }
+        try {
+            String readFileName = toLegacyFileName(values[0]);
+            long readFileOffset = Long.parseLong(values[1]);
+            String writeFileName = toLegacyFileName(values[2]);
+            long writeFileOffset = Long.parseLong(values[3]);
+
+            readOffset.setFileName(readFileName);
+            readOffset.setOffset(readFileOffset);
+            writeOffset.setFileName(writeFileName);
+            writeOffset.setOffset(writeFileOffset);
+            return true;
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            return false;
+        }
     }
 
-    void deserialize(String value) {
-        if (!StringUtil.isEmpty(value)) {
-            String[] values = value.split(SPLIT_CHARACTER);
-            if (values.length == 4) {
-                readOffset.setFileName(values[0]);
-                readOffset.setOffset(Long.parseLong(values[1]));
-                writeOffset.setFileName(values[2]);
-                writeOffset.setOffset(Long.parseLong(values[3]));
-            }
+    /**
+     * Validate the file name by parsing its timestamp.
+     */
+    private static String toLegacyFileName(String fileName) {
+        if (StringUtil.isEmpty(fileName) || LEGACY_NO_FILE.equals(fileName)) {
+            return null;
         }
+        BufferFileUtils.getTimestamp(fileName);
+        return fileName;
+    }
+
+    private static int checksum(byte[] record) {
+        CRC32 crc32 = new CRC32();
+        crc32.update(record, 0, RECORD_SIZE - 4);
+        return (int)crc32.getValue();
+    }
+
+    private static long toTimestamp(String fileName) {
+        return StringUtil.isEmpty(fileName) ? NO_FILE : BufferFileUtils.getTimestamp(fileName);
+    }
+
+    private static String toFileName(long timestamp) {
+        return timestamp == NO_FILE ? null : BufferFileUtils.buildFileName(BufferFileUtils.DATA_FILE_PREFIX, timestamp);
     }
 
     static class ReadOffset {
@@ -64,10 +145,17 @@ class Offset {
         boolean isCurrentWriteFile() {
             return fileName.equals(writeOffset.fileName);
         }
+
+        /**
+         * The current write file is preallocated, its data ends at the write offset rather than the file length.
+         */
+        long getReadLimit(long fileLength) {
+            return isCurrentWriteFile() ? writeOffset.offset : fileLength;
+        }
     }
 
     static class WriteOffset {
-        @Getter @Setter private String fileName;
-        @Getter @Setter private long offset = 0;
+        @Getter @Setter private volatile String fileName;
+        @Getter @Setter private volatile long offset = 0;
     }
 }
@@ -19,12 +19,13 @@
 package org.apache.skywalking.oap.server.library.buffer;
 
 import java.io.*;
-import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.concurrent.*;
 import lombok.Getter;
-import org.apache.commons.io.*;
-import org.apache.commons.io.filefilter.PrefixFileFilter;
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.input.ReversedLinesFileReader;
+import org.apache.commons.io.filefilter.PrefixFileFilter;
 import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
 import org.slf4j.*;
 
@@ -41,7 +42,7 @@ class OffsetStream {
     @Getter private final Offset offset;
     private File offsetFile;
     private boolean initialized = false;
-    private String lastOffsetRecord = "";
+    private byte[] lastOffsetRecord;
 
     OffsetStream(File directory, int offsetFileMaxSize) {
         this.directory = directory;
@@ -71,7 +72,19 @@ class OffsetStream {
             } else {
                 offsetFile = newFile();
             }
-            offset.deserialize(readLastLine());
+            if (offset.deserialize(readLastRecord())) {
+                truncateBrokenRecord();
+            } else if (offsetFile.length() > 0) {
+                if (offset.deserializeLegacy(readLastLine())) {
+                    logger.info("Convert the offset file {} of the previous version to a new one.", offsetFile.getAbsolutePath());
+                } else {
+                    logger.warn("No valid offset record in the offset file {}, replace it with a new one.", offsetFile.getAbsolutePath());
+                }
+                File previousOffsetFile = offsetFile;
+                offsetFile = newFile();
+                FileUtils.forceDelete(previousOffsetFile);
+                flush();
+            }
             initialized = true;
 
             Executors.newSingleThreadScheduledExecutor().scheduleAtFixedRate(
@@ -83,16 +96,19 @@ class OffsetStream {
 
     void flush() {
         try {
-            String offsetRecord = offset.serialize();
-            if (!lastOffsetRecord.equals(offsetRecord)) {
-                logger.debug("flush offset, record: {}", offsetRecord);
+            byte[] offsetRecord = offset.serialize();
+            if (!Arrays.equals(lastOffsetRecord, offsetRecord)) {
+                if (logger.isDebugEnabled()) {
+                    logger.debug("flush offset, read file: {}, read offset: {}, write file: {}, write offset: {}",
+                        offset.getReadOffset().getFileName(), offset.getReadOffset().getOffset(),
+                        offset.getWriteOffset().getFileName(), offset.getWriteOffset().getOffset());
+                }
                 if (offsetFile.length() >= FileUtils.ONE_MB * offsetFileMaxSize) {
                     nextFile();
                 }
 
-                try (OutputStream out = new BufferedOutputStream(FileUtils.openOutputStream(offsetFile, true))) {
-                    IOUtils.write(offsetRecord, out, Charset.forName(BufferFileUtils.CHARSET));
-                    IOUtils.write(System.lineSeparator(), out, Charset.forName(BufferFileUtils.CHARSET));
+                try (OutputStream out = FileUtils.openOutputStream(offsetFile, true)) {
+                    out.write(offsetRecord);
                 }
                 lastOffsetRecord = offsetRecord;
             }
@@ -104,10 +120,9 @@ class OffsetStream {
     private void nextFile() throws IOException {
         File newOffsetFile = newFile();
         if (!offsetFile.delete()) {
-            logger.warn("Offset file {} delete failure.", newOffsetFile.getAbsolutePath());
+            logger.warn("Offset file {} delete failure.", offsetFile.getAbsolutePath());
         }
         offsetFile = newOffsetFile;
-        this.flush();
     }
 
     private File newFile() throws IOException {
@@ -119,8 +134,39 @@ class OffsetStream {
         return file;
     }
 
+    private byte[] readLastRecord() throws IOException {
+        long records = offsetFile.length() / Offset.RECORD_SIZE;
+        if (records == 0) {
+            return null;
+        }
+
+        byte[] record = new byte[Offset.RECORD_SIZE];
+        try (RandomAccessFile file = new RandomAccessFile(offsetFile, "r")) {
+            file.seek((records - 1) * Offset.RECORD_SIZE);
+            file.readFully(record);
+        }
+        return record;
+    }
+
     private String readLastLine() throws IOException {
-        ReversedLinesFileReader reader = new ReversedLinesFileReader(offsetFile, Charset.forName(BufferFileUtils.CHARSET));
-        return reader.readLine();
+        try (ReversedLinesFileReader reader = new ReversedLinesFileReader(offsetFile, StandardCharsets.UTF_8)) {
+            String line = reader.readLine();
+            while (line != null && line.trim().isEmpty()) {
+                line = reader.readLine();
+            }
+            return line;
+        }
+    }
+
+    /**
+     * Drop the tail of a record which was being appended when the process stopped, keep the records aligned.
+     */
+    private void truncateBrokenRecord() throws IOException {
+        long length = offsetFile.length();
+        if (length % Offset.RECORD_SIZE != 0) {
+            try (RandomAccessFile file = new RandomAccessFile(offsetFile, "rw")) {
+                file.setLength(length - length % Offset.RECORD_SIZE);
+            }
+        }
     }
 }
@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.library.buffer;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.skywalking.apm.network.language.agent.*;
+import org.junit.*;
+import org.junit.rules.TemporaryFolder;
+
+public class DataStreamReaderTestCase {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testRetryWithoutBlocking() throws IOException, InterruptedException {
+        File directory = temporaryFolder.getRoot();
+        Offset offset = new Offset();
+        DataStreamWriter<TraceSegmentObject> writer = new DataStreamWriter<>(directory, offset.getWriteOffset(), 1, 0);
+        writer.initialize();
+        for (int i = 1; i <= 5; i++) {
+            writer.write(TraceSegmentObject.newBuilder().addSpans(SpanObject.newBuilder().setSpanId(i)).build());
+        }
+
+        List<Integer> replayed = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger firstMessageCallTimes = new AtomicInteger();
+        CountDownLatch finished = new CountDownLatch(5);
+        DataStreamReader<TraceSegmentObject> reader = new DataStreamReader<>(directory, offset.getReadOffset(), TraceSegmentObject.parser(), message -> {
+            int spanId = message.getSpans(0).getSpanId();
+            if (spanId == 1 && firstMessageCallTimes.getAndIncrement() < 2) {
+                return false;
+            }
+            replayed.add(spanId);
+            finished.countDown();
+            return true;
+        }, 2);
+        reader.initialize();
+
+        Assert.assertTrue(finished.await(20, TimeUnit.SECONDS));
+        Assert.assertEquals(3, firstMessageCallTimes.get());
+        Assert.assertEquals(Integer.valueOf(1), replayed.get(4));
+        // The read offset moves after the retried message is replayed, when the replays of its batch finish.
+        long deadline = System.currentTimeMillis() + 5000;
+        while (offset.getReadOffset().getOffset() != offset.getWriteOffset().getOffset() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(offset.getWriteOffset().getOffset(), offset.getReadOffset().getOffset());
+    }
+
+    @Test
+    public void testStopReadingAheadWhenRetryQueueFull() throws IOException, InterruptedException {
+        File directory = temporaryFolder.getRoot();
+        Offset offset = new Offset();
+        DataStreamWriter<TraceSegmentObject> writer = new DataStreamWriter<>(directory, offset.getWriteOffset(), 10, 0);
+        writer.initialize();
+        for (int i = 1; i <= 10500; i++) {
+            writer.write(TraceSegmentObject.newBuilder().addSpans(SpanObject.newBuilder().setSpanId(i)).build());
+        }
+
+        Set<Integer> refused = ConcurrentHashMap.newKeySet();
+        DataStreamReader<TraceSegmentObject> reader = new DataStreamReader<>(directory, offset.getReadOffset(), TraceSegmentObject.parser(), message -> {
+            refused.add(message.getSpans(0).getSpanId());
+            return false;
+        }, 2);
+        reader.initialize();
+
+        long deadline = System.currentTimeMillis() + 20000;
+        while (refused.size() < 10000 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        Thread.sleep(1500);
+
+        Assert.assertEquals(10000, refused.size());
+        Assert.assertTrue(offset.getReadOffset().getOffset() < offset.getWriteOffset().getOffset());
+    }
+
+    @Test
+    public void testReadAgainWaitingForRetryAfterRestart() throws IOException, InterruptedException {
+        File directory = temporaryFolder.getRoot();
+        Offset offset = new Offset();
+        DataStreamWriter<TraceSegmentObject> writer = new DataStreamWriter<>(directory, offset.getWriteOffset(), 1, 0);
+        writer.initialize();
+        for (int i = 1; i <= 5; i++) {
+            writer.write(TraceSegmentObject.newBuilder().addSpans(SpanObject.newBuilder().setSpanId(i)).build());
+        }
+
+        Set<Integer> replayed = ConcurrentHashMap.newKeySet();
+        DataStreamReader<TraceSegmentObject> reader = new DataStreamReader<>(directory, offset.getReadOffset(), TraceSegmentObject.parser(), message -> {
+            int spanId = message.getSpans(0).getSpanId();
+            if (spanId == 3) {
+                return false;
+            }
+            replayed.add(spanId);
+            return true;
+        }, 2);
+        reader.initialize();
+        long initialOffset = offset.getReadOffset().getOffset();
+
+        long deadline = System.currentTimeMillis() + 20000;
+        while ((replayed.size() < 4 || offset.getReadOffset().getOffset() == initialOffset) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        Assert.assertTrue(offset.getReadOffset().getOffset() < offset.getWriteOffset().getOffset());
+
+        // Restart from the checkpointed offsets, while the third message is still waiting for retry.
+        Offset restarted = new Offset();
+        restarted.getReadOffset().setFileName(offset.getReadOffset().getFileName());
+        restarted.getReadOffset().setOffset(offset.getReadOffset().getOffset());
+        restarted.getWriteOffset().setFileName(offset.getWriteOffset().getFileName());
+        restarted.getWriteOffset().setOffset(offset.getWriteOffset().getOffset());
+
+        List<Integer> replayedAfterRestart = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch finished = new CountDownLatch(3);
+        DataStreamReader<TraceSegmentObject> restartedReader = new DataStreamReader<>(directory, restarted.getReadOffset(), TraceSegmentObject.parser(), message -> {
+            replayedAfterRestart.add(message.getSpans(0).getSpanId());
+            finished.countDown();
+            return true;
+        }, 1);
+        restartedReader.initialize();
+
+        Assert.assertTrue(finished.await(20, TimeUnit.SECONDS));
+        Assert.assertEquals(Arrays.asList(3, 4, 5), replayedAfterRestart);
+    }
+
+    @Test
+    public void testReadPreviousVersionFile() throws IOException, InterruptedException {
+        File directory = temporaryFolder.getRoot();
+        File previousFile = new File(directory, BufferFileUtils.buildFileName(BufferFileUtils.DATA_FILE_PREFIX, 1));
+        try (OutputStream output = new FileOutputStream(previousFile)) {
+            for (int i = 1; i <= 2; i++) {
+                TraceSegmentObject.newBuilder().addSpans(SpanObject.newBuilder().setSpanId(i)).build().writeDelimitedTo(output);
+            }
+        }
+
+        Offset offset = new Offset();
+        offset.getReadOffset().setFileName(previousFile.getName());
+        offset.getWriteOffset().setFileName(previousFile.getName());
+        offset.getWriteOffset().setOffset(previousFile.length());
+        DataStreamWriter<TraceSegmentObject> writer = new DataStreamWriter<>(directory, offset.getWriteOffset(), 1, 0);
+        writer.initialize();
+        writer.write(TraceSegmentObject.newBuilder().addSpans(SpanObject.newBuilder().setSpanId(3)).build());
+
+        List<Integer> replayed = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch finished = new CountDownLatch(3);
+        DataStreamReader<TraceSegmentObject> reader = new DataStreamReader<>(directory, offset.getReadOffset(), TraceSegmentObject.parser(), message -> {
+            replayed.add(message.getSpans(0).getSpanId());
+            finished.countDown();
+            return true;
+        }, 1);
+        reader.initialize();
+
+        Assert.assertTrue(finished.await(20, TimeUnit.SECONDS));
+        Assert.assertEquals(Arrays.asList(1, 2, 3), replayed);
+        Assert.assertFalse(previousFile.exists());
+    }
+}
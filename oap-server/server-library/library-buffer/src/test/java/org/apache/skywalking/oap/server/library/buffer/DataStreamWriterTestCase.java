@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.library.buffer;
+
+import com.google.protobuf.CodedOutputStream;
+import java.io.*;
+import java.nio.ByteBuffer;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.filefilter.PrefixFileFilter;
+import org.apache.skywalking.apm.network.language.agent.*;
+import org.junit.*;
+import org.junit.rules.TemporaryFolder;
+
+public class DataStreamWriterTestCase {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testWriteAndRecover() throws IOException {
+        File directory = temporaryFolder.getRoot();
+        Offset offset = new Offset();
+        DataStreamWriter<TraceSegmentObject> writer = new DataStreamWriter<>(directory, offset.getWriteOffset(), 1, 0);
+        writer.initialize();
+
+        TraceSegmentObject segment = buildSegment(10);
+        writer.write(segment);
+        writer.write(segment);
+        writer.write(TraceSegmentObject.getDefaultInstance());
+
+        long written = BufferFileUtils.DATA_FILE_HEADER.length + 2 * recordSize(segment);
+        Assert.assertEquals(written, offset.getWriteOffset().getOffset());
+        File writingFile = new File(directory, offset.getWriteOffset().getFileName());
+        Assert.assertEquals(FileUtils.ONE_MB, writingFile.length());
+
+        try (DataInputStream input = new DataInputStream(new FileInputStream(writingFile))) {
+            byte[] header = new byte[BufferFileUtils.DATA_FILE_HEADER.length];
+            input.readFully(header);
+            Assert.assertArrayEquals(BufferFileUtils.DATA_FILE_HEADER, header);
+            for (int i = 0; i < 2; i++) {
+                Assert.assertEquals(segment, TraceSegmentObject.parseDelimitedFrom(input));
+                Assert.assertEquals(BufferFileUtils.checksum(ByteBuffer.wrap(segment.toByteArray())), input.readInt());
+            }
+            Assert.assertEquals(0, TraceSegmentObject.parseDelimitedFrom(input).getSerializedSize());
+        }
+
+        Offset staleOffset = new Offset();
+        staleOffset.getWriteOffset().setFileName(writingFile.getName());
+        new DataStreamWriter<TraceSegmentObject>(directory, staleOffset.getWriteOffset(), 1, 0).initialize();
+        Assert.assertEquals(written, staleOffset.getWriteOffset().getOffset());
+    }
+
+    @Test
+    public void testNextFile() throws IOException {
+        File directory = temporaryFolder.getRoot();
+        Offset offset = new Offset();
+        DataStreamWriter<TraceSegmentObject> writer = new DataStreamWriter<>(directory, offset.getWriteOffset(), 1, 0);
+        writer.initialize();
+
+        TraceSegmentObject segment = buildSegment(1000);
+        String firstFileName = offset.getWriteOffset().getFileName();
+        while (firstFileName.equals(offset.getWriteOffset().getFileName())) {
+            writer.write(segment);
+        }
+
+        String[] fileNames = directory.list(new PrefixFileFilter(BufferFileUtils.DATA_FILE_PREFIX));
+        Assert.assertEquals(2, fileNames.length);
+        BufferFileUtils.sort(fileNames);
+        Assert.assertEquals(firstFileName, fileNames[0]);
+        Assert.assertEquals(BufferFileUtils.DATA_FILE_HEADER.length + recordSize(segment), offset.getWriteOffset().getOffset());
+    }
+
+    @Test
+    public void testRecoverBeforeTornMessage() throws IOException {
+        File directory = temporaryFolder.getRoot();
+        Offset offset = new Offset();
+        DataStreamWriter<TraceSegmentObject> writer = new DataStreamWriter<>(directory, offset.getWriteOffset(), 1, 0);
+        writer.initialize();
+
+        TraceSegmentObject segment = buildSegment(10);
+        writer.write(segment);
+        writer.write(segment);
+
+        File writingFile = new File(directory, offset.getWriteOffset().getFileName());
+        try (RandomAccessFile file = new RandomAccessFile(writingFile, "rw")) {
+            file.seek(offset.getWriteOffset().getOffset() - BufferFileUtils.CHECKSUM_SIZE - 1);
+            file.write('b');
+        }
+
+        Offset staleOffset = new Offset();
+        staleOffset.getWriteOffset().setFileName(writingFile.getName());
+        new DataStreamWriter<TraceSegmentObject>(directory, staleOffset.getWriteOffset(), 1, 0).initialize();
+        Assert.assertEquals(BufferFileUtils.DATA_FILE_HEADER.length + recordSize(segment), staleOffset.getWriteOffset().getOffset());
+    }
+
+    @Test
+    public void testNotAppendToPreviousVersionFile() throws IOException {
+        File directory = temporaryFolder.getRoot();
+        File previousFile = new File(directory, BufferFileUtils.buildFileName(BufferFileUtils.DATA_FILE_PREFIX, 1));
+        try (OutputStream output = new FileOutputStream(previousFile)) {
+            buildSegment(10).writeDelimitedTo(output);
+        }
+        long previousLength = previousFile.length();
+
+        Offset offset = new Offset();
+        offset.getWriteOffset().setFileName(previousFile.getName());
+        offset.getWriteOffset().setOffset(previousLength);
+        new DataStreamWriter<TraceSegmentObject>(directory, offset.getWriteOffset(), 1, 0).initialize();
+
+        Assert.assertNotEquals(previousFile.getName(), offset.getWriteOffset().getFileName());
+        Assert.assertEquals(BufferFileUtils.DATA_FILE_HEADER.length, offset.getWriteOffset().getOffset());
+        Assert.assertEquals(previousLength, previousFile.length());
+    }
+
+    private long recordSize(TraceSegmentObject segment) {
+        int serializedSize = segment.getSerializedSize();
+        return CodedOutputStream.computeUInt32SizeNoTag(serializedSize) + serializedSize + BufferFileUtils.CHECKSUM_SIZE;
+    }
+
+    private TraceSegmentObject buildSegment(int operationNameLength) {
+        StringBuilder operationName = new StringBuilder();
+        for (int i = 0; i < operationNameLength; i++) {
+            operationName.append('a');
+        }
+
+        TraceSegmentObject.Builder segment = TraceSegmentObject.newBuilder();
+        segment.addSpans(SpanObject.newBuilder().setSpanId(1).setOperationName(operationName.toString()));
+        return segment.build();
+    }
+}
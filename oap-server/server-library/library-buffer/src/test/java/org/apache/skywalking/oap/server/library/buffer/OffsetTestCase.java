@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.library.buffer;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import org.apache.commons.io.FileUtils;
+import org.junit.*;
+import org.junit.rules.TemporaryFolder;
+
+public class OffsetTestCase {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testSerialize() {
+        Offset offset = new Offset();
+        offset.getReadOffset().setFileName("data-1.sw");
+        offset.getReadOffset().setOffset(100);
+        offset.getWriteOffset().setFileName("data-2.sw");
+        offset.getWriteOffset().setOffset(200);
+
+        byte[] record = offset.serialize();
+        Assert.assertEquals(Offset.RECORD_SIZE, record.length);
+
+        Offset deserialized = new Offset();
+        Assert.assertTrue(deserialized.deserialize(record));
+        Assert.assertEquals("data-1.sw", deserialized.getReadOffset().getFileName());
+        Assert.assertEquals(100, deserialized.getReadOffset().getOffset());
+        Assert.assertEquals("data-2.sw", deserialized.getWriteOffset().getFileName());
+        Assert.assertEquals(200, deserialized.getWriteOffset().getOffset());
+    }
+
+    @Test
+    public void testSerializeWithoutReadFile() {
+        Offset offset = new Offset();
+        offset.getWriteOffset().setFileName("data-2.sw");
+
+        Offset deserialized = new Offset();
+        Assert.assertTrue(deserialized.deserialize(offset.serialize()));
+        Assert.assertNull(deserialized.getReadOffset().getFileName());
+        Assert.assertEquals("data-2.sw", deserialized.getWriteOffset().getFileName());
+    }
+
+    @Test
+    public void testDeserializeLegacy() {
+        Offset offset = new Offset();
+        Assert.assertTrue(offset.deserializeLegacy("data-1.sw,100,data-2.sw,200"));
+        Assert.assertEquals("data-1.sw", offset.getReadOffset().getFileName());
+        Assert.assertEquals(100, offset.getReadOffset().getOffset());
+        Assert.assertEquals("data-2.sw", offset.getWriteOffset().getFileName());
+        Assert.assertEquals(200, offset.getWriteOffset().getOffset());
+
+        Assert.assertTrue(offset.deserializeLegacy("null,0,data-3.sw,0"));
+        Assert.assertNull(offset.getReadOffset().getFileName());
+        Assert.assertEquals("data-3.sw", offset.getWriteOffset().getFileName());
+
+        Assert.assertFalse(offset.deserializeLegacy("data-1.sw,100,data-2.sw"));
+        Assert.assertFalse(offset.deserializeLegacy("data-1.sw,a,data-2.sw,200"));
+        Assert.assertFalse(offset.deserializeLegacy("data,100,data-2.sw,200"));
+        Assert.assertEquals("data-3.sw", offset.getWriteOffset().getFileName());
+    }
+
+    @Test
+    public void testConvertLegacyOffsetFile() throws IOException {
+        File directory = temporaryFolder.getRoot();
+        File legacyFile = new File(directory, BufferFileUtils.buildFileName(BufferFileUtils.OFFSET_FILE_PREFIX, 1));
+        FileUtils.writeStringToFile(legacyFile, "data-1.sw,0,data-2.sw,10" + System.lineSeparator()
+            + "data-1.sw,100,data-2.sw,200" + System.lineSeparator(), StandardCharsets.UTF_8);
+
+        OffsetStream offsetStream = new OffsetStream(directory, 1);
+        offsetStream.initialize();
+
+        Assert.assertEquals("data-1.sw", offsetStream.getOffset().getReadOffset().getFileName());
+        Assert.assertEquals(100, offsetStream.getOffset().getReadOffset().getOffset());
+        Assert.assertEquals("data-2.sw", offsetStream.getOffset().getWriteOffset().getFileName());
+        Assert.assertEquals(200, offsetStream.getOffset().getWriteOffset().getOffset());
+        Assert.assertFalse(legacyFile.exists());
+    }
+
+    @Test
+    public void testDeserializeBrokenRecord() {
+        Offset offset = new Offset();
+        offset.getWriteOffset().setFileName("data-2.sw");
+        offset.getWriteOffset().setOffset(200);
+        byte[] record = offset.serialize();
+        record[30]++;
+
+        Offset deserialized = new Offset();
+        Assert.assertFalse(deserialized.deserialize(record));
+        Assert.assertFalse(deserialized.deserialize("data-1.sw,0,data-2.sw,200".getBytes()));
+        Assert.assertNull(deserialized.getWriteOffset().getFileName());
+    }
+}
@@ -38,6 +38,7 @@ import org.elasticsearch.client.*;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.unit.*;
 import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.script.Script;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
 import org.slf4j.*;
 
@@ -140,6 +141,33 @@ public class ElasticSearchClient implements Client {
         client.index(request);
     }
 
+    /**
+     * Insert the sources keyed by their ids in one bulk request, refreshed immediately.
+     */
+    public void forceInsert(String indexName, Map<String, XContentBuilder> sources) throws IOException {
+        BulkRequest request = new BulkRequest();
+        sources.forEach((id, source) -> request.add(prepareInsert(indexName, id, source)));
+        request.setRefreshPolicy(WriteRequest.RefreshPolicy.IMMEDIATE);
+
+        BulkResponse response = client.bulk(request);
+        if (response.hasFailures()) {
+            throw new IOException(response.buildFailureMessage());
+        }
+    }
+
+    /**
+     * Update the documents keyed by their ids by the scripts in one bulk request.
+     */
+    public void update(String indexName, Map<String, Script> scripts) throws IOException {
+        BulkRequest request = new BulkRequest();
+        scripts.forEach((id, script) -> request.add(new UpdateRequest(formatIndexName(indexName), TYPE, id).script(script)));
+
+        BulkResponse response = client.bulk(request);
+        if (response.hasFailures()) {
+            throw new IOException(response.buildFailureMessage());
+        }
+    }
+
     public void forceUpdate(String indexName, String id, XContentBuilder source, long version) throws IOException {
         UpdateRequest request = prepareUpdate(indexName, id, source);
         request.version(version);
@@ -153,6 +181,20 @@ public class ElasticSearchClient implements Client {
         client.update(request);
     }
 
+    /**
+     * Update the documents keyed by their ids in one bulk request, refreshed immediately.
+     */
+    public void forceUpdate(String indexName, Map<String, XContentBuilder> sources) throws IOException {
+        BulkRequest request = new BulkRequest();
+        sources.forEach((id, source) -> request.add(prepareUpdate(indexName, id, source)));
+        request.setRefreshPolicy(WriteRequest.RefreshPolicy.IMMEDIATE);
+
+        BulkResponse response = client.bulk(request);
+        if (response.hasFailures()) {
+            throw new IOException(response.buildFailureMessage());
+        }
+    }
+
     public IndexRequest prepareInsert(String indexName, String id, XContentBuilder source) {
         indexName = formatIndexName(indexName);
         return new IndexRequest(indexName, TYPE, id).source(source);
@@ -189,21 +231,36 @@ public class ElasticSearchClient implements Client {
 
     public BulkProcessor createBulkProcessor(int bulkActions, int bulkSize, int flushInterval,
         int concurrentRequests) {
+        return createBulkProcessor(bulkActions, bulkSize, flushInterval, concurrentRequests, null);
+    }
+
+    /**
+     * @param tracker notified of each bulk request too, after it is logged, if not null.
+     */
+    public BulkProcessor createBulkProcessor(int bulkActions, int bulkSize, int flushInterval,
+        int concurrentRequests, BulkProcessor.Listener tracker) {
         BulkProcessor.Listener listener = new BulkProcessor.Listener() {
             @Override
             public void beforeBulk(long executionId, BulkRequest request) {
-
+                if (tracker != null) {
+                    tracker.beforeBulk(executionId, request);
+                }
             }
 
             @Override
             public void afterBulk(long executionId, BulkRequest request,
                 BulkResponse response) {
-
+                if (tracker != null) {
+                    tracker.afterBulk(executionId, request, response);
+                }
             }
 
             @Override
             public void afterBulk(long executionId, BulkRequest request, Throwable failure) {
                 logger.error("{} data bulk failed, reason: {}", request.numberOfActions(), failure);
+                if (tracker != null) {
+                    tracker.afterBulk(executionId, request, failure);
+                }
             }
         };
 
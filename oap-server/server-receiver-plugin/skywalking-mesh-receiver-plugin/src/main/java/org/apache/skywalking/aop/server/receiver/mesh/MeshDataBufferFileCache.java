@@ -42,6 +42,7 @@ public class MeshDataBufferFileCache implements IConsumer<ServiceMeshMetricDataD
         builder.cleanWhenRestart(config.isBufferFileCleanWhenRestart());
         builder.dataFileMaxSize(config.getBufferDataMaxFileSize());
         builder.offsetFileMaxSize(config.getBufferOffsetMaxFileSize());
+        builder.forcePeriod(config.getBufferFileForcePeriod());
         builder.parser(ServiceMeshMetric.parser());
         builder.callBack(this);
 
@@ -30,4 +30,8 @@ public class MeshModuleConfig extends ModuleConfig {
     @Setter @Getter private int bufferOffsetMaxFileSize;
     @Setter @Getter private int bufferDataMaxFileSize;
     @Setter @Getter private boolean bufferFileCleanWhenRestart;
+    /**
+     * Seconds between forcing the buffer data files to the disk, 0 leaves it to the operating system.
+     */
+    @Setter @Getter private int bufferFileForcePeriod = 0;
 }
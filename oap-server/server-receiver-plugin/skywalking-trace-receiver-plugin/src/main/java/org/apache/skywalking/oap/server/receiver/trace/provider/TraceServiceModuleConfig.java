@@ -29,9 +29,21 @@ public class TraceServiceModuleConfig extends ModuleConfig {
     @Setter @Getter private int bufferOffsetMaxFileSize;
     @Setter @Getter private int bufferDataMaxFileSize;
     @Setter @Getter private boolean bufferFileCleanWhenRestart;
+    /**
+     * Seconds between forcing the buffer data files to the disk, 0 leaves it to the operating system.
+     */
+    @Setter @Getter private int bufferFileForcePeriod = 0;
     /**
      * The sample rate precision is 1/10000.
      * 10000 means 100% sample in default.
      */
     @Setter @Getter private int sampleRate = 10000;
+    /**
+     * Number of threads to parse the segments, the processors number if not positive.
+     */
+    @Setter @Getter private int segmentParseThreads = 0;
+    /**
+     * Max number of the segments in parsing of each thread, the agents wait by the gRPC flow control beyond it.
+     */
+    @Setter @Getter private int segmentParseQueueSize = 1000;
 }
@@ -18,45 +18,138 @@
 
 package org.apache.skywalking.oap.server.receiver.trace.provider.handler.v6.grpc;
 
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.skywalking.apm.network.common.Commands;
 import org.apache.skywalking.apm.network.language.agent.UpstreamSegment;
 import org.apache.skywalking.apm.network.language.agent.v2.TraceSegmentReportServiceGrpc;
 import org.apache.skywalking.oap.server.library.server.grpc.GRPCHandler;
 import org.apache.skywalking.oap.server.receiver.trace.provider.handler.v5.grpc.TraceSegmentServiceHandler;
+import org.apache.skywalking.oap.server.receiver.trace.provider.parser.SegmentParsePipeline;
 import org.apache.skywalking.oap.server.receiver.trace.provider.parser.SegmentParseV2;
 import org.apache.skywalking.oap.server.receiver.trace.provider.parser.SegmentSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * The segments are parsed in the {@link SegmentParsePipeline}, not by the gRPC threads. Each stream requests a new
+ * segment from the agent only with a permit of its partition, and only after one of its segments has been parsed, so a
+ * slow parse holds back the agents by the gRPC flow control.
+ */
 public class TraceSegmentReportServiceHandler extends TraceSegmentReportServiceGrpc.TraceSegmentReportServiceImplBase implements GRPCHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(TraceSegmentServiceHandler.class);
 
+    private static final int MAX_SEGMENTS_IN_PROCESSING = 8;
+
     private final SegmentParseV2.Producer segmentProducer;
+    private final SegmentParsePipeline parsePipeline;
 
-    public TraceSegmentReportServiceHandler(SegmentParseV2.Producer segmentProducer) {
+    public TraceSegmentReportServiceHandler(SegmentParseV2.Producer segmentProducer,
+        SegmentParsePipeline parsePipeline) {
         this.segmentProducer = segmentProducer;
+        this.parsePipeline = parsePipeline;
     }
 
     @Override public StreamObserver<UpstreamSegment> collect(StreamObserver<Commands> responseObserver) {
+        final ServerCallStreamObserver<Commands> flowController;
+        if (responseObserver instanceof ServerCallStreamObserver) {
+            flowController = (ServerCallStreamObserver<Commands>)responseObserver;
+            flowController.disableAutoInboundFlowControl();
+        } else {
+            flowController = null;
+        }
+        final SegmentParsePipeline.Partition partition = parsePipeline.assign();
+
         return new StreamObserver<UpstreamSegment>() {
+            private final AtomicInteger processing = new AtomicInteger(0);
+            /**
+             * The permits acquired for the requested segments which are not received yet.
+             */
+            private final AtomicInteger granted = new AtomicInteger(0);
+            private final AtomicBoolean responded = new AtomicBoolean(false);
+            private volatile boolean completed = false;
+
+            {
+                if (Objects.nonNull(flowController)) {
+                    for (int i = 0; i < MAX_SEGMENTS_IN_PROCESSING; i++) {
+                        requestOne();
+                    }
+                }
+            }
+
+            private void requestOne() {
+                partition.acquire(() -> {
+                    granted.incrementAndGet();
+                    if (completed) {
+                        releaseGranted();
+                    } else {
+                        flowController.request(1);
+                    }
+                });
+            }
+
+            private void releaseGranted() {
+                partition.release(granted.getAndSet(0));
+            }
+
             @Override public void onNext(UpstreamSegment segment) {
                 if (logger.isDebugEnabled()) {
                     logger.debug("receive segment");
                 }
 
-                segmentProducer.send(segment, SegmentSource.Agent);
+                if (Objects.nonNull(flowController)) {
+                    granted.decrementAndGet();
+                } else {
+                    partition.acquireUninterruptibly();
+                }
+                processing.incrementAndGet();
+                partition.execute(() -> {
+                    try {
+                        segmentProducer.send(segment, SegmentSource.Agent);
+                    } catch (Throwable t) {
+                        logger.error(t.getMessage(), t);
+                    } finally {
+                        processed();
+                    }
+                });
+            }
+
+            private void processed() {
+                partition.release(1);
+                if (Objects.nonNull(flowController) && !completed) {
+                    requestOne();
+                }
+                if (processing.decrementAndGet() == 0 && completed) {
+                    respond();
+                }
             }
 
             @Override public void onError(Throwable throwable) {
                 logger.error(throwable.getMessage(), throwable);
-                responseObserver.onCompleted();
+                completed = true;
+                releaseGranted();
+                if (responded.compareAndSet(false, true)) {
+                    responseObserver.onCompleted();
+                }
             }
 
             @Override public void onCompleted() {
-                responseObserver.onNext(Commands.newBuilder().build());
-                responseObserver.onCompleted();
+                completed = true;
+                releaseGranted();
+                if (processing.get() == 0) {
+                    respond();
+                }
+            }
+
+            private void respond() {
+                if (responded.compareAndSet(false, true)) {
+                    responseObserver.onNext(Commands.newBuilder().build());
+                    responseObserver.onCompleted();
+                }
             }
         };
     }
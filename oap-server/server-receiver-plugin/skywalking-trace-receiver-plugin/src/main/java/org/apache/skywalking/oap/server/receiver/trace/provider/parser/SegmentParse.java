@@ -76,7 +76,7 @@ public class SegmentParse {
             List<UniqueId> traceIds = segment.getGlobalTraceIdsList();
             TraceSegmentObject segmentObject = parseBinarySegment(segment);
 
-            SegmentDecorator segmentDecorator = new SegmentDecorator(segmentObject);
+            SegmentDecorator segmentDecorator = new SegmentDecorator(segmentObject, segment.getSegment());
 
             if (!preBuild(traceIds, segmentDecorator)) {
                 if (logger.isDebugEnabled()) {
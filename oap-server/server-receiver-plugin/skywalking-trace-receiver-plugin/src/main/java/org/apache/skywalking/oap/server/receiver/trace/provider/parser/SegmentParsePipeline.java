@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.receiver.trace.provider.parser;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.*;
+
+/**
+ * Parses the segments out of the gRPC threads. The pipeline is partitioned by single thread executors with bounded
+ * queues, a stream is assigned to one partition, so the segments of it are parsed in the received order.
+ *
+ * Each partition holds as many permits as its queue size. A stream acquires a permit before it requests one more
+ * segment by the gRPC flow control, the permit is released after the segment is parsed, so the queue never overflows
+ * and the agents wait when the partition is saturated, no segment is dropped.
+ */
+public class SegmentParsePipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(SegmentParsePipeline.class);
+
+    private final Partition[] partitions;
+    private final AtomicInteger nextPartition = new AtomicInteger(0);
+
+    /**
+     * @param threads number of the partitions, the processors number if not positive.
+     * @param queueSize max number of the segments in parsing of each partition.
+     */
+    public SegmentParsePipeline(int threads, int queueSize) {
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ThreadFactory threadFactory = new ThreadFactoryBuilder().setNameFormat("SegmentParser-%d").setDaemon(true).build();
+
+        this.partitions = new Partition[size];
+        for (int i = 0; i < size; i++) {
+            partitions[i] = new Partition(new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueSize), threadFactory), queueSize);
+        }
+    }
+
+    /**
+     * @return the partition to parse the segments of a new stream, in round robin.
+     */
+    public Partition assign() {
+        return partitions[Math.abs(nextPartition.getAndIncrement() % partitions.length)];
+    }
+
+    /**
+     * @return number of the segments waiting in the queues of all partitions.
+     */
+    public int getQueueDepth() {
+        int depth = 0;
+        for (Partition partition : partitions) {
+            depth += partition.executor.getQueue().size();
+        }
+        return depth;
+    }
+
+    public class Partition implements Executor {
+        private final ThreadPoolExecutor executor;
+        private final Semaphore permits;
+        private final Queue<Runnable> waiters = new ConcurrentLinkedQueue<>();
+
+        private Partition(ThreadPoolExecutor executor, int permits) {
+            this.executor = executor;
+            this.permits = new Semaphore(permits);
+        }
+
+        /**
+         * Run the given callback with a permit, at once if there is one, otherwise after a permit is released. It never
+         * blocks the caller.
+         */
+        public void acquire(Runnable onPermit) {
+            if (permits.tryAcquire()) {
+                onPermit.run();
+            } else {
+                if (logger.isDebugEnabled()) {
+                    logger.debug("The segment parse partition is saturated, queue depth: {}", getQueueDepth());
+                }
+                waiters.add(onPermit);
+                grantWaiters();
+            }
+        }
+
+        /**
+         * Block the caller until a permit is acquired, for the streams without the gRPC flow control.
+         */
+        public void acquireUninterruptibly() {
+            permits.acquireUninterruptibly();
+        }
+
+        public void release(int permits) {
+            if (permits > 0) {
+                this.permits.release(permits);
+                grantWaiters();
+            }
+        }
+
+        /**
+         * The waiters are checked again after a permit is queued for them, so a permit released at the same time is
+         * never missed.
+         */
+        private void grantWaiters() {
+            while (!waiters.isEmpty() && permits.tryAcquire()) {
+                Runnable waiter = waiters.poll();
+                if (waiter == null) {
+                    permits.release();
+                } else {
+                    waiter.run();
+                }
+            }
+        }
+
+        /**
+         * The segment is rejected by {@link RejectedExecutionException} if it is executed without a permit and the
+         * queue is full.
+         */
+        @Override public void execute(Runnable command) {
+            executor.execute(command);
+        }
+    }
+}
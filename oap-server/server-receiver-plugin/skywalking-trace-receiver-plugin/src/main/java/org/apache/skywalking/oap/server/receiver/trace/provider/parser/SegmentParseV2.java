@@ -19,7 +19,7 @@
 package org.apache.skywalking.oap.server.receiver.trace.provider.parser;
 
 import com.google.protobuf.InvalidProtocolBufferException;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 import lombok.Setter;
 import org.apache.skywalking.apm.network.language.agent.SpanType;
@@ -39,6 +39,7 @@ import org.apache.skywalking.oap.server.receiver.trace.provider.parser.listener.
 import org.apache.skywalking.oap.server.receiver.trace.provider.parser.listener.GlobalTraceIdsListener;
 import org.apache.skywalking.oap.server.receiver.trace.provider.parser.listener.LocalSpanListener;
 import org.apache.skywalking.oap.server.receiver.trace.provider.parser.listener.SpanListener;
+import org.apache.skywalking.oap.server.receiver.trace.provider.parser.listener.SpanListenerFactory;
 import org.apache.skywalking.oap.server.receiver.trace.provider.parser.standardization.ReferenceIdExchanger;
 import org.apache.skywalking.oap.server.receiver.trace.provider.parser.standardization.SegmentStandardization;
 import org.apache.skywalking.oap.server.receiver.trace.provider.parser.standardization.SegmentStandardizationWorker;
@@ -49,6 +50,10 @@ import org.slf4j.LoggerFactory;
 /**
  * SegmentParseV2 is a replication of SegmentParse, but be compatible with v2 trace protocol.
  *
+ * One instance is reused by every segment parsed on the same thread, see {@link Producer}. The listeners are created
+ * for each segment, because the sources they build are passed to the source receiver, and are grouped by the points
+ * they listen to once, instead of checking every listener for every span.
+ *
  * @author wusheng
  */
 public class SegmentParseV2 {
@@ -57,28 +62,46 @@ public class SegmentParseV2 {
 
     private final ModuleManager moduleManager;
     private final List<SpanListener> spanListeners;
+    private final List<FirstSpanListener> firstListeners;
+    private final List<EntrySpanListener> entryListeners;
+    private final List<ExitSpanListener> exitListeners;
+    private final List<LocalSpanListener> localListeners;
+    private final List<GlobalTraceIdsListener> globalTraceIdsListeners;
     private final SegmentParserListenerManager listenerManager;
-    private final SegmentCoreInfo segmentCoreInfo;
+    private SegmentCoreInfo segmentCoreInfo;
     @Setter private SegmentStandardizationWorker standardizationWorker;
 
-    private SegmentParseV2(ModuleManager moduleManager, SegmentParserListenerManager listenerManager) {
+    SegmentParseV2(ModuleManager moduleManager, SegmentParserListenerManager listenerManager) {
         this.moduleManager = moduleManager;
         this.listenerManager = listenerManager;
-        this.spanListeners = new LinkedList<>();
-        this.segmentCoreInfo = new SegmentCoreInfo();
-        this.segmentCoreInfo.setStartTime(Long.MAX_VALUE);
-        this.segmentCoreInfo.setEndTime(Long.MIN_VALUE);
-        this.segmentCoreInfo.setV2(true);
+        this.spanListeners = new ArrayList<>();
+        this.firstListeners = new ArrayList<>();
+        this.entryListeners = new ArrayList<>();
+        this.exitListeners = new ArrayList<>();
+        this.localListeners = new ArrayList<>();
+        this.globalTraceIdsListeners = new ArrayList<>();
     }
 
     public boolean parse(UpstreamSegment segment, SegmentSource source) {
+        try {
+            return doParse(segment, source);
+        } finally {
+            reset();
+        }
+    }
+
+    private boolean doParse(UpstreamSegment segment, SegmentSource source) {
+        segmentCoreInfo = new SegmentCoreInfo();
+        segmentCoreInfo.setStartTime(Long.MAX_VALUE);
+        segmentCoreInfo.setEndTime(Long.MIN_VALUE);
+        segmentCoreInfo.setV2(true);
         createSpanListeners();
 
         try {
             List<UniqueId> traceIds = segment.getGlobalTraceIdsList();
             SegmentObject segmentObject = parseBinarySegment(segment);
 
-            SegmentDecorator segmentDecorator = new SegmentDecorator(segmentObject);
+            SegmentDecorator segmentDecorator = new SegmentDecorator(segmentObject, segment.getSegment());
 
             if (!preBuild(traceIds, segmentDecorator)) {
                 if (logger.isDebugEnabled()) {
@@ -190,68 +213,89 @@ public class SegmentParseV2 {
     }
 
     private void notifyExitListener(SpanDecorator spanDecorator) {
-        spanListeners.forEach(listener -> {
-            if (listener.containsPoint(SpanListener.Point.Exit)) {
-                ((ExitSpanListener)listener).parseExit(spanDecorator, segmentCoreInfo);
-            }
-        });
+        for (int i = 0; i < exitListeners.size(); i++) {
+            exitListeners.get(i).parseExit(spanDecorator, segmentCoreInfo);
+        }
     }
 
     private void notifyEntryListener(SpanDecorator spanDecorator) {
-        spanListeners.forEach(listener -> {
-            if (listener.containsPoint(SpanListener.Point.Entry)) {
-                ((EntrySpanListener)listener).parseEntry(spanDecorator, segmentCoreInfo);
-            }
-        });
+        for (int i = 0; i < entryListeners.size(); i++) {
+            entryListeners.get(i).parseEntry(spanDecorator, segmentCoreInfo);
+        }
     }
 
     private void notifyLocalListener(SpanDecorator spanDecorator) {
-        spanListeners.forEach(listener -> {
-            if (listener.containsPoint(SpanListener.Point.Local)) {
-                ((LocalSpanListener)listener).parseLocal(spanDecorator, segmentCoreInfo);
-            }
-        });
+        for (int i = 0; i < localListeners.size(); i++) {
+            localListeners.get(i).parseLocal(spanDecorator, segmentCoreInfo);
+        }
     }
 
     private void notifyFirstListener(SpanDecorator spanDecorator) {
-        spanListeners.forEach(listener -> {
-            if (listener.containsPoint(SpanListener.Point.First)) {
-                ((FirstSpanListener)listener).parseFirst(spanDecorator, segmentCoreInfo);
-            }
-        });
+        for (int i = 0; i < firstListeners.size(); i++) {
+            firstListeners.get(i).parseFirst(spanDecorator, segmentCoreInfo);
+        }
     }
 
     private void notifyGlobalsListener(UniqueId uniqueId) {
-        spanListeners.forEach(listener -> {
+        for (int i = 0; i < globalTraceIdsListeners.size(); i++) {
+            globalTraceIdsListeners.get(i).parseGlobalTraceId(uniqueId, segmentCoreInfo);
+        }
+    }
+
+    private void createSpanListeners() {
+        List<SpanListenerFactory> factories = listenerManager.getSpanListenerFactories();
+        for (int i = 0; i < factories.size(); i++) {
+            SpanListener listener = factories.get(i).create(moduleManager);
+            spanListeners.add(listener);
+
+            if (listener.containsPoint(SpanListener.Point.First)) {
+                firstListeners.add((FirstSpanListener)listener);
+            }
+            if (listener.containsPoint(SpanListener.Point.Entry)) {
+                entryListeners.add((EntrySpanListener)listener);
+            }
+            if (listener.containsPoint(SpanListener.Point.Exit)) {
+                exitListeners.add((ExitSpanListener)listener);
+            }
+            if (listener.containsPoint(SpanListener.Point.Local)) {
+                localListeners.add((LocalSpanListener)listener);
+            }
             if (listener.containsPoint(SpanListener.Point.TraceIds)) {
-                ((GlobalTraceIdsListener)listener).parseGlobalTraceId(uniqueId, segmentCoreInfo);
+                globalTraceIdsListeners.add((GlobalTraceIdsListener)listener);
             }
-        });
+        }
     }
 
-    private void createSpanListeners() {
-        listenerManager.getSpanListenerFactories().forEach(spanListenerFactory -> spanListeners.add(spanListenerFactory.create(moduleManager)));
+    /**
+     * Drop the listeners and the core info of the parsed segment, keep the lists for the next one.
+     */
+    private void reset() {
+        spanListeners.clear();
+        firstListeners.clear();
+        entryListeners.clear();
+        exitListeners.clear();
+        localListeners.clear();
+        globalTraceIdsListeners.clear();
+        segmentCoreInfo = null;
     }
 
     public static class Producer implements DataStreamReader.CallBack<UpstreamSegment> {
 
         @Setter private SegmentStandardizationWorker standardizationWorker;
-        private final ModuleManager moduleManager;
-        private final SegmentParserListenerManager listenerManager;
+        private final ThreadLocal<SegmentParseV2> segmentParses;
 
         public Producer(ModuleManager moduleManager, SegmentParserListenerManager listenerManager) {
-            this.moduleManager = moduleManager;
-            this.listenerManager = listenerManager;
+            this.segmentParses = ThreadLocal.withInitial(() -> new SegmentParseV2(moduleManager, listenerManager));
         }
 
         public void send(UpstreamSegment segment, SegmentSource source) {
-            SegmentParseV2 segmentParse = new SegmentParseV2(moduleManager, listenerManager);
+            SegmentParseV2 segmentParse = segmentParses.get();
             segmentParse.setStandardizationWorker(standardizationWorker);
             segmentParse.parse(segment, source);
         }
 
         @Override public boolean call(UpstreamSegment segment) {
-            SegmentParseV2 segmentParse = new SegmentParseV2(moduleManager, listenerManager);
+            SegmentParseV2 segmentParse = segmentParses.get();
             segmentParse.setStandardizationWorker(standardizationWorker);
             return segmentParse.parse(segment, SegmentSource.Buffer);
         }
@@ -18,6 +18,7 @@
 
 package org.apache.skywalking.oap.server.receiver.trace.provider.parser.decorator;
 
+import com.google.protobuf.ByteString;
 import org.apache.skywalking.apm.network.language.agent.TraceSegmentObject;
 import org.apache.skywalking.apm.network.language.agent.UniqueId;
 import org.apache.skywalking.apm.network.language.agent.v2.SegmentObject;
@@ -35,17 +36,32 @@ public class SegmentDecorator implements StandardBuilder {
     private final SegmentObject segmentObjectV2;
     private SegmentObject.Builder segmentBuilderV2;
     private final SpanDecorator[] spanDecorators;
+    private final ByteString originBinary;
 
     public SegmentDecorator(TraceSegmentObject segmentObject) {
+        this(segmentObject, null);
+    }
+
+    /**
+     * @param originBinary the bytes the segment object was parsed from, returned by {@link #toByteArray()} as long as
+     * no exchange has changed the segment, so the segment doesn't need to be serialized again.
+     */
+    public SegmentDecorator(TraceSegmentObject segmentObject, ByteString originBinary) {
         this.segmentObject = segmentObject;
         this.segmentObjectV2 = null;
+        this.originBinary = originBinary;
         this.spanDecorators = new SpanDecorator[segmentObject.getSpansCount()];
         isV2 = false;
     }
 
     public SegmentDecorator(SegmentObject segmentObjectV2) {
+        this(segmentObjectV2, null);
+    }
+
+    public SegmentDecorator(SegmentObject segmentObjectV2, ByteString originBinary) {
         this.segmentObjectV2 = segmentObjectV2;
         this.segmentObject = null;
+        this.originBinary = originBinary;
         this.spanDecorators = new SpanDecorator[segmentObjectV2.getSpansCount()];
         isV2 = true;
     }
@@ -87,9 +103,12 @@ public class SegmentDecorator implements StandardBuilder {
 
     public byte[] toByteArray() {
         if (isOrigin) {
+            if (originBinary != null) {
+                return originBinary.toByteArray();
+            }
             return isV2 ? segmentObjectV2.toByteArray() : segmentObject.toByteArray();
         } else {
-            return segmentBuilder.build().toByteArray();
+            return isV2 ? segmentBuilderV2.build().toByteArray() : segmentBuilder.build().toByteArray();
         }
     }
 
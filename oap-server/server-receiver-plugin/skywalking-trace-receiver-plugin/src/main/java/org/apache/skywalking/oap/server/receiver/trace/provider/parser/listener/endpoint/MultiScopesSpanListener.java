@@ -66,13 +66,13 @@ public class MultiScopesSpanListener implements EntrySpanListener, ExitSpanListe
     private SpanDecorator entrySpanDecorator;
     private long minuteTimeBucket;
 
-    private MultiScopesSpanListener(ModuleManager moduleManager) {
-        this.sourceReceiver = moduleManager.find(CoreModule.NAME).provider().getService(SourceReceiver.class);
+    private MultiScopesSpanListener(Factory factory) {
+        this.sourceReceiver = factory.sourceReceiver;
         this.entrySourceBuilders = new LinkedList<>();
         this.exitSourceBuilders = new LinkedList<>();
-        this.instanceInventoryCache = moduleManager.find(CoreModule.NAME).provider().getService(ServiceInstanceInventoryCache.class);
-        this.serviceInventoryCache = moduleManager.find(CoreModule.NAME).provider().getService(ServiceInventoryCache.class);
-        this.endpointInventoryCache = moduleManager.find(CoreModule.NAME).provider().getService(EndpointInventoryCache.class);
+        this.instanceInventoryCache = factory.instanceInventoryCache;
+        this.serviceInventoryCache = factory.serviceInventoryCache;
+        this.endpointInventoryCache = factory.endpointInventoryCache;
     }
 
     @Override public boolean containsPoint(Point point) {
@@ -215,9 +215,27 @@ public class MultiScopesSpanListener implements EntrySpanListener, ExitSpanListe
     }
 
     public static class Factory implements SpanListenerFactory {
+        private volatile boolean initialized = false;
+        private SourceReceiver sourceReceiver;
+        private ServiceInstanceInventoryCache instanceInventoryCache;
+        private ServiceInventoryCache serviceInventoryCache;
+        private EndpointInventoryCache endpointInventoryCache;
 
         @Override public SpanListener create(ModuleManager moduleManager) {
-            return new MultiScopesSpanListener(moduleManager);
+            if (!initialized) {
+                initialize(moduleManager);
+            }
+            return new MultiScopesSpanListener(this);
+        }
+
+        private synchronized void initialize(ModuleManager moduleManager) {
+            if (!initialized) {
+                this.sourceReceiver = moduleManager.find(CoreModule.NAME).provider().getService(SourceReceiver.class);
+                this.instanceInventoryCache = moduleManager.find(CoreModule.NAME).provider().getService(ServiceInstanceInventoryCache.class);
+                this.serviceInventoryCache = moduleManager.find(CoreModule.NAME).provider().getService(ServiceInventoryCache.class);
+                this.endpointInventoryCache = moduleManager.find(CoreModule.NAME).provider().getService(EndpointInventoryCache.class);
+                this.initialized = true;
+            }
         }
     }
 }
@@ -51,10 +51,10 @@ public class SegmentSpanListener implements FirstSpanListener, EntrySpanListener
     private int entryEndpointId = 0;
     private int firstEndpointId = 0;
 
-    private SegmentSpanListener(ModuleManager moduleManager, TraceSegmentSampler sampler) {
-        this.sampler = sampler;
-        this.sourceReceiver = moduleManager.find(CoreModule.NAME).provider().getService(SourceReceiver.class);
-        this.serviceNameCacheService = moduleManager.find(CoreModule.NAME).provider().getService(EndpointInventoryCache.class);
+    private SegmentSpanListener(Factory factory) {
+        this.sampler = factory.sampler;
+        this.sourceReceiver = factory.sourceReceiver;
+        this.serviceNameCacheService = factory.serviceNameCacheService;
     }
 
     @Override public boolean containsPoint(Point point) {
@@ -139,13 +139,27 @@ public class SegmentSpanListener implements FirstSpanListener, EntrySpanListener
 
     public static class Factory implements SpanListenerFactory {
         private TraceSegmentSampler sampler;
+        private volatile boolean initialized = false;
+        private SourceReceiver sourceReceiver;
+        private EndpointInventoryCache serviceNameCacheService;
 
         public Factory(int segmentSamplingRate) {
             this.sampler = new TraceSegmentSampler(segmentSamplingRate);
         }
 
         @Override public SpanListener create(ModuleManager moduleManager) {
-            return new SegmentSpanListener(moduleManager, sampler);
+            if (!initialized) {
+                initialize(moduleManager);
+            }
+            return new SegmentSpanListener(this);
+        }
+
+        private synchronized void initialize(ModuleManager moduleManager) {
+            if (!initialized) {
+                this.sourceReceiver = moduleManager.find(CoreModule.NAME).provider().getService(SourceReceiver.class);
+                this.serviceNameCacheService = moduleManager.find(CoreModule.NAME).provider().getService(EndpointInventoryCache.class);
+                this.initialized = true;
+            }
         }
     }
 }
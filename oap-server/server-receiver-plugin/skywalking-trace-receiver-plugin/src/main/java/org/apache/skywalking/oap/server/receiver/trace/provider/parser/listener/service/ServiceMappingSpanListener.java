@@ -40,9 +40,9 @@ public class ServiceMappingSpanListener implements EntrySpanListener {
     private final ServiceInventoryCache serviceInventoryCache;
     private List<ServiceMapping> serviceMappings = new LinkedList<>();
 
-    private ServiceMappingSpanListener(ModuleManager moduleManager) {
-        this.serviceInventoryCache = moduleManager.find(CoreModule.NAME).provider().getService(ServiceInventoryCache.class);
-        this.serviceInventoryRegister = moduleManager.find(CoreModule.NAME).provider().getService(IServiceInventoryRegister.class);
+    private ServiceMappingSpanListener(Factory factory) {
+        this.serviceInventoryCache = factory.serviceInventoryCache;
+        this.serviceInventoryRegister = factory.serviceInventoryRegister;
     }
 
     @Override public boolean containsPoint(Point point) {
@@ -80,9 +80,23 @@ public class ServiceMappingSpanListener implements EntrySpanListener {
     }
 
     public static class Factory implements SpanListenerFactory {
+        private volatile boolean initialized = false;
+        private IServiceInventoryRegister serviceInventoryRegister;
+        private ServiceInventoryCache serviceInventoryCache;
 
         @Override public SpanListener create(ModuleManager moduleManager) {
-            return new ServiceMappingSpanListener(moduleManager);
+            if (!initialized) {
+                initialize(moduleManager);
+            }
+            return new ServiceMappingSpanListener(this);
+        }
+
+        private synchronized void initialize(ModuleManager moduleManager) {
+            if (!initialized) {
+                this.serviceInventoryCache = moduleManager.find(CoreModule.NAME).provider().getService(ServiceInventoryCache.class);
+                this.serviceInventoryRegister = moduleManager.find(CoreModule.NAME).provider().getService(IServiceInventoryRegister.class);
+                this.initialized = true;
+            }
         }
     }
 
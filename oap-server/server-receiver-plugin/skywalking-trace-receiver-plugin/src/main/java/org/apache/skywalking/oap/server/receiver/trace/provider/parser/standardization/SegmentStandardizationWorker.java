@@ -38,13 +38,14 @@ public class SegmentStandardizationWorker extends AbstractWorker<SegmentStandard
     private final DataCarrier<SegmentStandardization> dataCarrier;
 
     public SegmentStandardizationWorker(SegmentParse.Producer segmentParseCreator, String path,
-        int offsetFileMaxSize, int dataFileMaxSize, boolean cleanWhenRestart) throws IOException {
+        int offsetFileMaxSize, int dataFileMaxSize, int forcePeriod, boolean cleanWhenRestart) throws IOException {
         super(Integer.MAX_VALUE);
 
         BufferStream.Builder<UpstreamSegment> builder = new BufferStream.Builder<>(path);
         builder.cleanWhenRestart(cleanWhenRestart);
         builder.dataFileMaxSize(dataFileMaxSize);
         builder.offsetFileMaxSize(offsetFileMaxSize);
+        builder.forcePeriod(forcePeriod);
         builder.parser(UpstreamSegment.parser());
         builder.callBack(segmentParseCreator);
 
@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.receiver.trace.provider.parser;
+
+import java.util.*;
+import java.util.concurrent.*;
+import org.junit.*;
+
+public class SegmentParsePipelineTest {
+
+    @Test
+    public void testOrderedInPartition() throws InterruptedException {
+        SegmentParsePipeline pipeline = new SegmentParsePipeline(2, 4);
+        Executor executor = pipeline.assign();
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch blocked = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            try {
+                blocked.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        List<Integer> parsed = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch finished = new CountDownLatch(4);
+        for (int i = 0; i < 4; i++) {
+            int sequence = i;
+            executor.execute(() -> {
+                parsed.add(sequence);
+                finished.countDown();
+            });
+        }
+        Assert.assertEquals(4, pipeline.getQueueDepth());
+
+        blocked.countDown();
+        Assert.assertTrue(finished.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(Arrays.asList(0, 1, 2, 3), parsed);
+    }
+
+    @Test
+    public void testRejectWhenQueueFull() throws InterruptedException {
+        SegmentParsePipeline pipeline = new SegmentParsePipeline(1, 1);
+        Executor executor = pipeline.assign();
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch blocked = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            try {
+                blocked.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+        executor.execute(() -> {
+        });
+
+        try {
+            executor.execute(() -> {
+            });
+            Assert.fail();
+        } catch (RejectedExecutionException e) {
+            // The caller isn't blocked when the queue is full without a permit.
+        } finally {
+            blocked.countDown();
+        }
+    }
+
+    @Test
+    public void testWaitForPermit() {
+        SegmentParsePipeline pipeline = new SegmentParsePipeline(1, 2);
+        SegmentParsePipeline.Partition partition = pipeline.assign();
+
+        List<Integer> granted = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            int sequence = i;
+            partition.acquire(() -> granted.add(sequence));
+        }
+        Assert.assertEquals(Arrays.asList(0, 1), granted);
+
+        partition.release(1);
+        Assert.assertEquals(Arrays.asList(0, 1, 2), granted);
+
+        partition.release(3);
+        partition.acquire(() -> granted.add(3));
+        Assert.assertEquals(Arrays.asList(0, 1, 2, 3), granted);
+    }
+
+    @Test
+    public void testAssignInRoundRobin() {
+        SegmentParsePipeline pipeline = new SegmentParsePipeline(2, 4);
+        Executor first = pipeline.assign();
+        Executor second = pipeline.assign();
+
+        Assert.assertNotSame(first, second);
+        Assert.assertSame(first, pipeline.assign());
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.receiver.trace.provider.parser;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.config.Configurator;
+import org.apache.skywalking.apm.network.language.agent.*;
+import org.apache.skywalking.apm.network.language.agent.v2.*;
+import org.apache.skywalking.oap.server.core.CoreModule;
+import org.apache.skywalking.oap.server.core.cache.ServiceInstanceInventoryCache;
+import org.apache.skywalking.oap.server.core.config.IComponentLibraryCatalogService;
+import org.apache.skywalking.oap.server.core.register.service.*;
+import org.apache.skywalking.oap.server.library.module.*;
+import org.apache.skywalking.oap.server.receiver.trace.provider.parser.decorator.*;
+import org.apache.skywalking.oap.server.receiver.trace.provider.parser.listener.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.*;
+import org.openjdk.jmh.runner.options.*;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Compares parsing a segment by the implementation before, {@link PreviousSegmentParseV2} created per segment with the
+ * listeners checked by point for every span, against the producer's reused {@link SegmentParseV2} with the listeners
+ * grouped by point. A new {@link SegmentParseV2} per segment is measured too, to tell the reuse from the grouping. The
+ * segment is already exchanged, so only the parse and the listener dispatch are measured.
+ *
+ * Run the main method, the gc profiler reports the bytes allocated per segment as gc.alloc.rate.norm.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SegmentParseV2Benchmark {
+
+    private ModuleManager moduleManager;
+    private SegmentParserListenerManager listenerManager;
+    private SegmentParseV2.Producer producer;
+    private UpstreamSegment segment;
+
+    @Setup
+    public void setup() {
+        Configurator.setRootLevel(Level.ERROR);
+
+        moduleManager = mock(ModuleManager.class, RETURNS_DEEP_STUBS);
+        ModuleServiceHolder coreServices = moduleManager.find(CoreModule.NAME).provider();
+        when(coreServices.getService(IEndpointInventoryRegister.class)).thenReturn(mock(IEndpointInventoryRegister.class));
+        when(coreServices.getService(INetworkAddressInventoryRegister.class)).thenReturn(mock(INetworkAddressInventoryRegister.class));
+        when(coreServices.getService(IComponentLibraryCatalogService.class)).thenReturn(mock(IComponentLibraryCatalogService.class));
+        when(coreServices.getService(ServiceInstanceInventoryCache.class)).thenReturn(mock(ServiceInstanceInventoryCache.class));
+
+        listenerManager = new SegmentParserListenerManager();
+        for (int i = 0; i < 3; i++) {
+            listenerManager.add(new NoopSpanListener.Factory());
+        }
+        producer = new SegmentParseV2.Producer(moduleManager, listenerManager);
+        segment = buildSegment();
+    }
+
+    @Benchmark
+    public void previousSegmentParse(Blackhole blackhole) {
+        blackhole.consume(new PreviousSegmentParseV2(moduleManager, listenerManager).parse(segment, SegmentSource.Agent));
+    }
+
+    @Benchmark
+    public void newSegmentParse(Blackhole blackhole) {
+        blackhole.consume(new SegmentParseV2(moduleManager, listenerManager).parse(segment, SegmentSource.Agent));
+    }
+
+    @Benchmark
+    public void reusedSegmentParse() {
+        producer.send(segment, SegmentSource.Agent);
+    }
+
+    private UpstreamSegment buildSegment() {
+        SegmentObject.Builder segmentObject = SegmentObject.newBuilder();
+        segmentObject.setTraceSegmentId(UniqueId.newBuilder().addIdParts(1).addIdParts(2).addIdParts(3));
+        segmentObject.setServiceId(1);
+        segmentObject.setServiceInstanceId(1);
+        segmentObject.addSpans(buildSpan(0, SpanType.Entry));
+        segmentObject.addSpans(buildSpan(1, SpanType.Local));
+        segmentObject.addSpans(buildSpan(2, SpanType.Exit));
+
+        UpstreamSegment.Builder upstreamSegment = UpstreamSegment.newBuilder();
+        upstreamSegment.addGlobalTraceIds(UniqueId.newBuilder().addIdParts(1).addIdParts(2).addIdParts(3));
+        upstreamSegment.setSegment(segmentObject.build().toByteString());
+        return upstreamSegment.build();
+    }
+
+    private SpanObjectV2.Builder buildSpan(int spanId, SpanType spanType) {
+        SpanObjectV2.Builder span = SpanObjectV2.newBuilder();
+        span.setSpanId(spanId);
+        span.setParentSpanId(spanId - 1);
+        span.setSpanType(spanType);
+        span.setSpanLayer(SpanLayer.Http);
+        span.setStartTime(1544000000000L + spanId);
+        span.setEndTime(1544000000100L);
+        span.setComponentId(1);
+        span.setOperationNameId(1);
+        return span;
+    }
+
+    private static class NoopSpanListener implements FirstSpanListener, EntrySpanListener, ExitSpanListener, LocalSpanListener, GlobalTraceIdsListener {
+
+        @Override public void build() {
+        }
+
+        @Override public boolean containsPoint(Point point) {
+            return true;
+        }
+
+        @Override public void parseFirst(SpanDecorator spanDecorator, SegmentCoreInfo segmentCoreInfo) {
+        }
+
+        @Override public void parseEntry(SpanDecorator spanDecorator, SegmentCoreInfo segmentCoreInfo) {
+        }
+
+        @Override public void parseExit(SpanDecorator spanDecorator, SegmentCoreInfo segmentCoreInfo) {
+        }
+
+        @Override public void parseLocal(SpanDecorator spanDecorator, SegmentCoreInfo segmentCoreInfo) {
+        }
+
+        @Override public void parseGlobalTraceId(UniqueId uniqueId, SegmentCoreInfo segmentCoreInfo) {
+        }
+
+        private static class Factory implements SpanListenerFactory {
+
+            @Override public SpanListener create(ModuleManager moduleManager) {
+                return new NoopSpanListener();
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(SegmentParseV2Benchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.receiver.trace.provider.parser.decorator;
+
+import com.google.protobuf.ByteString;
+import org.apache.skywalking.apm.network.language.agent.v2.*;
+import org.junit.*;
+
+public class SegmentDecoratorTest {
+
+    @Test
+    public void testReuseOriginBinary() throws Exception {
+        ByteString originBinary = buildSegment().toByteString();
+        SegmentDecorator segmentDecorator = new SegmentDecorator(SegmentObject.parseFrom(originBinary), originBinary);
+
+        Assert.assertArrayEquals(originBinary.toByteArray(), segmentDecorator.toByteArray());
+    }
+
+    @Test
+    public void testSerializeAfterToBuilder() throws Exception {
+        ByteString originBinary = buildSegment().toByteString();
+        SegmentDecorator segmentDecorator = new SegmentDecorator(SegmentObject.parseFrom(originBinary), originBinary);
+
+        segmentDecorator.toBuilder();
+
+        SegmentObject serialized = SegmentObject.parseFrom(segmentDecorator.toByteArray());
+        Assert.assertEquals(1, serialized.getServiceId());
+        Assert.assertEquals("Tomcat", serialized.getSpans(0).getComponent());
+    }
+
+    private SegmentObject buildSegment() {
+        SegmentObject.Builder segment = SegmentObject.newBuilder();
+        segment.setServiceId(1);
+        segment.setServiceInstanceId(1);
+        segment.addSpans(SpanObjectV2.newBuilder().setSpanId(0).setComponent("Tomcat"));
+        return segment.build();
+    }
+}
@@ -18,27 +18,32 @@
 
 package org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base;
 
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.*;
 import org.apache.skywalking.oap.server.core.storage.IBatchDAO;
 import org.apache.skywalking.oap.server.library.client.elasticsearch.ElasticSearchClient;
 import org.apache.skywalking.oap.server.library.util.CollectionUtils;
-import org.elasticsearch.action.bulk.BulkProcessor;
+import org.elasticsearch.action.bulk.*;
 import org.elasticsearch.action.index.IndexRequest;
 import org.elasticsearch.action.update.UpdateRequest;
 import org.slf4j.*;
 
 /**
+ * The requests are sent by a {@link BulkProcessor} asynchronously, {@link #flush()} waits for the responses of the
+ * bulks sent until it returns.
+ *
  * @author peng-yongsheng
  */
 public class BatchProcessEsDAO extends EsDAO implements IBatchDAO {
 
     private static final Logger logger = LoggerFactory.getLogger(BatchProcessEsDAO.class);
 
-    private BulkProcessor bulkProcessor;
+    private volatile BulkProcessor bulkProcessor;
     private final int bulkActions;
     private final int bulkSize;
     private final int flushInterval;
     private final int concurrentRequests;
+    private final Map<Long, CompletableFuture<Void>> runningBulks = new ConcurrentHashMap<>();
 
     public BatchProcessEsDAO(ElasticSearchClient client, int bulkActions, int bulkSize, int flushInterval,
         int concurrentRequests) {
@@ -50,9 +55,7 @@ public class BatchProcessEsDAO extends EsDAO implements IBatchDAO {
     }
 
     @Override public void batchPersistence(List<?> batchCollection) {
-        if (bulkProcessor == null) {
-            this.bulkProcessor = getClient().createBulkProcessor(bulkActions, bulkSize, flushInterval, concurrentRequests);
-        }
+        BulkProcessor bulkProcessor = getBulkProcessor();
 
         if (logger.isDebugEnabled()) {
             logger.debug("bulk data size: {}", batchCollection.size());
@@ -61,14 +64,60 @@ public class BatchProcessEsDAO extends EsDAO implements IBatchDAO {
         if (CollectionUtils.isNotEmpty(batchCollection)) {
             batchCollection.forEach(builder -> {
                 if (builder instanceof IndexRequest) {
-                    this.bulkProcessor.add((IndexRequest)builder);
+                    bulkProcessor.add((IndexRequest)builder);
                 }
                 if (builder instanceof UpdateRequest) {
-                    this.bulkProcessor.add((UpdateRequest)builder);
+                    bulkProcessor.add((UpdateRequest)builder);
                 }
             });
         }
+    }
+
+    /**
+     * The bulks holding the requests added before are started once the processor is flushed, because the processor
+     * adds and flushes under the same lock, so waiting for the running bulks covers all of them.
+     */
+    @Override public void flush() {
+        getBulkProcessor().flush();
+
+        try {
+            CompletableFuture.allOf(runningBulks.values().toArray(new CompletableFuture[0])).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            logger.error(e.getMessage(), e);
+        }
+    }
+
+    private BulkProcessor getBulkProcessor() {
+        if (bulkProcessor == null) {
+            synchronized (this) {
+                if (bulkProcessor == null) {
+                    this.bulkProcessor = getClient().createBulkProcessor(bulkActions, bulkSize, flushInterval, concurrentRequests, new BulkTracker());
+                }
+            }
+        }
+        return bulkProcessor;
+    }
+
+    private class BulkTracker implements BulkProcessor.Listener {
+        @Override public void beforeBulk(long executionId, BulkRequest request) {
+            runningBulks.put(executionId, new CompletableFuture<>());
+        }
 
-        this.bulkProcessor.flush();
+        @Override public void afterBulk(long executionId, BulkRequest request, BulkResponse response) {
+            finish(executionId);
+        }
+
+        @Override public void afterBulk(long executionId, BulkRequest request, Throwable failure) {
+            finish(executionId);
+        }
+
+        private void finish(long executionId) {
+            CompletableFuture<Void> bulk = runningBulks.remove(executionId);
+            if (bulk != null) {
+                bulk.complete(null);
+            }
+        }
     }
 }
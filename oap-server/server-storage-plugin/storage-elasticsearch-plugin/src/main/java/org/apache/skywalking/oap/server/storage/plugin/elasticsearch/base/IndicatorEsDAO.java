@@ -19,12 +19,12 @@
 package org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base;
 
 import java.io.IOException;
-import java.util.Map;
+import java.util.*;
 import org.apache.skywalking.oap.server.core.analysis.indicator.Indicator;
 import org.apache.skywalking.oap.server.core.storage.*;
 import org.apache.skywalking.oap.server.core.storage.type.StorageDataType;
 import org.apache.skywalking.oap.server.library.client.elasticsearch.ElasticSearchClient;
-import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.action.get.*;
 import org.elasticsearch.action.index.IndexRequest;
 import org.elasticsearch.action.update.UpdateRequest;
 import org.elasticsearch.common.xcontent.*;
@@ -44,13 +44,22 @@ public class IndicatorEsDAO extends EsDAO implements IIndicatorDAO<IndexRequest,
         this.storageBuilder = storageBuilder;
     }
 
-    @Override public Indicator get(String modelName, Indicator indicator) throws IOException {
-        GetResponse response = getClient().get(modelName, indicator.id());
-        if (response.isExists()) {
-            return storageBuilder.map2Data(response.getSource());
-        } else {
-            return null;
+    @Override public List<Indicator> multiGet(String modelName, List<Indicator> indicators) throws IOException {
+        List<String> ids = new ArrayList<>(indicators.size());
+        indicators.forEach(indicator -> ids.add(indicator.id()));
+
+        MultiGetResponse response = getClient().multiGet(modelName, ids);
+
+        List<Indicator> result = new ArrayList<>(ids.size());
+        for (MultiGetItemResponse itemResponse : response.getResponses()) {
+            if (itemResponse.isFailed()) {
+                throw new IOException(itemResponse.getFailure().getMessage(), itemResponse.getFailure().getFailure());
+            }
+            if (itemResponse.getResponse().isExists()) {
+                result.add(storageBuilder.map2Data(itemResponse.getResponse().getSource()));
+            }
         }
+        return result;
     }
 
     @Override public IndexRequest prepareBatchInsert(String modelName, Indicator indicator) throws IOException {
@@ -19,13 +19,14 @@
 package org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base;
 
 import java.io.IOException;
-import java.util.Map;
+import java.util.*;
 import org.apache.skywalking.oap.server.core.register.RegisterSource;
 import org.apache.skywalking.oap.server.core.storage.*;
 import org.apache.skywalking.oap.server.library.client.elasticsearch.ElasticSearchClient;
-import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.action.get.*;
 import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.common.xcontent.*;
+import org.elasticsearch.script.*;
 import org.elasticsearch.search.aggregations.AggregationBuilders;
 import org.elasticsearch.search.aggregations.metrics.max.Max;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
@@ -38,6 +39,12 @@ public class RegisterEsDAO extends EsDAO implements IRegisterDAO {
 
     private static final Logger logger = LoggerFactory.getLogger(RegisterEsDAO.class);
 
+    /**
+     * Only move the heartbeat time forward, the heartbeats of a source could be flushed by several OAP nodes.
+     */
+    private static final String HEARTBEAT_SCRIPT = "if (ctx._source." + RegisterSource.HEARTBEAT_TIME + " < params.time) { ctx._source."
+        + RegisterSource.HEARTBEAT_TIME + " = params.time } else { ctx.op = 'none' }";
+
     private final StorageBuilder<RegisterSource> storageBuilder;
 
     public RegisterEsDAO(ElasticSearchClient client, StorageBuilder<RegisterSource> storageBuilder) {
@@ -54,7 +61,45 @@ public class RegisterEsDAO extends EsDAO implements IRegisterDAO {
         }
     }
 
+    @Override public List<RegisterSource> multiGet(String modelName, List<String> ids) throws IOException {
+        MultiGetResponse response = getClient().multiGet(modelName, ids);
+
+        List<RegisterSource> result = new ArrayList<>(ids.size());
+        for (MultiGetItemResponse itemResponse : response.getResponses()) {
+            if (itemResponse.isFailed()) {
+                throw new IOException(itemResponse.getFailure().getMessage(), itemResponse.getFailure().getFailure());
+            }
+            if (itemResponse.getResponse().isExists()) {
+                result.add(storageBuilder.map2Data(itemResponse.getResponse().getSource()));
+            }
+        }
+        return result;
+    }
+
     @Override public void forceInsert(String modelName, RegisterSource source) throws IOException {
+        getClient().forceInsert(modelName, source.id(), toSource(source));
+    }
+
+    @Override public void forceInsert(String modelName, List<RegisterSource> sources) throws IOException {
+        Map<String, XContentBuilder> builders = new HashMap<>();
+        for (RegisterSource source : sources) {
+            builders.put(source.id(), toSource(source));
+        }
+
+        getClient().forceInsert(modelName, builders);
+    }
+
+    @Override public void updateHeartbeatTime(String modelName, Map<String, Long> heartbeatTimes) throws IOException {
+        Map<String, Script> scripts = new HashMap<>();
+        for (Map.Entry<String, Long> heartbeatTime : heartbeatTimes.entrySet()) {
+            Map<String, Object> params = Collections.singletonMap("time", heartbeatTime.getValue());
+            scripts.put(heartbeatTime.getKey(), new Script(ScriptType.INLINE, Script.DEFAULT_SCRIPT_LANG, HEARTBEAT_SCRIPT, params));
+        }
+
+        getClient().update(modelName, scripts);
+    }
+
+    private XContentBuilder toSource(RegisterSource source) throws IOException {
         Map<String, Object> objectMap = storageBuilder.data2Map(source);
 
         XContentBuilder builder = XContentFactory.jsonBuilder().startObject();
@@ -62,8 +107,7 @@ public class RegisterEsDAO extends EsDAO implements IRegisterDAO {
             builder.field(key, objectMap.get(key));
         }
         builder.endObject();
-
-        getClient().forceInsert(modelName, source.id(), builder);
+        return builder;
     }
 
     @Override public void forceUpdate(String modelName, RegisterSource source) throws IOException {
@@ -78,6 +122,15 @@ public class RegisterEsDAO extends EsDAO implements IRegisterDAO {
         getClient().forceUpdate(modelName, source.id(), builder);
     }
 
+    @Override public void forceUpdate(String modelName, List<RegisterSource> sources) throws IOException {
+        Map<String, XContentBuilder> builders = new HashMap<>();
+        for (RegisterSource source : sources) {
+            builders.put(source.id(), toSource(source));
+        }
+
+        getClient().forceUpdate(modelName, builders);
+    }
+
     @Override public int max(String modelName) throws IOException {
         SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder();
         searchSourceBuilder.aggregation(AggregationBuilders.max(RegisterSource.SEQUENCE).field(RegisterSource.SEQUENCE));
@@ -79,6 +79,25 @@ public class RegisterLockDAOImpl extends EsDAO implements IRegisterLockDAO {
         getClient().forceUpdate(RegisterLockIndex.NAME, id, source, version);
     }
 
+    @Override public int getReservedSequence(Scope scope) throws IOException {
+        GetResponse response = getClient().get(RegisterLockIndex.NAME, String.valueOf(scope.ordinal()));
+        if (response.isExists()) {
+            Object sequence = response.getSource().get(RegisterLockIndex.COLUMN_SEQUENCE);
+            if (sequence != null) {
+                return ((Number)sequence).intValue();
+            }
+        }
+        return 0;
+    }
+
+    @Override public void setReservedSequence(Scope scope, int sequence) throws IOException {
+        XContentBuilder source = XContentFactory.jsonBuilder().startObject();
+        source.field(RegisterLockIndex.COLUMN_SEQUENCE, sequence);
+        source.endObject();
+
+        getClient().forceUpdate(RegisterLockIndex.NAME, String.valueOf(scope.ordinal()), source);
+    }
+
     @Override public void releaseLock(Scope scope) {
         String id = String.valueOf(scope.ordinal());
 
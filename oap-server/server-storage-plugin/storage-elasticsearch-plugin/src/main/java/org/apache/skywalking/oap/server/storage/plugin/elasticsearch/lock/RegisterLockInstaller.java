@@ -74,6 +74,9 @@ public class RegisterLockInstaller {
             .startObject(RegisterLockIndex.COLUMN_LOCKABLE)
             .field("type", "boolean")
             .endObject()
+            .startObject(RegisterLockIndex.COLUMN_SEQUENCE)
+            .field("type", "integer")
+            .endObject()
             .endObject()
             .endObject();
 
@@ -120,6 +120,27 @@ public class MetricQueryEsDAO extends EsDAO implements IMetricQueryDAO {
         return intValues;
     }
 
+    @Override public IntValues getLinearPercentileValues(String indName, Step step, List<String> ids,
+        String valueCName, int rank) throws IOException {
+        String indexName = DownSamplingModelNameBuilder.build(step, indName);
+
+        MultiGetResponse response = getClient().multiGet(indexName, ids);
+
+        IntValues intValues = new IntValues();
+        for (MultiGetItemResponse itemResponse : response.getResponses()) {
+
+            KVInt kvInt = new KVInt();
+            kvInt.setId(itemResponse.getId());
+            kvInt.setValue(0);
+            Map<String, Object> source = itemResponse.getResponse().getSource();
+            if (source != null) {
+                kvInt.setValue(new IntKeyLongValueHistogram((String)source.get(valueCName)).get(rank));
+            }
+            intValues.getValues().add(kvInt);
+        }
+        return intValues;
+    }
+
     @Override public Thermodynamic getThermodynamic(String indName, Step step, List<String> ids,
         String valueCName) throws IOException {
         String indexName = DownSamplingModelNameBuilder.build(step, indName);
@@ -51,4 +51,37 @@ public class SQLExecutor {
         logger.debug("execute aql in batch: {}", sql);
         preparedStatement.execute();
     }
+
+    /**
+     * Execute the executors in the batches of the prepared statements, the adjacent ones of the same sql share one
+     * batch.
+     */
+    public static void invokeBatch(Connection connection, List<SQLExecutor> executors) throws SQLException {
+        PreparedStatement preparedStatement = null;
+        String batchSql = null;
+        try {
+            for (SQLExecutor executor : executors) {
+                if (!executor.sql.equals(batchSql)) {
+                    if (preparedStatement != null) {
+                        preparedStatement.executeBatch();
+                        preparedStatement.close();
+                    }
+                    batchSql = executor.sql;
+                    preparedStatement = connection.prepareStatement(batchSql);
+                }
+
+                for (int i = 0; i < executor.param.size(); i++) {
+                    preparedStatement.setObject(i + 1, executor.param.get(i));
+                }
+                preparedStatement.addBatch();
+            }
+            if (preparedStatement != null) {
+                preparedStatement.executeBatch();
+            }
+        } finally {
+            if (preparedStatement != null) {
+                preparedStatement.close();
+            }
+        }
+    }
 }
@@ -60,4 +60,8 @@ public class H2BatchDAO implements IBatchDAO {
             logger.error(e.getMessage(), e);
         }
     }
+
+    @Override public void flush() {
+        // Statements are executed in batchPersistence, nothing is buffered.
+    }
 }
@@ -19,6 +19,8 @@
 package org.apache.skywalking.oap.server.storage.plugin.jdbc.h2.dao;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import org.apache.skywalking.oap.server.core.analysis.indicator.Indicator;
 import org.apache.skywalking.oap.server.core.storage.IIndicatorDAO;
 import org.apache.skywalking.oap.server.core.storage.StorageBuilder;
@@ -37,8 +39,13 @@ public class H2IndicatorDAO extends H2SQLExecutor implements IIndicatorDAO<SQLEx
         this.storageBuilder = storageBuilder;
     }
 
-    @Override public Indicator get(String modelName, Indicator indicator) throws IOException {
-        return (Indicator)getByID(h2Client, modelName, indicator.id(), storageBuilder);
+    @Override public List<Indicator> multiGet(String modelName, List<Indicator> indicators) throws IOException {
+        List<String> ids = new ArrayList<>(indicators.size());
+        indicators.forEach(indicator -> ids.add(indicator.id()));
+
+        List<Indicator> result = new ArrayList<>(ids.size());
+        getByIDs(h2Client, modelName, ids, storageBuilder).forEach(storageData -> result.add((Indicator)storageData));
+        return result;
     }
 
     @Override public SQLExecutor prepareBatchInsert(String modelName, Indicator indicator) throws IOException {
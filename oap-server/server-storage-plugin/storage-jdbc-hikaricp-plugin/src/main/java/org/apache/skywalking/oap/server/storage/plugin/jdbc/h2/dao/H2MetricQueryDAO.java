@@ -29,6 +29,7 @@ import java.util.Map;
 import org.apache.skywalking.oap.server.core.analysis.indicator.Indicator;
 import org.apache.skywalking.oap.server.core.analysis.indicator.IntKeyLongValue;
 import org.apache.skywalking.oap.server.core.analysis.indicator.IntKeyLongValueArray;
+import org.apache.skywalking.oap.server.core.analysis.indicator.IntKeyLongValueHistogram;
 import org.apache.skywalking.oap.server.core.analysis.indicator.ThermodynamicIndicator;
 import org.apache.skywalking.oap.server.core.query.entity.IntValues;
 import org.apache.skywalking.oap.server.core.query.entity.KVInt;
@@ -140,6 +141,35 @@ public class H2MetricQueryDAO extends H2SQLExecutor implements IMetricQueryDAO {
         return orderWithDefault0(intValues, ids);
     }
 
+    @Override public IntValues getLinearPercentileValues(String indName, Step step, List<String> ids,
+        String valueCName, int rank) throws IOException {
+        String tableName = DownSamplingModelNameBuilder.build(step, indName);
+
+        StringBuilder idValues = new StringBuilder();
+        for (int valueIdx = 0; valueIdx < ids.size(); valueIdx++) {
+            if (valueIdx != 0) {
+                idValues.append(",");
+            }
+            idValues.append("'").append(ids.get(valueIdx)).append("'");
+        }
+
+        IntValues intValues = new IntValues();
+
+        try (Connection connection = h2Client.getConnection()) {
+            try (ResultSet resultSet = h2Client.executeQuery(connection, "select id, " + valueCName + " from " + tableName + " where id in (" + idValues.toString() + ")")) {
+                while (resultSet.next()) {
+                    KVInt kv = new KVInt();
+                    kv.setId(resultSet.getString("id"));
+                    kv.setValue(new IntKeyLongValueHistogram(resultSet.getString(valueCName)).get(rank));
+                    intValues.getValues().add(kv);
+                }
+            }
+        } catch (SQLException e) {
+            throw new IOException(e);
+        }
+        return orderWithDefault0(intValues, ids);
+    }
+
     /**
      * Make sure the order is same as the expected order, and keep default value as 0.
      *
@@ -20,14 +20,19 @@ package org.apache.skywalking.oap.server.storage.plugin.jdbc.h2.dao;
 
 import java.io.IOException;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import org.apache.skywalking.oap.server.core.Const;
 import org.apache.skywalking.oap.server.core.register.RegisterSource;
 import org.apache.skywalking.oap.server.core.storage.IRegisterDAO;
 import org.apache.skywalking.oap.server.core.storage.StorageBuilder;
 import org.apache.skywalking.oap.server.library.client.jdbc.JDBCClientException;
 import org.apache.skywalking.oap.server.library.client.jdbc.hikaricp.JDBCHikariCPClient;
+import org.apache.skywalking.oap.server.storage.plugin.jdbc.SQLExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -80,6 +85,25 @@ public class H2RegisterDAO extends H2SQLExecutor implements IRegisterDAO {
         }
     }
 
+    @Override public List<RegisterSource> multiGet(String modelName, List<String> ids) throws IOException {
+        List<RegisterSource> sources = new ArrayList<>(ids.size());
+        getByIDs(h2Client, modelName, ids, storageBuilder).forEach(storageData -> sources.add((RegisterSource)storageData));
+        return sources;
+    }
+
+    @Override public void forceInsert(String modelName, List<RegisterSource> sources) throws IOException {
+        try (Connection connection = h2Client.getTransactionConnection()) {
+            for (RegisterSource source : sources) {
+                getInsertExecutor(modelName, source, storageBuilder).invoke(connection);
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            throw new IOException(e.getMessage(), e);
+        } catch (JDBCClientException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
     @Override public void forceUpdate(String modelName, RegisterSource source) throws IOException {
         try (Connection connection = h2Client.getConnection()) {
             getUpdateExecutor(modelName, source, storageBuilder).invoke(connection);
@@ -89,4 +113,39 @@ public class H2RegisterDAO extends H2SQLExecutor implements IRegisterDAO {
             throw new IOException(e.getMessage(), e);
         }
     }
+
+    @Override public void forceUpdate(String modelName, List<RegisterSource> sources) throws IOException {
+        try (Connection connection = h2Client.getTransactionConnection()) {
+            List<SQLExecutor> executors = new ArrayList<>(sources.size());
+            for (RegisterSource source : sources) {
+                executors.add(getUpdateExecutor(modelName, source, storageBuilder));
+            }
+            SQLExecutor.invokeBatch(connection, executors);
+            connection.commit();
+        } catch (SQLException e) {
+            throw new IOException(e.getMessage(), e);
+        } catch (JDBCClientException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    @Override public void updateHeartbeatTime(String modelName, Map<String, Long> heartbeatTimes) throws IOException {
+        String sql = "UPDATE " + modelName + " SET " + RegisterSource.HEARTBEAT_TIME + " = ? WHERE id = ? AND " + RegisterSource.HEARTBEAT_TIME + " < ?";
+        try (Connection connection = h2Client.getTransactionConnection()) {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                for (Map.Entry<String, Long> heartbeatTime : heartbeatTimes.entrySet()) {
+                    statement.setLong(1, heartbeatTime.getValue());
+                    statement.setString(2, heartbeatTime.getKey());
+                    statement.setLong(3, heartbeatTime.getValue());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            throw new IOException(e.getMessage(), e);
+        } catch (JDBCClientException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
 }
@@ -34,4 +34,15 @@ public class H2RegisterLockDAO implements IRegisterLockDAO {
     @Override public void releaseLock(Scope scope) {
 
     }
+
+    /**
+     * H2 is used by only one OAP node, no reservation shared with others.
+     */
+    @Override public int getReservedSequence(Scope scope) {
+        return 0;
+    }
+
+    @Override public void setReservedSequence(Scope scope, int sequence) {
+
+    }
 }
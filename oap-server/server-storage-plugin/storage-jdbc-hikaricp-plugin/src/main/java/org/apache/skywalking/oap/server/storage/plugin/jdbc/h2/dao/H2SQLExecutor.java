@@ -59,6 +59,31 @@ public class H2SQLExecutor {
         }
     }
 
+    protected List<StorageData> getByIDs(JDBCHikariCPClient h2Client, String modelName, List<String> ids,
+        StorageBuilder storageBuilder) throws IOException {
+        SQLBuilder sql = new SQLBuilder("SELECT * FROM " + modelName + " WHERE id IN");
+        sql.append("(");
+        for (int i = 0; i < ids.size(); i++) {
+            sql.append(i == 0 ? "?" : ",?");
+        }
+        sql.append(")");
+
+        try (Connection connection = h2Client.getConnection()) {
+            try (ResultSet rs = h2Client.executeQuery(connection, sql.toString(), ids.toArray())) {
+                List<StorageData> storageDataList = new ArrayList<>(ids.size());
+                StorageData storageData;
+                while ((storageData = toStorageData(rs, modelName, storageBuilder)) != null) {
+                    storageDataList.add(storageData);
+                }
+                return storageDataList;
+            }
+        } catch (SQLException e) {
+            throw new IOException(e.getMessage(), e);
+        } catch (JDBCClientException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
     protected StorageData getByColumn(JDBCHikariCPClient h2Client, String modelName, String columnName, Object value,
         StorageBuilder storageBuilder) throws IOException {
         try (Connection connection = h2Client.getConnection()) {
@@ -21,6 +21,7 @@ package org.apache.skywalking.oap.server.storage.plugin.jdbc.mysql;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import org.apache.skywalking.oap.server.core.register.worker.InventoryProcess;
 import org.apache.skywalking.oap.server.core.source.Scope;
@@ -51,7 +52,8 @@ public class MySQLRegisterLockInstaller {
         JDBCHikariCPClient h2Client = (JDBCHikariCPClient)client;
         SQLBuilder tableCreateSQL = new SQLBuilder("CREATE TABLE IF NOT EXISTS " + LOCK_TABLE_NAME + " (");
         tableCreateSQL.appendLine("id int  PRIMARY KEY, ");
-        tableCreateSQL.appendLine("name VARCHAR(100)");
+        tableCreateSQL.appendLine("name VARCHAR(100), ");
+        tableCreateSQL.appendLine("sequence int DEFAULT 0");
         tableCreateSQL.appendLine(")");
 
         if (logger.isDebugEnabled()) {
@@ -60,6 +62,7 @@ public class MySQLRegisterLockInstaller {
 
         try (Connection connection = h2Client.getConnection()) {
             h2Client.execute(connection, tableCreateSQL.toString());
+            addSequenceColumnIfAbsent(h2Client, connection);
 
             for (Class registerSource : InventoryProcess.INSTANCE.getAllRegisterSources()) {
                 Scope sourceScope = StorageEntityAnnotationUtils.getSourceScope(registerSource);
@@ -73,6 +76,28 @@ public class MySQLRegisterLockInstaller {
         }
     }
 
+    /**
+     * The lock table created by the former versions has no sequence column.
+     */
+    private void addSequenceColumnIfAbsent(JDBCHikariCPClient h2Client, Connection connection) throws StorageException {
+        try (ResultSet resultSet = h2Client.executeQuery(connection, "select * from " + LOCK_TABLE_NAME + " where 1 = 0")) {
+            ResultSetMetaData metaData = resultSet.getMetaData();
+            for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                if ("sequence".equalsIgnoreCase(metaData.getColumnName(i))) {
+                    return;
+                }
+            }
+        } catch (SQLException | JDBCClientException e) {
+            throw new StorageException(e.getMessage(), e);
+        }
+
+        try {
+            h2Client.execute(connection, "alter table " + LOCK_TABLE_NAME + " add column sequence int DEFAULT 0");
+        } catch (JDBCClientException e) {
+            throw new StorageException(e.getMessage(), e);
+        }
+    }
+
     private void putIfAbsent(JDBCHikariCPClient h2Client, Connection connection, int scopeId,
         String scopeName) throws StorageException {
         boolean existed = false;
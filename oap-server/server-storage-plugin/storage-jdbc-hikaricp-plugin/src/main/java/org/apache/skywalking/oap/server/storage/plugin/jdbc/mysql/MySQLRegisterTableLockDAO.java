@@ -18,7 +18,9 @@
 
 package org.apache.skywalking.oap.server.storage.plugin.jdbc.mysql;
 
+import java.io.IOException;
 import java.sql.Connection;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.HashMap;
 import java.util.Map;
@@ -68,6 +70,27 @@ public class MySQLRegisterTableLockDAO implements IRegisterLockDAO {
         return false;
     }
 
+    @Override public int getReservedSequence(Scope scope) throws IOException {
+        Connection connection = onLockingConnection.get(scope);
+        try (ResultSet rs = h2Client.executeQuery(connection, "select sequence from " + MySQLRegisterLockInstaller.LOCK_TABLE_NAME + " where id = " + scope.ordinal())) {
+            if (rs.next()) {
+                return rs.getInt(1);
+            }
+            return 0;
+        } catch (JDBCClientException | SQLException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    @Override public void setReservedSequence(Scope scope, int sequence) throws IOException {
+        Connection connection = onLockingConnection.get(scope);
+        try {
+            h2Client.execute(connection, "update " + MySQLRegisterLockInstaller.LOCK_TABLE_NAME + " set sequence = ? where id = ?", sequence, scope.ordinal());
+        } catch (JDBCClientException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
     @Override public void releaseLock(Scope scope) {
         Connection connection = onLockingConnection.get(scope);
         if (connection != null) {